@@ -0,0 +1,42 @@
+package com.nazjara.config;
+
+import com.nazjara.dto.AuthDto;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpHeaders;
+
+/**
+ * Per-request header work of an authenticated call: copying the pre-built browser headers into
+ * the request, as RestClient does for default headers, and setting the session cookie, as
+ * {@link SessionCookieInterceptor} does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BrowserHeadersBenchmark {
+
+  private final BrowserHeadersHolder headersHolder = new BrowserHeadersHolder();
+  private final AuthDto session = AuthDto.builder()
+      .clientSession("0123456789abcdef")
+      .cookieHeader("cookie_message=0; client_session=0123456789abcdef")
+      .build();
+
+  @Benchmark
+  public HttpHeaders authenticatedRequestHeaders() {
+    var httpHeaders = new HttpHeaders();
+    httpHeaders.addAll(headersHolder.getHeaders());
+    httpHeaders.set(HttpHeaders.COOKIE, session.getCookieHeader());
+    return httpHeaders;
+  }
+}
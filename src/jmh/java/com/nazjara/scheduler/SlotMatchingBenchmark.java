@@ -0,0 +1,74 @@
+package com.nazjara.scheduler;
+
+import com.nazjara.model.response.AvailableSlotsResponse;
+import com.nazjara.util.DateTimeUtils;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Indexing of the available slots of a response and lookup of the target appointment time, as
+ * done by {@link AppointmentScheduler} on every poll.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SlotMatchingBenchmark {
+
+  private static final String APPOINTMENT_TIME = "21:30";
+
+  @Param({"16", "64", "256"})
+  private int slotCount;
+
+  private List<AvailableSlotsResponse.Slot> slots;
+  private SlotIndex index;
+  private long target;
+
+  @Setup
+  public void setUp() {
+    var dayStart = DateTimeUtils.getFutureTimestamp(DateTimeUtils.ROMANIA_ZONE, 14, null);
+    target = DateTimeUtils.getFutureTimestamp(DateTimeUtils.ROMANIA_ZONE, 14,
+        APPOINTMENT_TIME);
+    var step = (target - dayStart) / slotCount;
+
+    slots = new ArrayList<>(slotCount);
+    for (int i = 0; i < slotCount; i++) {
+      slots.add(AvailableSlotsResponse.Slot.builder()
+          .isAvailable(i % 3 == 0 ? 0 : 1)
+          .staffId(String.valueOf(1000 + i % 4))
+          .time(i == slotCount - 1 ? target : dayStart + i * step)
+          .groupId(String.valueOf(5000 + i))
+          .build());
+    }
+    index = SlotIndex.of(slots);
+  }
+
+  @Benchmark
+  public SlotIndex index() {
+    return SlotIndex.of(slots);
+  }
+
+  @Benchmark
+  public List<AvailableSlotsResponse.Slot> findAll() {
+    return index.findAll(target);
+  }
+
+  @Benchmark
+  public List<AvailableSlotsResponse.Slot> indexAndFindAll() {
+    return SlotIndex.of(slots).findAll(target);
+  }
+}
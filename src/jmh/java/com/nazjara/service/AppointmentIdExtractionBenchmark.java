@@ -0,0 +1,52 @@
+package com.nazjara.service;
+
+import com.nazjara.util.AppointmentIdScanner;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Extraction of the appointment group ID from the confirmation page, with the Jsoup parse and
+ * with the streaming scanner used in fast extraction mode.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AppointmentIdExtractionBenchmark {
+
+  private String html;
+
+  @Setup
+  public void setUp() throws IOException {
+    try (var page = getClass().getResourceAsStream("/confirmation-page.html")) {
+      html = new String(Objects.requireNonNull(page, "confirmation-page.html").readAllBytes(),
+          StandardCharsets.UTF_8);
+    }
+  }
+
+  @Benchmark
+  public long jsoup() {
+    return AppointmentService.extractAppointmentId(html);
+  }
+
+  @Benchmark
+  public long scanner() throws IOException {
+    return AppointmentIdScanner.scanHtml(new StringReader(html), new StringBuilder())
+        .orElseThrow();
+  }
+}
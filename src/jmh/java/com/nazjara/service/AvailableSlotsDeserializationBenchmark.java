@@ -0,0 +1,81 @@
+package com.nazjara.service;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.nazjara.model.response.AvailableSlotsResponse;
+import com.nazjara.util.AvailableSlotsParser;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Reading a {@code get_available_slots} response body at realistic slot counts: full binding with
+ * the unknown-property handling of the ObjectMapper Spring Boot configures for RestClient, and the
+ * streaming parser used by booking jobs, looking for the last slot of the day.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AvailableSlotsDeserializationBenchmark {
+
+  @Param({"16", "64", "256"})
+  private int slotCount;
+
+  private ObjectMapper objectMapper;
+  private byte[] body;
+  private long targetTime;
+
+  @Setup
+  public void setUp() throws IOException {
+    objectMapper = JsonMapper.builder()
+        .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+        .build();
+
+    var slots = new ArrayList<Map<String, Object>>(slotCount);
+    for (int i = 0; i < slotCount; i++) {
+      slots.add(Map.of(
+          "is_available", i % 3 == 0 ? 0 : 1,
+          "staff_id", String.valueOf(1000 + i % 4),
+          "time", 1_760_000_000L + i * 1800L,
+          "group_id", String.valueOf(5000 + i),
+          "staff_name", "Teren " + (i % 4 + 1),
+          "duration", 60));
+    }
+
+    targetTime = 1_760_000_000L + (slotCount - 1) * 1800L;
+    body = objectMapper.writeValueAsBytes(Map.of(
+        "message", "",
+        "success", 1,
+        "available_slots", slots,
+        "service_details", Map.of("id", 7473, "name", "Tenis", "duration", 60, "price", 100)));
+  }
+
+  @Benchmark
+  public AvailableSlotsResponse deserialize() throws IOException {
+    return objectMapper.readValue(body, AvailableSlotsResponse.class);
+  }
+
+  @Benchmark
+  public List<AvailableSlotsResponse.Slot> stream() throws IOException {
+    try (var parser = objectMapper.createParser(body)) {
+      return AvailableSlotsParser.parse(parser, targetTime, true);
+    }
+  }
+}
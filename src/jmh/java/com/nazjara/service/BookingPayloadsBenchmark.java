@@ -0,0 +1,90 @@
+package com.nazjara.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.nazjara.model.request.CreateAppointmentRequest;
+import com.nazjara.model.response.AvailableSlotsResponse;
+import com.nazjara.util.DateTimeUtils;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Producing the create and confirm request bodies once a slot is found: building the request
+ * objects and serializing them with Jackson, as before, against rendering the payloads primed by
+ * {@link BookingPayloads}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookingPayloadsBenchmark {
+
+  private ObjectMapper objectMapper;
+  private BookingPayloads.Primed primed;
+  private BookingPayloads bookingPayloads;
+  private AvailableSlotsResponse.Slot slot;
+
+  @Setup
+  public void setUp() {
+    objectMapper = JsonMapper.builder().build();
+    slot = AvailableSlotsResponse.Slot.builder()
+        .isAvailable(1)
+        .staffId("20359")
+        .time(1_760_000_000L)
+        .groupId("5012")
+        .build();
+
+    bookingPayloads = new BookingPayloads(objectMapper);
+    primed = bookingPayloads.prime(4609, 37695, slot.getTime());
+  }
+
+  @Benchmark
+  public byte[] createSerialized() throws JsonProcessingException {
+    var appointment = CreateAppointmentRequest.Appointment.builder()
+        .dateUnix(slot.getTime())
+        .dateUtcUnix(DateTimeUtils.convertTimestamp(slot.getTime(),
+            DateTimeUtils.ROMANIA_TIMEZONE, "UTC"))
+        .locationId(4609)
+        .serviceId(37695)
+        .staffId(slot.getStaffId())
+        .startTime(LocalTime.ofInstant(Instant.ofEpochSecond(slot.getTime()),
+            DateTimeUtils.ROMANIA_ZONE).format(DateTimeUtils.TIME_FORMATTER))
+        .originalSlot(0)
+        .build();
+
+    return objectMapper.writeValueAsBytes(CreateAppointmentRequest.builder()
+        .appointments(Collections.singletonList(appointment))
+        .groupId(slot.getGroupId())
+        .build());
+  }
+
+  @Benchmark
+  public byte[] createPrimed() {
+    return primed.create(slot);
+  }
+
+  @Benchmark
+  public byte[] confirmSerialized() throws JsonProcessingException {
+    return objectMapper.writeValueAsBytes(AppointmentService.buildConfirmRequest(48_213_377L));
+  }
+
+  @Benchmark
+  public byte[] confirmPrimed() {
+    return bookingPayloads.confirm(48_213_377L);
+  }
+}
@@ -0,0 +1,38 @@
+package com.nazjara.util;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Timestamp computations made for every slot comparison and booking request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DateTimeUtilsBenchmark {
+
+  private static final String UTC_TIMEZONE = "UTC";
+
+  private final long timestamp = 1_760_000_000L;
+
+  @Benchmark
+  public long getFutureTimestamp() {
+    return DateTimeUtils.getFutureTimestamp(DateTimeUtils.ROMANIA_TIMEZONE, 14, "21:30");
+  }
+
+  @Benchmark
+  public long convertTimestamp() {
+    return DateTimeUtils.convertTimestamp(timestamp, DateTimeUtils.ROMANIA_TIMEZONE, UTC_TIMEZONE);
+  }
+}
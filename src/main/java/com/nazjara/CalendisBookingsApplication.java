@@ -1,13 +1,16 @@
 package com.nazjara;
 
+import com.nazjara.config.NativeHints;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.annotation.EnableScheduling;
 
 @EnableAsync
 @EnableScheduling
 @SpringBootApplication
+@ImportRuntimeHints(NativeHints.class)
 public class CalendisBookingsApplication {
 
   public static void main(String[] args) {
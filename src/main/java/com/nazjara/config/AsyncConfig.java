@@ -0,0 +1,78 @@
+package com.nazjara.config;
+
+import java.time.Duration;
+import java.util.Arrays;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.aop.interceptor.AsyncUncaughtExceptionHandler;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.annotation.AsyncConfigurer;
+import org.springframework.scheduling.concurrent.SimpleAsyncTaskScheduler;
+
+/**
+ * Runs {@code @Async} booking jobs and {@code @Scheduled} triggers on virtual threads. Booking jobs
+ * spend nearly all their time waiting on sleeps and upstream calls, so each one gets its own
+ * virtual thread instead of occupying a slot of a small platform thread pool. On shutdown, running
+ * jobs are interrupted and given a grace period to stop.
+ *
+ * <p>The concurrency limit counts every running job, including jobs standing by for another
+ * instance's lease, and a job submitted over the limit waits for a running one to end. Bookings
+ * a job fans out, speculative and concurrent ones, run on the separate
+ * {@link #bookingFanOutExecutor()} with its own limit: submitted from a job that already holds a
+ * permit, they would otherwise wait for permits that only their own completion can free. Fan-out
+ * bookings never submit further tasks, so a job submitting over the fan-out limit only waits for
+ * other jobs' bookings to end.
+ */
+@Slf4j
+@Configuration
+public class AsyncConfig implements AsyncConfigurer {
+
+  @Value("${calendis.async.concurrency-limit:64}")
+  private int concurrencyLimit;
+
+  @Value("${calendis.async.fan-out-concurrency-limit:32}")
+  private int fanOutConcurrencyLimit;
+
+  @Value("${calendis.async.shutdown-timeout:PT30S}")
+  private Duration shutdownTimeout;
+
+  @Bean
+  public SimpleAsyncTaskExecutor taskExecutor() {
+    var executor = new SimpleAsyncTaskExecutor("booking-");
+    executor.setVirtualThreads(true);
+    executor.setConcurrencyLimit(concurrencyLimit);
+    executor.setTaskTerminationTimeout(shutdownTimeout.toMillis());
+    return executor;
+  }
+
+  @Bean
+  public SimpleAsyncTaskExecutor bookingFanOutExecutor() {
+    var executor = new SimpleAsyncTaskExecutor("booking-fanout-");
+    executor.setVirtualThreads(true);
+    executor.setConcurrencyLimit(fanOutConcurrencyLimit);
+    executor.setTaskTerminationTimeout(shutdownTimeout.toMillis());
+    return executor;
+  }
+
+  @Bean
+  public SimpleAsyncTaskScheduler taskScheduler() {
+    var scheduler = new SimpleAsyncTaskScheduler();
+    scheduler.setThreadNamePrefix("scheduler-");
+    scheduler.setVirtualThreads(true);
+    scheduler.setTaskTerminationTimeout(shutdownTimeout.toMillis());
+    return scheduler;
+  }
+
+  @Override
+  public SimpleAsyncTaskExecutor getAsyncExecutor() {
+    return taskExecutor();
+  }
+
+  @Override
+  public AsyncUncaughtExceptionHandler getAsyncUncaughtExceptionHandler() {
+    return (ex, method, params) -> log.error("Uncaught exception in async method {} with params {}",
+        method.getName(), Arrays.toString(params), ex);
+  }
+}
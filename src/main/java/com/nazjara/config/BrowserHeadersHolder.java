@@ -1,46 +1,47 @@
 package com.nazjara.config;
 
-import java.util.HashMap;
-import java.util.Map;
 import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Component;
 
+/**
+ * Browser-like headers sent with every Calendis request. They are built once into a read-only
+ * {@link HttpHeaders} instance and installed as the RestClient's default headers, so individual
+ * requests do not copy or re-add them.
+ */
 @Component
 public class BrowserHeadersHolder {
 
-  private final Map<String, String> headers = new HashMap<>();
+  private final HttpHeaders headers;
 
   {
+    var defaults = new HttpHeaders();
+
     // Essential headers
-    headers.put("User-Agent",
+    defaults.set("User-Agent",
         "Mozilla/5.0 (X11; Linux x86_64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/138.0.0.0 Safari/537.36");
-    headers.put("Accept", "*/*");
-    headers.put("Accept-Language", "en-US,en;q=0.9,uk;q=0.8,ro;q=0.7");
-    headers.put("Accept-Encoding", "gzip, deflate, br, zstd");
-    headers.put("Connection", "keep-alive");
+    defaults.set("Accept", "*/*");
+    defaults.set("Accept-Language", "en-US,en;q=0.9,uk;q=0.8,ro;q=0.7");
+    defaults.set("Accept-Encoding", "gzip, deflate, br, zstd");
+    defaults.set("Connection", "keep-alive");
 
     // CORS and origin headers
-    headers.put("Referer", "https://www.calendis.ro");
-    headers.put("Origin", "https://www.calendis.ro");
+    defaults.set("Referer", "https://www.calendis.ro");
+    defaults.set("Origin", "https://www.calendis.ro");
 
     // Browser fingerprinting
-    headers.put("Sec-CH-UA",
+    defaults.set("Sec-CH-UA",
         "\"Not)A;Brand\";v=\"8\", \"Chromium\";v=\"138\", \"Google Chrome\";v=\"138\"");
-    headers.put("Sec-CH-UA-Mobile", "?0");
-    headers.put("Sec-CH-UA-Platform", "\"Linux\"");
-    headers.put("Sec-Fetch-Dest", "empty");
-    headers.put("Sec-Fetch-Mode", "cors");
-    headers.put("Sec-Fetch-Site", "same-origin");
-    headers.put("DNT", "1");
-  }
-
-  public Map<String, String> getHeaders() {
-    return new HashMap<>(headers);
+    defaults.set("Sec-CH-UA-Mobile", "?0");
+    defaults.set("Sec-CH-UA-Platform", "\"Linux\"");
+    defaults.set("Sec-Fetch-Dest", "empty");
+    defaults.set("Sec-Fetch-Mode", "cors");
+    defaults.set("Sec-Fetch-Site", "same-origin");
+    defaults.set("DNT", "1");
+
+    this.headers = HttpHeaders.readOnlyHttpHeaders(defaults);
   }
 
-  public Map<String, String> withCookie(String cookie) {
-    var headersWithCookie = new HashMap<>(headers);
-    headersWithCookie.put(HttpHeaders.COOKIE, cookie);
-    return headersWithCookie;
+  public HttpHeaders getHeaders() {
+    return headers;
   }
 }
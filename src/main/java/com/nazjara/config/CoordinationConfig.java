@@ -0,0 +1,66 @@
+package com.nazjara.config;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "calendis.coordination")
+public class CoordinationConfig {
+
+  /**
+   * How job runs are assigned to instances: {@code local} runs every job on this instance,
+   * {@code file} leases each run through lock files in a directory shared by the instances.
+   */
+  private Mode mode = Mode.LOCAL;
+
+  /**
+   * Directory holding lock, completion and heartbeat files in {@code file} mode.
+   */
+  private Path directory = Path.of("data", "coordination");
+
+  /**
+   * Name of this instance. Defaults to the process ID and host name.
+   */
+  private String nodeId;
+
+  /**
+   * How often this instance announces that it is alive.
+   */
+  private Duration heartbeatInterval = Duration.ofSeconds(2);
+
+  /**
+   * How long after its last heartbeat an instance no longer gets jobs assigned.
+   */
+  private Duration nodeTtl = Duration.ofSeconds(10);
+
+  /**
+   * How long instances other than a job's assigned one wait before competing for its lease, so
+   * jobs spread over the instances while the assigned one is alive.
+   */
+  private Duration handoffDelay = Duration.ofMillis(500);
+
+  /**
+   * How long an instance that did not get a run's lease stands by to take over the run if its
+   * holder dies before finishing it.
+   */
+  private Duration standbyWindow = Duration.ofMinutes(15);
+
+  /**
+   * Interval between attempts to take over a lease while standing by.
+   */
+  private Duration retryInterval = Duration.ofSeconds(1);
+
+  /**
+   * How long lock and completion files of past runs are kept.
+   */
+  private Duration retention = Duration.ofDays(7);
+
+  public enum Mode {
+    LOCAL,
+    FILE
+  }
+}
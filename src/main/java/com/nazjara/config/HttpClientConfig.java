@@ -0,0 +1,70 @@
+package com.nazjara.config;
+
+import java.time.Duration;
+import lombok.Data;
+import org.apache.hc.core5.http2.HttpVersionPolicy;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "calendis.http")
+public class HttpClientConfig {
+
+  private int maxConnectionsTotal = 50;
+  private int maxConnectionsPerRoute = 20;
+  private Duration connectTimeout = Duration.ofSeconds(3);
+  private Duration connectionRequestTimeout = Duration.ofSeconds(2);
+  private Duration responseTimeout = Duration.ofSeconds(10);
+  private Duration keepAlive = Duration.ofMinutes(2);
+  private Duration timeToLive = Duration.ofMinutes(10);
+  private Duration validateAfterInactivity = Duration.ofSeconds(2);
+  private Duration evictIdleAfter = Duration.ofMinutes(1);
+  private WarmupConfig warmup = new WarmupConfig();
+
+  private AsyncClientConfig async = new AsyncClientConfig();
+
+  @Data
+  public static class WarmupConfig {
+
+    private boolean enabled = true;
+
+    /**
+     * How long before a job fires connections to the Calendis API are opened.
+     */
+    private Duration lead = Duration.ofSeconds(30);
+
+    /**
+     * Number of connections opened in parallel, so concurrent jobs all start on hot connections.
+     */
+    private int connections = 4;
+
+    /**
+     * Interval between keep-alive pings until the job fires.
+     */
+    private Duration interval = Duration.ofSeconds(3);
+  }
+
+  /**
+   * Non-blocking client used by the asynchronous API. Shares the pool sizes and timeouts above.
+   */
+  @Data
+  public static class AsyncClientConfig {
+
+    /**
+     * HTTP version selection: {@code NEGOTIATE} uses HTTP/2 when the server offers it through
+     * TLS ALPN, {@code FORCE_HTTP_1} and {@code FORCE_HTTP_2} pin the version.
+     */
+    private HttpVersionPolicy versionPolicy = HttpVersionPolicy.NEGOTIATE;
+
+    /**
+     * Number of I/O reactor threads multiplexing all asynchronous requests.
+     */
+    private int ioThreads = 2;
+
+    /**
+     * Overall time limit of a single asynchronous request, after which it is cancelled.
+     */
+    private Duration requestTimeout = Duration.ofSeconds(15);
+  }
+}
@@ -0,0 +1,39 @@
+package com.nazjara.config;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "calendis.journal")
+public class JournalConfig {
+
+  /**
+   * Whether booking job runs are recorded in the journal file and replayed at startup.
+   */
+  private boolean enabled = true;
+
+  /**
+   * Location of the append-only journal file.
+   */
+  private Path path = Path.of("data", "booking-journal.log");
+
+  /**
+   * Location of the slot metadata kept for speculative booking.
+   */
+  private Path slotMetadataPath = Path.of("data", "slot-metadata.tsv");
+
+  /**
+   * How often appended records are forced to disk. Records reach the OS immediately, so they
+   * survive an application restart; this bounds what a host crash can lose.
+   */
+  private Duration syncInterval = Duration.ofSeconds(1);
+
+  /**
+   * How long after its last record an unfinished run is resumed at startup.
+   */
+  private Duration resumeWindow = Duration.ofHours(1);
+}
@@ -0,0 +1,41 @@
+package com.nazjara.config;
+
+import com.nazjara.dto.AppointmentDto;
+import com.nazjara.dto.AuthDto;
+import com.nazjara.exception.ErrorResponse;
+import com.nazjara.model.request.BatchAvailableSlotsRequest;
+import com.nazjara.model.request.ConfirmAppointmentRequest;
+import com.nazjara.model.request.CreateAppointmentRequest;
+import com.nazjara.model.request.LoginRequest;
+import com.nazjara.model.response.AvailableSlotsResponse;
+import com.nazjara.model.response.BatchAvailableSlotsResponse;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.boot.context.properties.bind.BindableRuntimeHintsRegistrar;
+
+/**
+ * Reflection hints for AOT processing and native images. Controller payloads are detected by
+ * Spring AOT, but the bodies exchanged with Calendis through {@code RestClient} and Jackson are
+ * not, and the job list is bound into {@link SchedulerConfig} from properties and from the
+ * runtime jobs endpoint.
+ */
+public class NativeHints implements RuntimeHintsRegistrar {
+
+  @Override
+  public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+    new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(),
+        AvailableSlotsResponse.class,
+        BatchAvailableSlotsResponse.class,
+        CreateAppointmentRequest.class,
+        ConfirmAppointmentRequest.class,
+        BatchAvailableSlotsRequest.class,
+        LoginRequest.class,
+        AppointmentDto.class,
+        AuthDto.class,
+        ErrorResponse.class);
+
+    BindableRuntimeHintsRegistrar.forTypes(SchedulerConfig.class, JournalConfig.class,
+        CoordinationConfig.class).registerHints(hints, classLoader);
+  }
+}
@@ -1,28 +1,127 @@
 package com.nazjara.config;
 
-import org.apache.hc.client5.http.impl.classic.HttpClientBuilder;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.config.TlsConfig;
+import org.apache.hc.client5.http.impl.DefaultConnectionKeepAliveStrategy;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.message.BasicHeader;
+import org.apache.hc.core5.reactor.IOReactorConfig;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
-import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.web.client.RestClient;
 
 @Configuration
 public class RestClientConfig {
 
+  private static final String ASYNC_ACCEPT_ENCODING = "gzip, deflate";
+
   @Value("${calendis.api.base-url}")
   private String baseUrl;
 
   @Bean
-  public RestClient restClient() {
-    var httpClient = HttpClientBuilder.create()
+  public RestClient restClient(HttpClientConfig httpClientConfig,
+      BrowserHeadersHolder headersHolder) {
+    var connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+        .setMaxConnTotal(httpClientConfig.getMaxConnectionsTotal())
+        .setMaxConnPerRoute(httpClientConfig.getMaxConnectionsPerRoute())
+        .setDefaultConnectionConfig(connectionConfig(httpClientConfig))
+        .build();
+
+    var httpClient = HttpClients.custom()
+        .setConnectionManager(connectionManager)
+        .setDefaultRequestConfig(requestConfig(httpClientConfig))
+        .setKeepAliveStrategy(DefaultConnectionKeepAliveStrategy.INSTANCE)
+        .evictExpiredConnections()
+        .evictIdleConnections(
+            TimeValue.ofMilliseconds(httpClientConfig.getEvictIdleAfter().toMillis()))
         .build();
 
     return RestClient.builder()
         .baseUrl(baseUrl)
         .requestFactory(new HttpComponentsClientHttpRequestFactory(httpClient))
+        .defaultHeaders(httpHeaders -> httpHeaders.addAll(headersHolder.getHeaders()))
+        .requestInterceptor(new SessionCookieInterceptor())
+        .build();
+  }
+
+  /**
+   * Non-blocking client behind the asynchronous Calendis API. A few I/O threads multiplex all
+   * requests, and with HTTP/2 many requests share a single connection.
+   */
+  @Bean(initMethod = "start")
+  public CloseableHttpAsyncClient asyncHttpClient(HttpClientConfig httpClientConfig,
+      BrowserHeadersHolder headersHolder) {
+    var async = httpClientConfig.getAsync();
+
+    var connectionManager = PoolingAsyncClientConnectionManagerBuilder.create()
+        .setMaxConnTotal(httpClientConfig.getMaxConnectionsTotal())
+        .setMaxConnPerRoute(httpClientConfig.getMaxConnectionsPerRoute())
+        .setDefaultConnectionConfig(connectionConfig(httpClientConfig))
+        .setDefaultTlsConfig(TlsConfig.custom()
+            .setVersionPolicy(async.getVersionPolicy())
+            .build())
+        .build();
+
+    // Connection-specific headers are illegal in HTTP/2, and HTTP/1.1 keeps connections alive
+    // by default. The async client does not decompress responses, so only the encodings
+    // AsyncCalendisClient inflates itself are accepted.
+    var defaultHeaders = new ArrayList<Header>();
+    headersHolder.getHeaders().forEach((name, values) -> {
+      if (HttpHeaders.ACCEPT_ENCODING.equalsIgnoreCase(name)) {
+        defaultHeaders.add(new BasicHeader(name, ASYNC_ACCEPT_ENCODING));
+      } else if (!HttpHeaders.CONNECTION.equalsIgnoreCase(name)) {
+        values.forEach(value -> defaultHeaders.add(new BasicHeader(name, value)));
+      }
+    });
+
+    return HttpAsyncClients.custom()
+        .setConnectionManager(connectionManager)
+        .setIOReactorConfig(IOReactorConfig.custom()
+            .setIoThreadCount(async.getIoThreads())
+            .build())
+        .setDefaultRequestConfig(requestConfig(httpClientConfig))
+        .setDefaultHeaders(defaultHeaders)
+        .setKeepAliveStrategy(DefaultConnectionKeepAliveStrategy.INSTANCE)
+        .evictExpiredConnections()
+        .evictIdleConnections(
+            TimeValue.ofMilliseconds(httpClientConfig.getEvictIdleAfter().toMillis()))
+        .build();
+  }
+
+  private static ConnectionConfig connectionConfig(HttpClientConfig httpClientConfig) {
+    return ConnectionConfig.custom()
+        .setConnectTimeout(
+            Timeout.ofMilliseconds(httpClientConfig.getConnectTimeout().toMillis()))
+        .setSocketTimeout(
+            Timeout.ofMilliseconds(httpClientConfig.getResponseTimeout().toMillis()))
+        .setTimeToLive(
+            TimeValue.ofMilliseconds(httpClientConfig.getTimeToLive().toMillis()))
+        .setValidateAfterInactivity(
+            TimeValue.ofMilliseconds(httpClientConfig.getValidateAfterInactivity().toMillis()))
+        .build();
+  }
+
+  private static RequestConfig requestConfig(HttpClientConfig httpClientConfig) {
+    return RequestConfig.custom()
+        .setConnectionRequestTimeout(
+            Timeout.ofMilliseconds(httpClientConfig.getConnectionRequestTimeout().toMillis()))
+        .setResponseTimeout(
+            Timeout.ofMilliseconds(httpClientConfig.getResponseTimeout().toMillis()))
+        // Used by the keep-alive strategy when the server does not advertise its own timeout
+        .setDefaultKeepAlive(httpClientConfig.getKeepAlive().toMillis(), TimeUnit.MILLISECONDS)
         .build();
   }
-}
\ No newline at end of file
+}
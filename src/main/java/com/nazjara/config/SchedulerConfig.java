@@ -1,20 +1,37 @@
 package com.nazjara.config;
 
+import com.nazjara.model.request.LoginRequest;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
 
 @Data
 @Configuration
 @ConfigurationProperties(prefix = "calendis.scheduler")
 public class SchedulerConfig {
 
+  public static final String PRIMARY_ACCOUNT = "primary";
+  public static final String SECONDARY_ACCOUNT = "secondary";
+
   private EmailConfig email = new EmailConfig();
   private PasswordConfig password = new PasswordConfig();
-  private LocationsConfig laTerenuri = new LocationsConfig();
-  private LocationsConfig gheorgheni = new LocationsConfig();
+  private UserIdConfig userId = new UserIdConfig();
+  private List<JobConfig> jobs = new ArrayList<>();
+
+  /**
+   * Whether the configured jobs are scheduled, and unfinished runs resumed, at startup. Turned
+   * off for startup time measurements, which must not book.
+   */
+  private boolean enabled = true;
   private boolean remember = true;
   private int dayOnly = 1;
+  private ReleaseConfig release = new ReleaseConfig();
+  private PollingConfig polling = new PollingConfig();
+  private RetryConfig retry = new RetryConfig();
 
   @Data
   public static class EmailConfig {
@@ -30,29 +47,236 @@ public class SchedulerConfig {
     private String secondary;
   }
 
+  /**
+   * Calendis end user IDs of the accounts, needed to delete appointments booked under them.
+   */
   @Data
-  public static class LocationsConfig {
+  public static class UserIdConfig {
 
-    private int locationId;
-    private SportServicesConfig tenis = new SportServicesConfig();
-    private SportServicesConfig squash = new SportServicesConfig();
-    private SportServicesConfig tenisTable = new SportServicesConfig();
+    private long primary;
+    private long secondary;
+  }
+
+  /**
+   * Resolves the credentials of a configured account.
+   *
+   * @param account the account name, {@code primary} or {@code secondary}
+   * @return the login request for the account
+   * @throws IllegalArgumentException if the account name is unknown
+   */
+  public LoginRequest loginRequest(String account) {
+    return switch (account) {
+      case PRIMARY_ACCOUNT -> LoginRequest.builder()
+          .email(email.getPrimary())
+          .password(password.getPrimary())
+          .remember(remember)
+          .build();
+      case SECONDARY_ACCOUNT -> LoginRequest.builder()
+          .email(email.getSecondary())
+          .password(password.getSecondary())
+          .remember(remember)
+          .build();
+      default -> throw new IllegalArgumentException("Unknown account: " + account);
+    };
+  }
+
+  /**
+   * Resolves the Calendis end user ID of a configured account.
+   *
+   * @param account the account name, {@code primary} or {@code secondary}
+   * @return the user ID, or 0 if not configured
+   * @throws IllegalArgumentException if the account name is unknown
+   */
+  public long userId(String account) {
+    return switch (account) {
+      case PRIMARY_ACCOUNT -> userId.getPrimary();
+      case SECONDARY_ACCOUNT -> userId.getSecondary();
+      default -> throw new IllegalArgumentException("Unknown account: " + account);
+    };
+  }
+
+  /**
+   * Resolves the accounts a job books under: its own account and, in race mode, every other
+   * account with configured credentials.
+   *
+   * @param job the job definition
+   * @return the account names, the job's own account first
+   */
+  public List<String> bookingAccounts(JobConfig job) {
+    var accounts = new ArrayList<String>();
+    accounts.add(job.getAccount());
+
+    if (job.isRace()) {
+      for (var account : List.of(PRIMARY_ACCOUNT, SECONDARY_ACCOUNT)) {
+        var credentials = loginRequest(account);
+        if (!account.equals(job.getAccount()) && StringUtils.hasText(credentials.getEmail())
+            && StringUtils.hasText(credentials.getPassword())) {
+          accounts.add(account);
+        }
+      }
+    }
+    return accounts;
   }
 
   @Data
-  public static class SportServicesConfig {
+  public static class JobConfig {
+
+    private String name;
+    private boolean enabled = false;
+
+    /**
+     * Account the job books under, {@code primary} or {@code secondary}.
+     */
+    private String account = PRIMARY_ACCOUNT;
 
+    private int locationId;
     private int serviceId;
     private int stuffId;
-    private ScheduleConfig primary = new ScheduleConfig();
-    private ScheduleConfig secondary = new ScheduleConfig();
+    private String cronExpression;
+    private String appointmentTime;
+
+    /**
+     * Further acceptable appointment times (HH:mm), in order of preference after
+     * {@code appointmentTime}.
+     */
+    private List<String> fallbackTimes = new ArrayList<>();
+
+    /**
+     * Acceptable staff (court) IDs in order of preference. When empty, any staff is acceptable.
+     */
+    private List<String> staffIds = new ArrayList<>();
+
+    /**
+     * Number of the best ranked candidate slots booked concurrently. The first confirmed booking
+     * is kept and the others are deleted again, so above 1 the account's user ID is required.
+     */
+    private int parallelBookings = 1;
+
+    /**
+     * Whether every configured account books the selected slots concurrently, keeping the first
+     * confirmed booking and cancelling or deleting the others, which requires the user ID of every
+     * racing account. Availability is still polled with the job's own account only.
+     */
+    private boolean race = false;
+
+    /**
+     * Time of day (HH:mm[:ss], Romania time) the slots are released. When set, the job waits for
+     * this instant after its cron fires and then bursts availability polls instead of polling
+     * every second.
+     */
+    private String releaseTime;
   }
 
   @Data
-  public static class ScheduleConfig {
+  public static class ReleaseConfig {
 
-    private String cronExpression;
-    private boolean enabled = false;
-    private String appointmentTime;
+    /**
+     * Spacing between availability polls in the burst fired at the release instant.
+     */
+    private Duration burstInterval = Duration.ofMillis(200);
+
+    /**
+     * Number of availability polls in the burst before falling back to regular polling.
+     */
+    private int burstCount = 30;
+
+    /**
+     * Remaining time below which the wait switches from sleeping to parking.
+     */
+    private Duration parkThreshold = Duration.ofMillis(50);
+
+    /**
+     * Remaining time below which the wait busy-spins.
+     */
+    private Duration spinThreshold = Duration.ofMillis(1);
+
+    /**
+     * Number of server Date header samples used to estimate the clock offset.
+     */
+    private int clockSyncSamples = 4;
+
+    /**
+     * How long before a release-time job fires the server clock offset is measured.
+     */
+    private Duration clockSyncLead = Duration.ofMinutes(1);
+
+    /**
+     * Whether to book the target slot at the release instant from cached slot metadata, without
+     * waiting for availability polling to report it as open.
+     */
+    private boolean speculative = false;
+  }
+
+  @Data
+  public static class PollingConfig {
+
+    /**
+     * Interval between availability polls right after a job starts, or after its release burst.
+     */
+    private Duration denseInterval = Duration.ofSeconds(1);
+
+    /**
+     * How long a job polls at the dense interval before backing off.
+     */
+    private Duration denseWindow = Duration.ofSeconds(60);
+
+    /**
+     * First interval once polling backs off.
+     */
+    private Duration backoffInitial = Duration.ofSeconds(2);
+
+    /**
+     * Factor each backed-off interval grows by.
+     */
+    private double backoffMultiplier = 2.0;
+
+    /**
+     * Upper bound of the backed-off interval.
+     */
+    private Duration backoffMax = Duration.ofSeconds(60);
+
+    /**
+     * Fraction by which backed-off intervals are randomly shortened or lengthened.
+     */
+    private double jitter = 0.2;
+
+    /**
+     * How long a job run polls for its slot before giving up, across all of its attempts.
+     */
+    private Duration searchTimeout = Duration.ofHours(1);
+
+    /**
+     * Wait after Calendis throttles a poll (429 or 503) without sending {@code Retry-After}.
+     */
+    private Duration throttleDelay = Duration.ofSeconds(10);
+  }
+
+  @Data
+  public static class RetryConfig {
+
+    /**
+     * Total number of booking attempts of a job run, including the first one.
+     */
+    private int maxAttempts = 5;
+
+    /**
+     * Delay before the first retry.
+     */
+    private Duration initialDelay = Duration.ofSeconds(1);
+
+    /**
+     * Factor each retry delay grows by.
+     */
+    private double multiplier = 2.0;
+
+    /**
+     * Upper bound of the retry delay. A longer {@code Retry-After} is still honored.
+     */
+    private Duration maxDelay = Duration.ofSeconds(30);
+
+    /**
+     * Fraction by which retry delays are randomly shortened or lengthened.
+     */
+    private double jitter = 0.2;
   }
-}
\ No newline at end of file
+}
@@ -0,0 +1,37 @@
+package com.nazjara.config;
+
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "calendis.session")
+public class SessionConfig {
+
+  /**
+   * Account used by API calls that do not name one. Without it, such calls are rejected.
+   */
+  private String defaultEmail;
+
+  /**
+   * Lifetime assumed for sessions whose cookie carries neither Max-Age nor Expires.
+   */
+  private Duration defaultTtl = Duration.ofHours(1);
+
+  /**
+   * Cached sessions expiring sooner than this are re-created instead of reused.
+   */
+  private Duration refreshMargin = Duration.ofMinutes(5);
+
+  /**
+   * How long before a scheduled job fires its account session is refreshed in the background.
+   */
+  private Duration refreshLead = Duration.ofMinutes(2);
+
+  /**
+   * How long a session must stay valid after a job fires to be considered fresh enough.
+   */
+  private Duration minValidityAfterFire = Duration.ofHours(1);
+}
@@ -0,0 +1,29 @@
+package com.nazjara.config;
+
+import com.nazjara.dto.AuthDto;
+import java.io.IOException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+/**
+ * Adds the session cookie to requests that carry a Calendis session in the
+ * {@link #SESSION_ATTRIBUTE} request attribute. The cookie value is built once per session, see
+ * {@link AuthDto#getCookieHeader()}.
+ */
+public class SessionCookieInterceptor implements ClientHttpRequestInterceptor {
+
+  public static final String SESSION_ATTRIBUTE = SessionCookieInterceptor.class.getName()
+      + ".session";
+
+  @Override
+  public ClientHttpResponse intercept(HttpRequest request, byte[] body,
+      ClientHttpRequestExecution execution) throws IOException {
+    if (request.getAttributes().get(SESSION_ATTRIBUTE) instanceof AuthDto session) {
+      request.getHeaders().set(HttpHeaders.COOKIE, session.getCookieHeader());
+    }
+    return execution.execute(request, body);
+  }
+}
@@ -0,0 +1,31 @@
+package com.nazjara.config;
+
+import java.time.Duration;
+import java.time.Instant;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports how long the application took to become ready, then exits. Enabled with
+ * {@code calendis.startup.exit-when-ready=true} by the {@code cds} and {@code native} builds to
+ * measure the cold start of what they produce.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "calendis.startup.exit-when-ready", havingValue = "true")
+public class StartupTimeReporter {
+
+  @EventListener
+  public void onReady(ApplicationReadyEvent event) {
+    var processUptime = ProcessHandle.current().info().startInstant()
+        .map(start -> Duration.between(start, Instant.now()).toMillis())
+        .orElse(-1L);
+    log.info("Startup time: ready {} ms after process start, context {} ms",
+        processUptime, event.getTimeTaken().toMillis());
+    System.exit(SpringApplication.exit(event.getApplicationContext()));
+  }
+}
@@ -1,11 +1,19 @@
 package com.nazjara.controller;
 
 import com.nazjara.dto.AppointmentDto;
+import com.nazjara.model.request.BatchAvailableSlotsRequest;
 import com.nazjara.model.request.CreateAppointmentRequest;
 import com.nazjara.model.response.AvailableSlotsResponse;
+import com.nazjara.model.response.BatchAvailableSlotsResponse;
 import com.nazjara.service.AppointmentService;
+import com.nazjara.service.AsyncCalendisClient;
+import com.nazjara.service.AvailableSlotsCache;
+import com.nazjara.service.SlotWatchService;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -15,6 +23,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @Slf4j
 @RestController
@@ -23,6 +32,8 @@ import org.springframework.web.bind.annotation.RestController;
 public class AppointmentController {
 
   private final AppointmentService appointmentService;
+  private final AsyncCalendisClient asyncCalendisClient;
+  private final SlotWatchService slotWatchService;
 
   /**
    * Retrieves available slots for a specific service, location, and date.
@@ -31,6 +42,7 @@ public class AppointmentController {
    * @param locationId the ID of the location to check availability for
    * @param date       the date (in Unix timestamp format) to check availability for
    * @param dayOnly    flag to indicate whether to return slots for the entire day (1) or not (0)
+   * @param email      the account to query with, defaults to the default account
    * @return a ResponseEntity with the available slots response
    */
   @GetMapping("/available-slots")
@@ -39,31 +51,83 @@ public class AppointmentController {
       @RequestParam("location_id") int locationId,
       @RequestParam(value = "stuff_id", required = false) Integer stuffId,
       @RequestParam("date") long date,
-      @RequestParam(value = "day_only", defaultValue = "1") int dayOnly) {
+      @RequestParam(value = "day_only", defaultValue = "1") int dayOnly,
+      @RequestParam(value = "email", required = false) String email) {
 
     log.info("Getting available slots for service: {}, location: {}, date: {}", serviceId,
         locationId, date);
 
-    var response = appointmentService.getAvailableSlots(serviceId, locationId, stuffId, date,
-        dayOnly);
+    var response = appointmentService.getCachedAvailableSlots(email, serviceId, locationId,
+        stuffId != null ? stuffId : 0, date, dayOnly);
     log.info("Successfully retrieved available slots");
     return ResponseEntity.ok(response);
   }
 
+  /**
+   * Streams availability changes for a service, location, staff and date as server-sent events.
+   * The first {@code snapshot} event carries all slots, later {@code changes} events only the
+   * slots that appeared, disappeared or changed. Subscribers of the same query share one upstream
+   * poller.
+   *
+   * @param serviceId  the ID of the service to watch
+   * @param locationId the ID of the location to watch
+   * @param date       the date (in Unix timestamp format) to watch
+   * @param dayOnly    flag to indicate whether to watch the entire day (1) or not (0)
+   * @param email      the account to query with, defaults to the default account
+   * @return the event stream
+   */
+  @GetMapping(path = "/available-slots/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  public SseEmitter streamAvailableSlots(
+      @RequestParam("service_id") int serviceId,
+      @RequestParam("location_id") int locationId,
+      @RequestParam(value = "stuff_id", required = false) Integer stuffId,
+      @RequestParam("date") long date,
+      @RequestParam(value = "day_only", defaultValue = "1") int dayOnly,
+      @RequestParam(value = "email", required = false) String email) {
+    log.info("Subscribing to available slots for service: {}, location: {}, date: {}",
+        serviceId, locationId, date);
+
+    return slotWatchService.subscribe(email, new AvailableSlotsCache.Key(serviceId, locationId,
+        stuffId != null ? stuffId : 0, date, dayOnly));
+  }
+
+  /**
+   * Retrieves available slots for several service, location, staff and date tuples in one call.
+   * The upstream requests are issued concurrently.
+   *
+   * @param request the tuples to check availability for
+   * @param email   the account to query with, defaults to the default account
+   * @return a ResponseEntity with one result per distinct tuple, in request order
+   */
+  @PostMapping("/available-slots/batch")
+  public ResponseEntity<BatchAvailableSlotsResponse> getAvailableSlotsBatch(
+      @RequestBody BatchAvailableSlotsRequest request,
+      @RequestParam(value = "email", required = false) String email) {
+    log.info("Getting available slots for {} queries", request.getQueries().size());
+
+    var results = appointmentService.getAvailableSlots(email, request.getQueries());
+    log.info("Successfully retrieved available slots for {} distinct queries", results.size());
+    return ResponseEntity.ok(BatchAvailableSlotsResponse.builder()
+        .results(List.copyOf(results.values()))
+        .build());
+  }
+
   /**
    * Books an appointment by creating it and then confirming it in a single operation. This endpoint
    * handles the complete booking flow: 1. Create the appointment 2. Extract the appointment ID from
    * the confirmation page 3. Confirm the appointment
    *
    * @param request the appointment creation request
+   * @param email   the account to book under, defaults to the default account
    * @return a ResponseEntity containing the appointment details
    */
   @PostMapping("/book")
   public ResponseEntity<AppointmentDto> bookAppointment(
-      @RequestBody CreateAppointmentRequest request) {
+      @RequestBody CreateAppointmentRequest request,
+      @RequestParam(value = "email", required = false) String email) {
     log.info("Booking appointment with complete flow: {}", request);
 
-    var appointmentDto = appointmentService.bookAppointment(request);
+    var appointmentDto = appointmentService.bookAppointment(email, request);
     log.info("Successfully booked and confirmed appointment with ID: {}", appointmentDto.getId());
     return ResponseEntity.ok(appointmentDto);
   }
@@ -73,15 +137,84 @@ public class AppointmentController {
    *
    * @param id     the appointment ID to delete
    * @param userId the end user ID performing the deletion
+   * @param email  the account to delete with, defaults to the default account
    * @return 204 No Content on success
    */
   @DeleteMapping("/{id}")
   public ResponseEntity<Void> deleteAppointment(@PathVariable("id") long id,
-      @RequestParam("user_id") long userId) {
+      @RequestParam("user_id") long userId,
+      @RequestParam(value = "email", required = false) String email) {
     log.info("Deleting appointment id={} for user_id={}", id, userId);
 
-    appointmentService.deleteAppointment(id, userId);
+    appointmentService.deleteAppointment(email, id, userId);
     log.info("Deletion requested for appointment id={} (end_user_id={})", id, userId);
     return ResponseEntity.noContent().build();
   }
-}
\ No newline at end of file
+
+  /**
+   * Non-blocking variant of {@link #getAvailableSlots}. Always queries Calendis, bypassing the
+   * slots cache, without holding a request thread while waiting for it.
+   *
+   * @param serviceId  the ID of the service to check availability for
+   * @param locationId the ID of the location to check availability for
+   * @param date       the date (in Unix timestamp format) to check availability for
+   * @param dayOnly    flag to indicate whether to return slots for the entire day (1) or not (0)
+   * @param email      the account to query with, defaults to the default account
+   * @return a future of the ResponseEntity with the available slots response
+   */
+  @GetMapping("/async/available-slots")
+  public CompletableFuture<ResponseEntity<AvailableSlotsResponse>> getAvailableSlotsAsync(
+      @RequestParam("service_id") int serviceId,
+      @RequestParam("location_id") int locationId,
+      @RequestParam(value = "stuff_id", required = false) Integer stuffId,
+      @RequestParam("date") long date,
+      @RequestParam(value = "day_only", defaultValue = "1") int dayOnly,
+      @RequestParam(value = "email", required = false) String email) {
+    log.info("Getting available slots asynchronously for service: {}, location: {}, date: {}",
+        serviceId, locationId, date);
+
+    return asyncCalendisClient.getAvailableSlots(email, serviceId, locationId,
+            stuffId != null ? stuffId : 0, date, dayOnly)
+        .thenApply(ResponseEntity::ok);
+  }
+
+  /**
+   * Non-blocking variant of {@link #bookAppointment}.
+   *
+   * @param request the appointment creation request
+   * @param email   the account to book under, defaults to the default account
+   * @return a future of the ResponseEntity containing the appointment details
+   */
+  @PostMapping("/async/book")
+  public CompletableFuture<ResponseEntity<AppointmentDto>> bookAppointmentAsync(
+      @RequestBody CreateAppointmentRequest request,
+      @RequestParam(value = "email", required = false) String email) {
+    log.info("Booking appointment asynchronously: {}", request);
+
+    return asyncCalendisClient.bookAppointment(email, request)
+        .thenApply(appointmentDto -> {
+          log.info("Successfully booked and confirmed appointment with ID: {}",
+              appointmentDto.getId());
+          return ResponseEntity.ok(appointmentDto);
+        });
+  }
+
+  /**
+   * Non-blocking variant of {@link #deleteAppointment}.
+   *
+   * @param id     the appointment ID to delete
+   * @param userId the end user ID performing the deletion
+   * @param email  the account to delete with, defaults to the default account
+   * @return a future of 204 No Content on success
+   */
+  @DeleteMapping("/async/{id}")
+  public CompletableFuture<ResponseEntity<Void>> deleteAppointmentAsync(
+      @PathVariable("id") long id,
+      @RequestParam("user_id") long userId,
+      @RequestParam(value = "email", required = false) String email) {
+    log.info("Deleting appointment asynchronously id={} for user_id={}", id, userId);
+
+    return asyncCalendisClient.deleteAppointment(email, id, userId)
+        .thenApply(ignored -> ResponseEntity.noContent().build());
+  }
+}
@@ -1,5 +1,7 @@
 package com.nazjara.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import java.time.Instant;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -12,4 +14,19 @@ import lombok.NoArgsConstructor;
 public class AuthDto {
 
   private String clientSession;
-}
\ No newline at end of file
+  private Instant issuedAt;
+  private Instant expiresAt;
+
+  @JsonIgnore
+  private String cookieHeader;
+
+  /**
+   * Checks whether the session is still usable at the given instant.
+   *
+   * @param instant the instant to check
+   * @return true if the session has not expired by then
+   */
+  public boolean isValidAt(Instant instant) {
+    return expiresAt == null || instant.isBefore(expiresAt);
+  }
+}
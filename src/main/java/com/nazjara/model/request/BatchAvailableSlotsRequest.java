@@ -0,0 +1,39 @@
+package com.nazjara.model.request;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchAvailableSlotsRequest {
+
+  private List<SlotsQuery> queries;
+
+  @Data
+  @Builder
+  @NoArgsConstructor
+  @AllArgsConstructor
+  public static class SlotsQuery {
+
+    @JsonProperty("service_id")
+    private int serviceId;
+
+    @JsonProperty("location_id")
+    private int locationId;
+
+    @JsonProperty("stuff_id")
+    private int stuffId;
+
+    private long date;
+
+    @Builder.Default
+    @JsonProperty("day_only")
+    private int dayOnly = 1;
+  }
+}
@@ -0,0 +1,28 @@
+package com.nazjara.model.response;
+
+import com.nazjara.model.request.BatchAvailableSlotsRequest.SlotsQuery;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchAvailableSlotsResponse {
+
+  private List<Result> results;
+
+  @Data
+  @Builder
+  @NoArgsConstructor
+  @AllArgsConstructor
+  public static class Result {
+
+    private SlotsQuery query;
+    private AvailableSlotsResponse response;
+    private String error;
+  }
+}
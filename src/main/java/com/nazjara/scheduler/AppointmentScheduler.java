@@ -1,318 +1,725 @@
 package com.nazjara.scheduler;
 
+import com.nazjara.config.CoordinationConfig;
 import com.nazjara.config.SchedulerConfig;
-import com.nazjara.model.request.CreateAppointmentRequest;
+import com.nazjara.config.SchedulerConfig.JobConfig;
+import com.nazjara.dto.AppointmentDto;
 import com.nazjara.model.request.LoginRequest;
 import com.nazjara.model.response.AvailableSlotsResponse;
 import com.nazjara.service.AppointmentService;
 import com.nazjara.service.AuthService;
+import com.nazjara.service.BookingPayloads;
+import com.nazjara.service.CalendisMetrics;
+import com.nazjara.service.ServerClock;
 import com.nazjara.util.DateTimeUtils;
+import com.nazjara.util.ReleaseTimer;
+import com.nazjara.util.RetryAfter;
+import java.time.Duration;
 import java.time.Instant;
-import java.time.temporal.ChronoUnit;
-import java.util.Collections;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicReference;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.scheduling.annotation.Async;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
+import org.springframework.util.backoff.BackOffExecution;
+import org.springframework.web.client.HttpStatusCodeException;
 
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class AppointmentScheduler {
 
-  private static final String ROMANIA_TIMEZONE = "Europe/Bucharest";
-  private static final String UTC_TIMEZONE = "UTC";
-  private static final int BOOKING_ATTEMPTS_THRESHOLD = 5;
+  private static final String BURST_POLL = "burst";
+  private static final String REGULAR_POLL = "regular";
+  private static final String MDC_JOB = "job";
+  private static final String MDC_ATTEMPT = "attempt";
 
   private final AuthService authService;
   private final AppointmentService appointmentService;
   private final SchedulerConfig schedulerConfig;
-
-  @Scheduled(cron = "${calendis.scheduler.la-terenuri.tenis.primary.cron-expression}", zone = ROMANIA_TIMEZONE)
+  private final ServerClock serverClock;
+  private final SlotMetadataCache slotMetadataCache;
+  @Qualifier("bookingFanOutExecutor")
+  private final AsyncTaskExecutor bookingFanOutExecutor;
+  private final CalendisMetrics metrics;
+  private final BookingJournal bookingJournal;
+  private final BookingBackOffs bookingBackOffs;
+  private final BookingPayloads bookingPayloads;
+  private final JobCoordinator jobCoordinator;
+  private final CoordinationConfig coordinationConfig;
+
+  /**
+   * Runs a single booking job: waits for its slot to become available and books it under the
+   * job's account. Invoked by {@link BookingJobRegistry} when the job's cron fires. A failed
+   * attempt is retried after a jittered exponential delay, or the {@code Retry-After} Calendis
+   * asks for if longer, until the attempts are used up or the failure cannot be fixed by retrying.
+   * When several instances share the jobs, only the one holding the run's
+   * {@link JobCoordinator} lease books.
+   *
+   * @param job the job definition
+   */
   @Async
-  public void scheduleLaTerenuriTenisPrimary() {
-    if (!schedulerConfig.getLaTerenuri().getTenis().getPrimary().isEnabled()) {
-      log.info("La Terenuri Tenis Primary scheduler is disabled. Skipping scheduled run.");
+  public void runJob(JobConfig job) {
+    if (!job.isEnabled()) {
+      log.info("Job {} is disabled. Skipping scheduled run.", job.getName());
       return;
     }
 
-    scheduleAppointmentBooking(
-        schedulerConfig.getEmail().getPrimary(),
-        schedulerConfig.getPassword().getPrimary(),
-        schedulerConfig.isRemember(),
-        schedulerConfig.getLaTerenuri().getTenis().getServiceId(),
-        schedulerConfig.getLaTerenuri().getLocationId(),
-        schedulerConfig.getLaTerenuri().getTenis().getStuffId(),
-        schedulerConfig.getLaTerenuri().getTenis().getPrimary().getAppointmentTime(),
-        schedulerConfig.getDayOnly(), 1);
+    var plan = BookingPlan.of(job);
+    MDC.put(MDC_JOB, job.getName());
+    try {
+      var lease = awaitLease(job, plan.targetTime());
+      if (lease.isEmpty()) {
+        log.info("Job {} run for {} is handled by another instance.", job.getName(),
+            plan.targetTime());
+        return;
+      }
+      try (var held = lease.get()) {
+        if (held.isBookingAbandoned()) {
+          log.warn("Job {} run for {} was taken over from an instance that died while booking "
+              + "it. Its appointments are unknown here, so the run is not repeated.",
+              job.getName(), plan.targetTime());
+          metrics.booking(job.getName(), "abandoned");
+          held.complete();
+          return;
+        }
+        runAttempts(job, schedulerConfig.loginRequest(job.getAccount()),
+            plan.primed(bookingPayloads, job, held));
+        held.complete();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      log.info("Job interrupted, stopping gracefully.");
+      metrics.booking(job.getName(), "interrupted");
+    } finally {
+      MDC.remove(MDC_ATTEMPT);
+      MDC.remove(MDC_JOB);
+    }
   }
 
-  @Scheduled(cron = "${calendis.scheduler.la-terenuri.tenis.secondary.cron-expression}", zone = ROMANIA_TIMEZONE)
-  @Async
-  public void scheduleLaTerenuriTenisSecondary() {
-    if (!schedulerConfig.getLaTerenuri().getTenis().getSecondary().isEnabled()) {
-      log.info("La Terenuri Tenis Secondary scheduler is disabled. Skipping scheduled run.");
-      return;
+  /**
+   * Checks whether the job's run for its current target slot was interrupted, e.g. by a restart,
+   * and should be resumed rather than waiting for the next cron trigger.
+   *
+   * @param job the job definition
+   * @return true if the booking journal has a recent, unfinished run for the job
+   */
+  public boolean hasUnfinishedRun(JobConfig job) {
+    return bookingJournal.isResumable(job.getName(), BookingPlan.of(job).targetTime());
+  }
+
+  /**
+   * Takes the lease of the job's run, letting the instance the job is assigned to go first. If
+   * another instance holds it, stands by until that instance completes the run, taking the run
+   * over if it dies first, or until the standby window ends.
+   */
+  private Optional<JobCoordinator.Lease> awaitLease(JobConfig job, long run)
+      throws InterruptedException {
+    if (!jobCoordinator.prefers(job.getName())) {
+      Thread.sleep(coordinationConfig.getHandoffDelay().toMillis());
     }
 
-    scheduleAppointmentBooking(
-        schedulerConfig.getEmail().getSecondary(),
-        schedulerConfig.getPassword().getSecondary(),
-        schedulerConfig.isRemember(),
-        schedulerConfig.getLaTerenuri().getTenis().getServiceId(),
-        schedulerConfig.getLaTerenuri().getLocationId(),
-        schedulerConfig.getLaTerenuri().getTenis().getStuffId(),
-        schedulerConfig.getLaTerenuri().getTenis().getSecondary().getAppointmentTime(),
-        schedulerConfig.getDayOnly(), 1);
-  }
+    var deadline = Instant.now().plus(coordinationConfig.getStandbyWindow());
+    while (true) {
+      try {
+        var lease = jobCoordinator.tryAcquire(job.getName(), run);
+        if (lease.isPresent() || jobCoordinator.isCompleted(job.getName(), run)) {
+          return lease;
+        }
+      } catch (Exception e) {
+        log.warn("Failed to acquire lease of job {}, retrying", job.getName(), e);
+      }
 
-  @Scheduled(cron = "${calendis.scheduler.la-terenuri.squash.primary.cron-expression}", zone = ROMANIA_TIMEZONE)
-  @Async
-  public void scheduleLaTerenuriSquashPrimary() {
-    if (!schedulerConfig.getLaTerenuri().getSquash().getPrimary().isEnabled()) {
-      log.info("La Terenuri Squash Primary scheduler is disabled. Skipping scheduled run.");
-      return;
+      if (Instant.now().isAfter(deadline)) {
+        return Optional.empty();
+      }
+      Thread.sleep(coordinationConfig.getRetryInterval().toMillis());
     }
+  }
 
-    scheduleAppointmentBooking(
-        schedulerConfig.getEmail().getPrimary(),
-        schedulerConfig.getPassword().getPrimary(),
-        schedulerConfig.isRemember(),
-        schedulerConfig.getLaTerenuri().getSquash().getServiceId(),
-        schedulerConfig.getLaTerenuri().getLocationId(),
-        schedulerConfig.getLaTerenuri().getSquash().getStuffId(),
-        schedulerConfig.getLaTerenuri().getSquash().getPrimary().getAppointmentTime(),
-        schedulerConfig.getDayOnly(), 1);
+  private void runAttempts(JobConfig job, LoginRequest loginRequest, BookingPlan plan)
+      throws InterruptedException {
+    var retries = bookingBackOffs.retry().start();
+    // Retried attempts resume the run's search rather than starting a new one
+    var searchDeadline = Instant.now().plus(schedulerConfig.getPolling().getSearchTimeout());
+
+    for (int attempt = 1; ; attempt++) {
+      MDC.put(MDC_ATTEMPT, String.valueOf(attempt));
+      try {
+        attemptBooking(job, loginRequest, plan, attempt, searchDeadline);
+        return;
+      } catch (InterruptedException e) {
+        throw e;
+      } catch (Exception e) {
+        if (isAlreadyBooked(e)) {
+          log.info("Appointment already booked. Stopping further attempts.");
+          bookingJournal.finished(job.getName(), plan.targetTime());
+          metrics.booking(job.getName(), "already_booked");
+          return;
+        }
+
+        if (!isTransient(e)) {
+          log.error("Booking attempt {} failed permanently. Stopping further attempts.",
+              attempt, e);
+          bookingJournal.finished(job.getName(), plan.targetTime());
+          metrics.booking(job.getName(), "failed");
+          return;
+        }
+
+        var delay = retries.nextBackOff();
+        if (delay == BackOffExecution.STOP) {
+          log.warn("Maximum booking attempts reached. Stopping further attempts.", e);
+          bookingJournal.finished(job.getName(), plan.targetTime());
+          metrics.booking(job.getName(), "failed");
+          return;
+        }
+
+        delay = Math.max(delay, retryAfter(e).toMillis());
+        log.error("Error during booking attempt {}, retrying in {} ms", attempt, delay, e);
+        Thread.sleep(delay);
+        metrics.retry(job.getName());
+      }
+    }
   }
 
-  @Scheduled(cron = "${calendis.scheduler.la-terenuri.squash.secondary.cron-expression}", zone = ROMANIA_TIMEZONE)
-  @Async
-  public void scheduleLaTerenuriSquashSecondary() {
-    if (!schedulerConfig.getLaTerenuri().getSquash().getSecondary().isEnabled()) {
-      log.info("La Terenuri Squash Secondary scheduler is disabled. Skipping scheduled run.");
+  /**
+   * Makes one booking attempt. Returns once the run is over, booked or not, and throws if the
+   * attempt failed and may be retried.
+   */
+  private void attemptBooking(JobConfig job, LoginRequest loginRequest, BookingPlan plan,
+      int attempt, Instant searchDeadline) throws InterruptedException {
+    log.info("Starting scheduled appointment booking for job {}...", job.getName());
+
+    var email = loginRequest.getEmail();
+    var journaled = bookingJournal.find(job.getName(), plan.targetTime());
+
+    if (journaled.filter(state -> state.status() == BookingJournal.Status.CONFIRMED)
+        .isPresent()) {
+      log.info("Appointment {} for job {} is already booked. Skipping.",
+          journaled.get().appointmentId(), job.getName());
+      releaseSurplus(job, plan);
+      metrics.booking(job.getName(), "already_booked");
       return;
     }
 
-    scheduleAppointmentBooking(
-        schedulerConfig.getEmail().getSecondary(),
-        schedulerConfig.getPassword().getSecondary(),
-        schedulerConfig.isRemember(),
-        schedulerConfig.getLaTerenuri().getSquash().getServiceId(),
-        schedulerConfig.getLaTerenuri().getLocationId(),
-        schedulerConfig.getLaTerenuri().getSquash().getStuffId(),
-        schedulerConfig.getLaTerenuri().getSquash().getSecondary().getAppointmentTime(),
-        schedulerConfig.getDayOnly(), 1);
-  }
-
-  @Scheduled(cron = "${calendis.scheduler.la-terenuri.tenis-table.primary.cron-expression}", zone = ROMANIA_TIMEZONE)
-  @Async
-  public void scheduleLaTerenuriTenisTablePrimary() {
-    if (!schedulerConfig.getLaTerenuri().getTenisTable().getPrimary().isEnabled()) {
-      log.info("La Terenuri Tenis Table Primary scheduler is disabled. Skipping scheduled run.");
+    bookingJournal.attempted(job.getName(), plan.targetTime(), attempt);
+    login(loginRequest);
+    loginRacingAccounts(job);
+
+    if (journaled.filter(BookingJournal.RunState::awaitsConfirmation).isPresent()) {
+      var appointmentId = journaled.get().appointmentId();
+      var account = journaled.get().accountOf(appointmentId).orElse(job.getAccount());
+      log.info("Appointment {} for job {} was created but not confirmed, confirming it",
+          appointmentId, job.getName());
+      appointmentService.confirmAppointment(schedulerConfig.loginRequest(account).getEmail(),
+          appointmentId, job.getLocationId(), job.getServiceId(),
+          bookingPayloads.confirm(appointmentId));
+      bookingJournal.confirmed(job.getName(), plan.targetTime(), appointmentId);
+      releaseSurplus(job, plan);
+      metrics.booking(job.getName(), "booked");
       return;
     }
 
-    scheduleAppointmentBooking(
-        schedulerConfig.getEmail().getPrimary(),
-        schedulerConfig.getPassword().getPrimary(),
-        schedulerConfig.isRemember(),
-        schedulerConfig.getLaTerenuri().getTenisTable().getServiceId(),
-        schedulerConfig.getLaTerenuri().getLocationId(),
-        schedulerConfig.getLaTerenuri().getTenisTable().getStuffId(),
-        schedulerConfig.getLaTerenuri().getTenisTable().getPrimary().getAppointmentTime(),
-        schedulerConfig.getDayOnly(), 1);
-  }
+    List<AvailableSlotsResponse.Slot> candidates = List.of();
 
-  @Scheduled(cron = "${calendis.scheduler.gheorgheni.tenis.primary.cron-expression}", zone = ROMANIA_TIMEZONE)
-  @Async
-  public void scheduleGheorgheniTenisPrimary() {
-    if (!schedulerConfig.getGheorgheni().getTenis().getPrimary().isEnabled()) {
-      log.info("Gheorgheni Tenis Primary scheduler is disabled. Skipping scheduled run.");
-      return;
+    if (job.getReleaseTime() != null && !job.getReleaseTime().isBlank()) {
+      var outcome = awaitReleaseAndBurst(email, job, plan);
+
+      if (outcome.booked()) {
+        log.info("Scheduled appointment booking completed successfully.");
+        metrics.booking(job.getName(), "booked");
+        return;
+      }
+      candidates = outcome.candidates();
     }
 
-    scheduleAppointmentBooking(
-        schedulerConfig.getEmail().getPrimary(),
-        schedulerConfig.getPassword().getPrimary(),
-        schedulerConfig.isRemember(),
-        schedulerConfig.getGheorgheni().getTenis().getServiceId(),
-        schedulerConfig.getGheorgheni().getLocationId(),
-        schedulerConfig.getGheorgheni().getTenis().getStuffId(),
-        schedulerConfig.getGheorgheni().getTenis().getPrimary().getAppointmentTime(),
-        schedulerConfig.getDayOnly(), 1);
-  }
+    if (candidates.isEmpty()) {
+      candidates = pollForCandidates(email, job, plan, searchDeadline);
+    }
 
-  @Scheduled(cron = "${calendis.scheduler.gheorgheni.tenis.secondary.cron-expression}", zone = ROMANIA_TIMEZONE)
-  @Async
-  public void scheduleGheorgheniTenisSecondary() {
-    if (!schedulerConfig.getGheorgheni().getTenis().getSecondary().isEnabled()) {
-      log.info("Gheorgheni Tenis Secondary scheduler is disabled. Skipping scheduled run.");
+    if (candidates.isEmpty()) {
+      log.info(
+          "No available slot found for the specified appointment time: {}. Stopping the job...",
+          job.getAppointmentTime());
+      bookingJournal.finished(job.getName(), plan.targetTime());
+      metrics.booking(job.getName(), "not_found");
       return;
     }
 
-    scheduleAppointmentBooking(
-        schedulerConfig.getEmail().getSecondary(),
-        schedulerConfig.getPassword().getSecondary(),
-        schedulerConfig.isRemember(),
-        schedulerConfig.getGheorgheni().getTenis().getServiceId(),
-        schedulerConfig.getGheorgheni().getLocationId(),
-        schedulerConfig.getGheorgheni().getTenis().getStuffId(),
-        schedulerConfig.getGheorgheni().getTenis().getSecondary().getAppointmentTime(),
-        schedulerConfig.getDayOnly(), 1);
+    log.info("Selected slots: {}", candidates);
+    bookCandidates(email, candidates, job, plan);
+    log.info("Scheduled appointment booking completed successfully.");
+    metrics.booking(job.getName(), "booked");
   }
 
-  @Scheduled(cron = "${calendis.scheduler.gheorgheni.tenis-table.primary.cron-expression}", zone = ROMANIA_TIMEZONE)
-  @Async
-  public void scheduleGheorgheniTenisTablePrimary() {
-    if (!schedulerConfig.getGheorgheni().getTenisTable().getPrimary().isEnabled()) {
-      log.info("Gheorgheni Tenis Table Primary scheduler is disabled. Skipping scheduled run.");
-      return;
-    }
+  /**
+   * Polls availability at the intervals of the polling policy until a candidate slot is found,
+   * the policy stops, or the run's search deadline passes. A poll throttled by Calendis (429 or
+   * 503) is not an error: the next poll waits at least as long as {@code Retry-After}, or the
+   * configured throttle delay.
+   */
+  private List<AvailableSlotsResponse.Slot> pollForCandidates(String email, JobConfig job,
+      BookingPlan plan, Instant deadline) throws InterruptedException {
+    var polling = schedulerConfig.getPolling();
+    var intervals = bookingBackOffs.polling().start();
+
+    while (true) {
+      long delay;
+      try {
+        metrics.poll(job.getName(), REGULAR_POLL);
+        var candidates = plan.rank(getAvailableSlots(email, job, plan));
 
-    scheduleAppointmentBooking(
-        schedulerConfig.getEmail().getPrimary(),
-        schedulerConfig.getPassword().getPrimary(),
-        schedulerConfig.isRemember(),
-        schedulerConfig.getGheorgheni().getTenisTable().getServiceId(),
-        schedulerConfig.getGheorgheni().getLocationId(),
-        schedulerConfig.getGheorgheni().getTenisTable().getStuffId(),
-        schedulerConfig.getGheorgheni().getTenisTable().getPrimary().getAppointmentTime(),
-        schedulerConfig.getDayOnly(), 1);
+        if (!candidates.isEmpty()) {
+          log.info("Found available slots: {}", candidates);
+          return candidates;
+        }
+        delay = intervals.nextBackOff();
+      } catch (HttpStatusCodeException e) {
+        if (!isThrottled(e)) {
+          throw e;
+        }
+
+        metrics.throttle(job.getName());
+        var retryAfter = retryAfter(e);
+        delay = intervals.nextBackOff();
+        if (delay != BackOffExecution.STOP) {
+          delay = Math.max(delay, retryAfter.isZero()
+              ? polling.getThrottleDelay().toMillis() : retryAfter.toMillis());
+        }
+        log.warn("Availability poll throttled with status {}, waiting {} ms",
+            e.getStatusCode().value(), delay);
+      }
+
+      if (delay == BackOffExecution.STOP
+          || Instant.now().plusMillis(delay).isAfter(deadline)) {
+        log.info("Slot was not found within the threshold time. Stopping search.");
+        return List.of();
+      }
+      Thread.sleep(delay);
+    }
   }
 
-  private void scheduleAppointmentBooking(String email, String password, boolean remember,
-      int serviceId, int locationId, int stuffId, String appointmentTime, int dayOnly,
-      int attempt) {
-    log.info("Starting scheduled appointment booking...");
+  /**
+   * Waits for the slot release instant, corrected by the server clock offset measured ahead of the
+   * job by {@link BookingWindowPreparer}, and then fires a bounded burst of availability polls at
+   * the configured spacing. Returns immediately when the release instant and its burst are
+   * already over, e.g. on a retry. In speculative mode
+   * a booking built from cached slot metadata is sent at the release instant as well, racing the
+   * polls; a slot found by polling is only booked if the speculative booking did not succeed.
+   */
+  private ReleaseOutcome awaitReleaseAndBurst(String email, JobConfig job, BookingPlan plan)
+      throws InterruptedException {
+    var release = schedulerConfig.getRelease();
+    var releaseInstant = LocalTime.parse(job.getReleaseTime())
+        .atDate(LocalDate.now(DateTimeUtils.ROMANIA_ZONE))
+        .atZone(DateTimeUtils.ROMANIA_ZONE)
+        .toInstant();
+    var burstEnd = releaseInstant.plus(release.getBurstInterval()
+        .multipliedBy(release.getBurstCount()));
+
+    if (Instant.now().isAfter(burstEnd)) {
+      log.info("Release instant {} has already passed, polling regularly", releaseInstant);
+      return ReleaseOutcome.NONE;
+    }
 
-    try {
-      login(email, password, remember);
+    if (serverClock.synchronizedAt().isEmpty()) {
+      log.warn("Server clock was not measured ahead of the release, assuming no offset");
+    }
+    var localRelease = serverClock.toLocal(releaseInstant);
+    log.info("Waiting for slot release at {} (local clock {})", releaseInstant, localRelease);
+
+    var speculative = release.isSpeculative()
+        ? startSpeculativeBooking(email, job, plan, localRelease)
+        : CompletableFuture.completedFuture(false);
 
-      AvailableSlotsResponse.Slot selectedSlot = null;
-      Instant firstThresholdTime = Instant.now().plusSeconds(60);
-      Instant secondThresholdTime = Instant.now().plus(1, ChronoUnit.HOURS);
+    try {
+      for (int i = 0; i < release.getBurstCount(); i++) {
+        ReleaseTimer.awaitInstant(localRelease.plus(release.getBurstInterval().multipliedBy(i)),
+            release.getParkThreshold(), release.getSpinThreshold());
 
-      while (true) {
-        if (Instant.now().isAfter(secondThresholdTime)) {
-          log.info("Slot was not found within the threshold time. Stopping search.");
-          break;
+        if (speculative.getNow(false)) {
+          return ReleaseOutcome.BOOKED;
         }
 
-        selectedSlot = findSlot(appointmentTime,
-            getAvailableSlots(serviceId, locationId, stuffId, dayOnly));
+        metrics.poll(job.getName(), BURST_POLL);
+        var candidates = plan.rank(getAvailableSlots(email, job, plan));
 
-        if (selectedSlot != null) {
-          log.info("Found available slot: {}", selectedSlot);
-          break;
+        if (!candidates.isEmpty()) {
+          log.info("Found available slots on burst poll {}: {}", i + 1, candidates);
+          return speculative.join() ? ReleaseOutcome.BOOKED
+              : new ReleaseOutcome(candidates, false);
         }
-
-        Thread.sleep(Instant.now().isAfter(firstThresholdTime) ? 60000 : 1000);
       }
-
-      if (selectedSlot == null) {
-        log.info(
-            "No available slot found for the specified appointment time: {}. Stopping the job...",
-            appointmentTime);
-        return;
+    } catch (RuntimeException e) {
+      if (speculative.join()) {
+        return ReleaseOutcome.BOOKED;
       }
+      throw e;
+    }
 
-      log.info("Selected slot: {}", selectedSlot);
-      bookAppointment(selectedSlot, locationId, serviceId, appointmentTime);
-      log.info("Scheduled appointment booking completed successfully.");
-    } catch (Exception e) {
-      log.error("Error during scheduled appointment booking. Attempting a retry...", e);
+    if (speculative.join()) {
+      return ReleaseOutcome.BOOKED;
+    }
 
-      if (e.getMessage() != null && e.getMessage().contains("once_per_week")) {
-        log.info("Appointment already booked. Stopping further attempts.");
-        return;
+    log.info("Slot not found during the release burst, falling back to regular polling");
+    return ReleaseOutcome.NONE;
+  }
+
+  /**
+   * Books the target slot at the release instant without waiting for availability polling, using
+   * the staff and group IDs seen for this slot time in earlier runs. Completes with false when no
+   * metadata is cached or the booking fails, never exceptionally.
+   */
+  private CompletableFuture<Boolean> startSpeculativeBooking(String email, JobConfig job,
+      BookingPlan plan, Instant localRelease) {
+    var predicted = slotMetadataCache.predict(job.getLocationId(), job.getServiceId(),
+        job.getStuffId(), plan.targetTime());
+
+    if (predicted.isEmpty()) {
+      log.info("No cached slot metadata for {}, skipping speculative booking",
+          job.getAppointmentTime());
+      return CompletableFuture.completedFuture(false);
+    }
+
+    return CompletableFuture.supplyAsync(() -> {
+      try {
+        var release = schedulerConfig.getRelease();
+        ReleaseTimer.awaitInstant(localRelease, release.getParkThreshold(),
+            release.getSpinThreshold());
+
+        log.info("Sending speculative booking for slot: {}", predicted.get());
+        bookAppointment(email, predicted.get(), job, plan);
+        return true;
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return false;
+      } catch (Exception e) {
+        log.info("Speculative booking failed, relying on availability polling: {}",
+            e.getMessage());
+        return false;
       }
+    }, bookingFanOutExecutor);
+  }
 
-      if (attempt >= BOOKING_ATTEMPTS_THRESHOLD) {
-        log.warn("Maximum booking attempts reached. Stopping further attempts.");
-        return;
+  private void login(LoginRequest loginRequest) {
+    log.info("Obtaining session for email: {}", loginRequest.getEmail());
+
+    authService.getSession(loginRequest);
+
+    log.info("Session ready");
+  }
+
+  /**
+   * Obtains sessions for the other accounts of a race mode job. An account that cannot log in
+   * only drops out of the race.
+   */
+  private void loginRacingAccounts(JobConfig job) {
+    for (var account : schedulerConfig.bookingAccounts(job)) {
+      if (account.equals(job.getAccount())) {
+        continue;
       }
 
       try {
-        Thread.sleep(attempt * 1000L);
-      } catch (InterruptedException ex) {
-        Thread.currentThread().interrupt();
-        log.info("Job interrupted, stopping gracefully.");
-        return;
+        login(schedulerConfig.loginRequest(account));
+      } catch (Exception e) {
+        log.warn("Account {} cannot join the race for job {}", account, job.getName(), e);
       }
+    }
+  }
 
-      scheduleAppointmentBooking(email, password, remember, serviceId, locationId, stuffId,
-          appointmentTime, dayOnly, ++attempt);
+  private SlotIndex getAvailableSlots(String email, JobConfig job, BookingPlan plan) {
+    log.info("Getting available slots for service: {}, location: {}", job.getServiceId(),
+        job.getLocationId());
+
+    var index = SlotIndex.builder();
+    // Keeps the target slot's metadata for speculative booking, even while it is unavailable
+    var scanned = appointmentService.scanAvailableSlots(email, job.getServiceId(),
+        job.getLocationId(), job.getStuffId(), plan.queryDate(), schedulerConfig.getDayOnly(),
+        plan.targetTime(), plan.stopAtTarget(), (isAvailable, staffId, time, groupId) -> {
+          index.accept(isAvailable, staffId, time, groupId);
+          slotMetadataCache.record(job.getLocationId(), job.getServiceId(), job.getStuffId(),
+              isAvailable, staffId, time, groupId);
+        });
+
+    if (scanned == 0) {
+      log.info("No available slots returned from the API");
+      return SlotIndex.EMPTY;
     }
+
+    var availableSlots = index.build();
+
+    log.info("Found {} available slots", availableSlots.size());
+    return availableSlots;
   }
 
-  private void login(String email, String password, boolean remember) {
-    log.info("Logging in with email: {}", email);
+  /**
+   * Books the best ranked candidate, or with {@code parallelBookings} above one or in race mode,
+   * books the candidates concurrently under every booking account. The first booking to be
+   * confirmed is kept: bookings created after it are not confirmed, and every other booking,
+   * including one whose confirmation failed, is deleted again. Fails with the error of the first
+   * booking if none could be booked, leaving a created appointment for the retry to confirm.
+   */
+  private void bookCandidates(String email, List<AvailableSlotsResponse.Slot> candidates,
+      JobConfig job, BookingPlan plan) {
+    var accounts = schedulerConfig.bookingAccounts(job);
+    if (candidates.size() == 1 && accounts.size() == 1) {
+      bookAppointment(email, candidates.getFirst(), job, plan);
+      return;
+    }
 
-    authService.login(LoginRequest.builder()
-        .email(email)
-        .password(password)
-        .remember(remember)
-        .build());
+    var winner = new AtomicReference<AppointmentDto>();
+    var bookings = new ArrayList<CompletableFuture<Void>>();
+    for (var account : accounts) {
+      var accountEmail = schedulerConfig.loginRequest(account).getEmail();
+      for (var slot : candidates) {
+        bookings.add(CompletableFuture.runAsync(
+            () -> raceBooking(accountEmail, account, slot, job, plan, winner),
+            bookingFanOutExecutor));
+      }
+    }
+
+    RuntimeException failure = null;
+    for (var booking : bookings) {
+      try {
+        booking.join();
+      } catch (CompletionException e) {
+        if (failure == null) {
+          failure = e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+      }
+    }
 
-    log.info("Login successful");
+    if (winner.get() == null) {
+      throw failure;
+    }
+    log.info("Kept appointment {} out of {} concurrent bookings", winner.get().getId(),
+        bookings.size());
+    // Bookings whose confirmation failed after creating their appointment did not release it
+    releaseSurplus(job, plan);
   }
 
-  private List<AvailableSlotsResponse.Slot> getAvailableSlots(int serviceId, int locationId,
-      int stuffId, int dayOnly) {
-    log.info("Getting available slots for service: {}, location: {}", serviceId, locationId);
+  /**
+   * One of the concurrent bookings of {@link #bookCandidates}. Every creation is journaled with
+   * its account, so surplus appointments left behind by a restart can still be released.
+   */
+  private void raceBooking(String email, String account, AvailableSlotsResponse.Slot slot,
+      JobConfig job, BookingPlan plan, AtomicReference<AppointmentDto> winner) {
+    var appointmentDto = createAppointment(email, slot, job, plan, account);
+
+    if (winner.get() != null) {
+      log.info("Appointment {} of account {} created after another booking was confirmed, "
+          + "cancelling it", appointmentDto.getId(), account);
+      releaseAppointment(job, plan, account, appointmentDto.getId());
+      return;
+    }
 
-    var response = appointmentService.getAvailableSlots(serviceId, locationId, stuffId,
-        DateTimeUtils.getFutureTimestamp(ROMANIA_TIMEZONE, 14, "14:00"), dayOnly);
+    confirmAppointment(email, appointmentDto, job);
+    if (winner.compareAndSet(null, appointmentDto)) {
+      bookingJournal.confirmed(job.getName(), plan.targetTime(), appointmentDto.getId());
+      log.info("Appointment {} of account {} won the race", appointmentDto.getId(), account);
+    } else {
+      releaseAppointment(job, plan, account, appointmentDto.getId());
+    }
+  }
 
-    if (response == null || response.getAvailableSlots() == null) {
-      log.info("No response or no available slots returned from the API");
-      return Collections.emptyList();
+  /**
+   * Releases the surplus appointments the journal holds for a confirmed run, left behind when
+   * the application stopped while concurrent bookings were being released.
+   */
+  private void releaseSurplus(JobConfig job, BookingPlan plan) {
+    var surplus = bookingJournal.find(job.getName(), plan.targetTime())
+        .map(BookingJournal.RunState::surplus)
+        .orElse(List.of());
+
+    for (var appointment : surplus) {
+      var account = appointment.account() != null ? appointment.account() : job.getAccount();
+      try {
+        login(schedulerConfig.loginRequest(account));
+        releaseAppointment(job, plan, account, appointment.id());
+      } catch (Exception e) {
+        log.error("Failed to release surplus appointment {}", appointment.id(), e);
+      }
     }
+  }
 
-    var availableSlots = response.getAvailableSlots().stream()
-        .filter(slot -> slot.getIsAvailable() == 1)
-        .toList();
+  private void releaseAppointment(JobConfig job, BookingPlan plan, String account,
+      long appointmentId) {
+    var userId = schedulerConfig.userId(account);
+    if (userId == 0) {
+      log.warn("Cannot release surplus appointment {}: no user ID configured for account {}",
+          appointmentId, account);
+      return;
+    }
 
-    log.info("Found {} available slots", availableSlots.size());
-    return availableSlots;
+    try {
+      appointmentService.deleteAppointment(schedulerConfig.loginRequest(account).getEmail(),
+          appointmentId, userId);
+      bookingJournal.released(job.getName(), plan.targetTime(), appointmentId);
+      log.info("Released surplus appointment {}", appointmentId);
+    } catch (Exception e) {
+      log.error("Failed to release surplus appointment {}", appointmentId, e);
+    }
+  }
+
+  private AppointmentDto bookAppointment(String email, AvailableSlotsResponse.Slot slot,
+      JobConfig job, BookingPlan plan) {
+    var appointmentDto = createAndConfirm(email, slot, job, plan);
+    bookingJournal.confirmed(job.getName(), plan.targetTime(), appointmentDto.getId());
+    return appointmentDto;
   }
 
-  private AvailableSlotsResponse.Slot findSlot(String appointmentTime,
-      List<AvailableSlotsResponse.Slot> availableSlots) {
-    return availableSlots.stream().filter(
-            slot -> slot.getTime() == DateTimeUtils.getFutureTimestamp(ROMANIA_TIMEZONE, 14,
-                appointmentTime))
-        .findFirst()
-        .orElse(null);
+  private AppointmentDto createAndConfirm(String email, AvailableSlotsResponse.Slot slot,
+      JobConfig job, BookingPlan plan) {
+    var appointmentDto = createAppointment(email, slot, job, plan, job.getAccount());
+    confirmAppointment(email, appointmentDto, job);
+    return appointmentDto;
   }
 
-  private void bookAppointment(AvailableSlotsResponse.Slot slot, int locationId, int serviceId,
-      String appointmentTime) {
+  private AppointmentDto createAppointment(String email, AvailableSlotsResponse.Slot slot,
+      JobConfig job, BookingPlan plan, String account) {
     log.info("Booking appointment for slot: {}", slot);
 
-    var appointment = CreateAppointmentRequest.Appointment.builder()
-        .dateUnix(slot.getTime())
-        .dateUtcUnix(DateTimeUtils.convertTimestamp(slot.getTime(), ROMANIA_TIMEZONE, UTC_TIMEZONE))
-        .locationId(locationId)
-        .serviceId(serviceId)
-        .staffId(slot.getStaffId())
-        .startTime(appointmentTime)
-        .originalSlot(0)
-        .build();
-
-    var request = CreateAppointmentRequest.builder()
-        .appointments(Collections.singletonList(appointment))
-        .groupId(slot.getGroupId())
-        .build();
+    try {
+      plan.lease().bookingStarted();
+      var appointmentDto = appointmentService.createAppointment(email,
+          plan.payloads().create(slot), job.getLocationId(), job.getServiceId());
+      bookingJournal.created(job.getName(), plan.targetTime(), appointmentDto.getId(), account);
+      return appointmentDto;
+    } catch (Exception e) {
+      log.error("Failed to book appointment", e);
+      throw e;
+    }
+  }
 
+  private void confirmAppointment(String email, AppointmentDto appointmentDto, JobConfig job) {
     try {
-      var appointmentDto = appointmentService.bookAppointment(request);
+      appointmentService.confirmAppointment(email, appointmentDto.getId(), job.getLocationId(),
+          job.getServiceId(), bookingPayloads.confirm(appointmentDto.getId()));
       log.info("Successfully booked appointment with ID: {}", appointmentDto.getId());
     } catch (Exception e) {
-      log.error("Failed to book appointment", e);
+      log.error("Failed to confirm appointment {}", appointmentDto.getId(), e);
       throw e;
     }
   }
-}
\ No newline at end of file
+
+  private static boolean isAlreadyBooked(Exception e) {
+    return e.getMessage() != null && e.getMessage().contains("once_per_week");
+  }
+
+  /**
+   * Whether a failed attempt may succeed when retried: I/O errors, server errors and throttling,
+   * conflicts over a slot that was just taken, and failures other than a Calendis response.
+   * Rejected credentials or permissions (401 after a new login, 403), malformed requests (400)
+   * and other client errors would fail the same way again.
+   */
+  private static boolean isTransient(Exception e) {
+    if (e instanceof HttpStatusCodeException statusException) {
+      var status = statusException.getStatusCode();
+      return status.is5xxServerError() || isThrottled(statusException)
+          || status.value() == 408 || status.value() == 409;
+    }
+    return true;
+  }
+
+  private static boolean isThrottled(HttpStatusCodeException e) {
+    return e.getStatusCode().value() == 429 || e.getStatusCode().value() == 503;
+  }
+
+  private static Duration retryAfter(Exception e) {
+    return e instanceof HttpStatusCodeException statusException
+        ? RetryAfter.from(statusException.getResponseHeaders(), Instant.now())
+            .orElse(Duration.ZERO)
+        : Duration.ZERO;
+  }
+
+  /**
+   * What a job run looks for, computed once per attempt rather than for every slot: the
+   * acceptable slot times in order of preference, the first being the job's target slot, the
+   * acceptable staff, how many candidates to book at once, the date availability is queried
+   * for, 14 days ahead, and once primed, the create payloads of the candidate times and the lease
+   * of the run.
+   */
+  private record BookingPlan(long[] candidateTimes, List<String> staffIds, int parallelBookings,
+      long queryDate, BookingPayloads.Primed payloads, JobCoordinator.Lease lease) {
+
+    static BookingPlan of(JobConfig job) {
+      var times = new long[1 + job.getFallbackTimes().size()];
+      times[0] = DateTimeUtils.getFutureTimestamp(DateTimeUtils.ROMANIA_ZONE, 14,
+          job.getAppointmentTime());
+      for (int i = 1; i < times.length; i++) {
+        times[i] = DateTimeUtils.getFutureTimestamp(DateTimeUtils.ROMANIA_ZONE, 14,
+            job.getFallbackTimes().get(i - 1));
+      }
+
+      return new BookingPlan(times, List.copyOf(job.getStaffIds()),
+          Math.max(1, job.getParallelBookings()),
+          DateTimeUtils.getFutureTimestamp(DateTimeUtils.ROMANIA_ZONE, 14, "14:00"), null, null);
+    }
+
+    /**
+     * Serializes the create payloads of the candidate times, before the booking window opens,
+     * and binds the plan to the lease the run is executed under.
+     */
+    BookingPlan primed(BookingPayloads bookingPayloads, JobConfig job,
+        JobCoordinator.Lease lease) {
+      return new BookingPlan(candidateTimes, staffIds, parallelBookings, queryDate,
+          bookingPayloads.prime(job.getLocationId(), job.getServiceId(), candidateTimes), lease);
+    }
+
+    long targetTime() {
+      return candidateTimes[0];
+    }
+
+    /**
+     * Whether an available target slot ends the search, so reading the availability response
+     * can stop there: only when it is the sole slot the job would consider.
+     */
+    boolean stopAtTarget() {
+      return candidateTimes.length == 1 && staffIds.isEmpty() && parallelBookings == 1;
+    }
+
+    /**
+     * Ranks the acceptable available slots by time preference, then staff preference, and
+     * returns the best {@code parallelBookings} of them.
+     */
+    List<AvailableSlotsResponse.Slot> rank(SlotIndex index) {
+      var candidates = new ArrayList<AvailableSlotsResponse.Slot>(parallelBookings);
+
+      for (var time : candidateTimes) {
+        var slots = index.findAll(time);
+        if (!staffIds.isEmpty()) {
+          slots = slots.stream()
+              .filter(slot -> staffIds.contains(slot.getStaffId()))
+              .sorted(Comparator.comparingInt(slot -> staffIds.indexOf(slot.getStaffId())))
+              .toList();
+        }
+
+        for (var slot : slots) {
+          candidates.add(slot);
+          if (candidates.size() == parallelBookings) {
+            return candidates;
+          }
+        }
+      }
+
+      return candidates;
+    }
+  }
+
+  private record ReleaseOutcome(List<AvailableSlotsResponse.Slot> candidates, boolean booked) {
+
+    static final ReleaseOutcome NONE = new ReleaseOutcome(List.of(), false);
+    static final ReleaseOutcome BOOKED = new ReleaseOutcome(List.of(), true);
+  }
+}
@@ -0,0 +1,54 @@
+package com.nazjara.scheduler;
+
+import com.nazjara.config.SchedulerConfig;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.util.backoff.BackOff;
+import org.springframework.util.backoff.ExponentialBackOff;
+import org.springframework.util.backoff.FixedBackOff;
+
+/**
+ * The back-off policies booking jobs wait by, built from {@code calendis.scheduler.polling} and
+ * {@code calendis.scheduler.retry}. Replace this bean to plug in different policies.
+ */
+@Component
+@RequiredArgsConstructor
+public class BookingBackOffs {
+
+  private final SchedulerConfig schedulerConfig;
+
+  /**
+   * Intervals between availability polls while no slot is found: dense polling for the dense
+   * window after the job starts, then jittered exponential back-off.
+   *
+   * @return the polling policy
+   */
+  public BackOff polling() {
+    var polling = schedulerConfig.getPolling();
+
+    var backoff = new ExponentialBackOff(polling.getBackoffInitial().toMillis(),
+        polling.getBackoffMultiplier());
+    backoff.setMaxInterval(polling.getBackoffMax().toMillis());
+
+    return new PhasedBackOff(
+        new FixedBackOff(polling.getDenseInterval().toMillis(), FixedBackOff.UNLIMITED_ATTEMPTS),
+        polling.getDenseWindow(),
+        new JitteredBackOff(backoff, polling.getJitter()));
+  }
+
+  /**
+   * Delays before retrying a failed booking attempt, stopping once the attempts are used up.
+   *
+   * @return the retry policy
+   */
+  public BackOff retry() {
+    var retry = schedulerConfig.getRetry();
+
+    var backoff = new ExponentialBackOff(retry.getInitialDelay().toMillis(),
+        retry.getMultiplier());
+    backoff.setMaxInterval(retry.getMaxDelay().toMillis());
+    backoff.setMaxAttempts(Math.max(0, retry.getMaxAttempts() - 1));
+
+    return new JitteredBackOff(backoff, retry.getJitter());
+  }
+}
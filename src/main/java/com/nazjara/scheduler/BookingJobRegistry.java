@@ -0,0 +1,200 @@
+package com.nazjara.scheduler;
+
+import com.nazjara.config.SchedulerConfig;
+import com.nazjara.config.SchedulerConfig.JobConfig;
+import com.nazjara.util.DateTimeUtils;
+import java.time.LocalTime;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.support.CronExpression;
+import org.springframework.scheduling.support.CronTrigger;
+import org.springframework.stereotype.Component;
+
+/**
+ * Registry of booking jobs. Jobs defined under {@code calendis.scheduler.jobs} are registered at
+ * startup, and jobs can be added, replaced or removed at runtime through the
+ * {@code bookingjobs} actuator endpoint. Each job is scheduled programmatically on the task
+ * scheduler with its own cron trigger.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookingJobRegistry implements SmartInitializingSingleton, DisposableBean {
+
+
+  private final TaskScheduler taskScheduler;
+  private final AppointmentScheduler appointmentScheduler;
+  private final SchedulerConfig schedulerConfig;
+
+  private final Map<String, RegisteredJob> jobs = new ConcurrentHashMap<>();
+
+  @Override
+  public void afterSingletonsInstantiated() {
+    if (!schedulerConfig.isEnabled()) {
+      log.info("Booking jobs are disabled, not scheduling configured jobs");
+      return;
+    }
+
+    schedulerConfig.getJobs().forEach(this::register);
+    log.info("Registered {} booking jobs", jobs.size());
+
+    jobs.values().stream()
+        .map(RegisteredJob::job)
+        .filter(JobConfig::isEnabled)
+        .filter(appointmentScheduler::hasUnfinishedRun)
+        .forEach(job -> {
+          log.info("Resuming job {} interrupted by a restart", job.getName());
+          appointmentScheduler.runJob(job);
+        });
+  }
+
+  /**
+   * Schedules a job, replacing any job registered under the same name.
+   *
+   * @param job the job definition
+   * @throws IllegalArgumentException if the job is invalid, see {@link #validate(JobConfig)}
+   */
+  public void register(JobConfig job) {
+    validate(job);
+
+    var future = taskScheduler.schedule(() -> appointmentScheduler.runJob(job),
+        new CronTrigger(job.getCronExpression(), DateTimeUtils.ROMANIA_ZONE));
+
+    var previous = jobs.put(job.getName(), new RegisteredJob(job, future));
+    if (previous != null) {
+      previous.future().cancel(false);
+    }
+
+    log.info("Registered job {} ({}, enabled: {})", job.getName(), job.getCronExpression(),
+        job.isEnabled());
+  }
+
+  /**
+   * Checks that a job can be scheduled and run.
+   *
+   * @param job the job definition
+   * @throws IllegalArgumentException if the job has no name, an invalid cron expression, an
+   *                                  unknown account, an invalid appointment, fallback or release
+   *                                  time, fewer than one parallel booking, or books
+   *                                  concurrently, with parallel bookings or in race mode, under
+   *                                  an account without a user ID to delete the surplus
+   *                                  appointments
+   */
+  public void validate(JobConfig job) {
+    if (job.getName() == null || job.getName().isBlank()) {
+      throw new IllegalArgumentException("Job name is required");
+    }
+    if (job.getCronExpression() == null || !CronExpression.isValidExpression(
+        job.getCronExpression())) {
+      throw new IllegalArgumentException(
+          "Invalid cron expression for job " + job.getName() + ": " + job.getCronExpression());
+    }
+    schedulerConfig.loginRequest(job.getAccount());
+
+    parseTime(job, "appointment time", job.getAppointmentTime(), DateTimeUtils.TIME_FORMATTER);
+    job.getFallbackTimes()
+        .forEach(time -> parseTime(job, "fallback time", time, DateTimeUtils.TIME_FORMATTER));
+    if (job.getReleaseTime() != null && !job.getReleaseTime().isBlank()) {
+      parseTime(job, "release time", job.getReleaseTime(), DateTimeFormatter.ISO_LOCAL_TIME);
+    }
+    if (job.getParallelBookings() < 1) {
+      throw new IllegalArgumentException("Job " + job.getName()
+          + " must book at least one slot, not " + job.getParallelBookings());
+    }
+
+    var accounts = schedulerConfig.bookingAccounts(job);
+    if (job.getParallelBookings() > 1 || accounts.size() > 1) {
+      for (var account : accounts) {
+        if (schedulerConfig.userId(account) == 0) {
+          throw new IllegalArgumentException("Job " + job.getName() + " books concurrently under "
+              + "account " + account + ", which requires calendis.scheduler.user-id." + account
+              + " to delete the surplus appointments");
+        }
+      }
+    }
+  }
+
+  /**
+   * Unschedules a job. A run already in progress is left to finish.
+   *
+   * @param name the job name
+   * @return true if a job with that name was registered
+   */
+  public boolean unregister(String name) {
+    var removed = jobs.remove(name);
+
+    if (removed == null) {
+      return false;
+    }
+
+    removed.future().cancel(false);
+    log.info("Unregistered job {}", name);
+    return true;
+  }
+
+  /**
+   * Looks up a registered job.
+   *
+   * @param name the job name
+   * @return the job definition, if registered
+   */
+  public Optional<JobConfig> getJob(String name) {
+    return Optional.ofNullable(jobs.get(name)).map(RegisteredJob::job);
+  }
+
+  /**
+   * Returns all registered job definitions.
+   *
+   * @return the job definitions
+   */
+  public Collection<JobConfig> getJobs() {
+    return jobs.values().stream().map(RegisteredJob::job).toList();
+  }
+
+  /**
+   * Computes when a job fires next.
+   *
+   * @param job the job definition
+   * @param now the reference time
+   * @return the next fire time, or {@code null} if the cron never fires again
+   */
+  public ZonedDateTime nextFireTime(JobConfig job, ZonedDateTime now) {
+    return CronExpression.parse(job.getCronExpression())
+        .next(now.withZoneSameInstant(DateTimeUtils.ROMANIA_ZONE));
+  }
+
+  @Override
+  public void destroy() {
+    jobs.values().forEach(registered -> registered.future().cancel(false));
+    jobs.clear();
+  }
+
+  private static void parseTime(JobConfig job, String kind, String time,
+      DateTimeFormatter format) {
+    try {
+      if (time != null) {
+        LocalTime.parse(time, format);
+        return;
+      }
+    } catch (DateTimeParseException e) {
+      // Reported below
+    }
+    throw new IllegalArgumentException(
+        "Invalid " + kind + " for job " + job.getName() + ": " + time);
+  }
+
+  private record RegisteredJob(JobConfig job, ScheduledFuture<?> future) {
+
+  }
+}
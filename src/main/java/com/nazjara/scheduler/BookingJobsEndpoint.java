@@ -0,0 +1,133 @@
+package com.nazjara.scheduler;
+
+import com.nazjara.config.SchedulerConfig.JobConfig;
+import com.nazjara.exception.ErrorResponse;
+import java.time.LocalDateTime;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+/**
+ * Actuator endpoint for inspecting and changing booking jobs at runtime, exposed at
+ * {@code /actuator/bookingjobs}.
+ */
+@Component
+@Endpoint(id = "bookingjobs")
+@RequiredArgsConstructor
+public class BookingJobsEndpoint {
+
+  private final BookingJobRegistry bookingJobRegistry;
+
+  /**
+   * Lists all registered jobs with their next fire time.
+   *
+   * @return the jobs keyed by name
+   */
+  @ReadOperation
+  public Map<String, JobView> jobs() {
+    var now = ZonedDateTime.now();
+    var views = new TreeMap<String, JobView>();
+    bookingJobRegistry.getJobs()
+        .forEach(job -> views.put(job.getName(), toView(job, now)));
+    return views;
+  }
+
+  /**
+   * Retrieves a single job.
+   *
+   * @param name the job name
+   * @return the job, or {@code null} (404) if not registered
+   */
+  @ReadOperation
+  public JobView job(@Selector String name) {
+    return bookingJobRegistry.getJob(name)
+        .map(job -> toView(job, ZonedDateTime.now()))
+        .orElse(null);
+  }
+
+  /**
+   * Adds a job, or replaces the job with the same name. Fallback times and staff IDs are given
+   * as comma-separated lists, in order of preference.
+   *
+   * @return the registered job, or the reason (400) the job is invalid
+   */
+  @WriteOperation
+  public WebEndpointResponse<Object> register(@Selector String name, String cronExpression, int locationId,
+      int serviceId, String appointmentTime, @Nullable Integer stuffId, @Nullable String account,
+      @Nullable String releaseTime, @Nullable Boolean enabled, @Nullable String fallbackTimes,
+      @Nullable String staffIds, @Nullable Integer parallelBookings, @Nullable Boolean race) {
+    var job = new JobConfig();
+    job.setName(name);
+    job.setCronExpression(cronExpression);
+    job.setLocationId(locationId);
+    job.setServiceId(serviceId);
+    job.setAppointmentTime(appointmentTime);
+    job.setStuffId(stuffId != null ? stuffId : 0);
+    job.setReleaseTime(releaseTime);
+    job.setEnabled(enabled == null || enabled);
+    job.setFallbackTimes(splitList(fallbackTimes));
+    job.setStaffIds(splitList(staffIds));
+    job.setParallelBookings(parallelBookings != null ? parallelBookings : 1);
+    job.setRace(race != null && race);
+    if (account != null) {
+      job.setAccount(account);
+    }
+
+    try {
+      bookingJobRegistry.validate(job);
+    } catch (IllegalArgumentException e) {
+      return new WebEndpointResponse<>(ErrorResponse.builder()
+          .timestamp(LocalDateTime.now())
+          .status(WebEndpointResponse.STATUS_BAD_REQUEST)
+          .error("Invalid job")
+          .message(e.getMessage())
+          .path("/actuator/bookingjobs/" + name)
+          .build(), WebEndpointResponse.STATUS_BAD_REQUEST);
+    }
+
+    bookingJobRegistry.register(job);
+    return new WebEndpointResponse<>(toView(job, ZonedDateTime.now()));
+  }
+
+  /**
+   * Removes a job.
+   *
+   * @param name the job name
+   * @return true if the job was registered
+   */
+  @DeleteOperation
+  public boolean unregister(@Selector String name) {
+    return bookingJobRegistry.unregister(name);
+  }
+
+  private static List<String> splitList(@Nullable String value) {
+    if (value == null || value.isBlank()) {
+      return new ArrayList<>();
+    }
+    return Arrays.stream(value.split(","))
+        .map(String::trim)
+        .filter(item -> !item.isEmpty())
+        .collect(Collectors.toCollection(ArrayList::new));
+  }
+
+  private JobView toView(JobConfig job, ZonedDateTime now) {
+    return new JobView(job, bookingJobRegistry.nextFireTime(job, now));
+  }
+
+  public record JobView(JobConfig definition, ZonedDateTime nextFireTime) {
+
+  }
+}
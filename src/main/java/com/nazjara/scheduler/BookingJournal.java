@@ -0,0 +1,368 @@
+package com.nazjara.scheduler;
+
+import com.nazjara.config.JournalConfig;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Append-only journal of booking job runs. Each run is identified by its job name and target
+ * slot time, and its progress (started, attempted, appointment created, confirmed, finished) is
+ * appended as one line to a local file. The file is replayed into memory at startup, which lets
+ * the scheduler skip runs that already booked their slot, confirm an appointment that was
+ * created but not confirmed before a restart, and delete surplus appointments of concurrent
+ * bookings that were not released before it.
+ *
+ * <p>Records are written to the file immediately and forced to disk in batches every
+ * {@code calendis.journal.sync-interval}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookingJournal implements InitializingBean, DisposableBean {
+
+  private static final String SEPARATOR = "\t";
+  private static final String NO_ACCOUNT = "-";
+
+  private final JournalConfig journalConfig;
+
+  private final Map<RunKey, RunState> runs = new ConcurrentHashMap<>();
+  private final ReentrantLock writeLock = new ReentrantLock();
+
+  private FileChannel channel;
+  private volatile boolean dirty;
+
+  /**
+   * Progress of a run, in the order it is reached. {@code RELEASED} records the deletion of a
+   * surplus appointment and leaves the progress unchanged.
+   */
+  public enum Status {
+    STARTED, ATTEMPTED, CREATED, CONFIRMED, FINISHED, RELEASED;
+
+    boolean isTerminal() {
+      return this == CONFIRMED || this == FINISHED;
+    }
+  }
+
+  /**
+   * Latest known state of a run.
+   *
+   * @param status        the progress of the run
+   * @param appointmentId the confirmed appointment ID, or else the latest created one, or 0
+   *                      before one is created
+   * @param updatedAt     when the state was recorded
+   * @param created       the appointments created by the run and not released, in creation
+   *                      order
+   */
+  public record RunState(Status status, long appointmentId, Instant updatedAt,
+                         List<Appointment> created) {
+
+    /**
+     * @return true if an appointment was created but the run did not complete
+     */
+    public boolean awaitsConfirmation() {
+      return appointmentId != 0 && !status.isTerminal();
+    }
+
+    /**
+     * @return the account the appointment was created under, if it was created by the run
+     */
+    public Optional<String> accountOf(long appointmentId) {
+      return created.stream()
+          .filter(appointment -> appointment.id() == appointmentId)
+          .map(Appointment::account)
+          .findFirst();
+    }
+
+    /**
+     * @return the appointments created by a confirmed run besides the confirmed one that were
+     *     not released yet
+     */
+    public List<Appointment> surplus() {
+      return status == Status.CONFIRMED
+          ? created.stream().filter(appointment -> appointment.id() != appointmentId).toList()
+          : List.of();
+    }
+  }
+
+  /**
+   * An appointment created by a run.
+   *
+   * @param id      the appointment ID
+   * @param account the account it was created under, or {@code null} for the job's own account
+   *                in records written before accounts were journaled
+   */
+  public record Appointment(long id, String account) {
+
+  }
+
+  private record RunKey(String job, long targetTime) {
+
+  }
+
+  @Override
+  public void afterPropertiesSet() throws IOException {
+    if (!journalConfig.isEnabled()) {
+      log.info("Booking journal is disabled");
+      return;
+    }
+
+    var path = journalConfig.getPath();
+    var started = System.nanoTime();
+
+    if (Files.exists(path)) {
+      try (var lines = Files.lines(path, StandardCharsets.UTF_8)) {
+        lines.forEach(this::replay);
+      }
+      compact(path);
+    } else if (path.toAbsolutePath().getParent() != null) {
+      Files.createDirectories(path.toAbsolutePath().getParent());
+    }
+
+    channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+        StandardOpenOption.APPEND);
+
+    log.info("Replayed booking journal {} with {} runs in {} ms", path, runs.size(),
+        (System.nanoTime() - started) / 1_000_000);
+  }
+
+  /**
+   * Returns the latest state of a run.
+   *
+   * @param job        the job name
+   * @param targetTime the target slot timestamp of the run
+   * @return the run state, if the run has been journaled
+   */
+  public Optional<RunState> find(String job, long targetTime) {
+    return Optional.ofNullable(runs.get(new RunKey(job, targetTime)));
+  }
+
+  /**
+   * Checks whether a run was left unfinished recently enough to be resumed, e.g. because the
+   * application restarted while it was in progress.
+   *
+   * @param job        the job name
+   * @param targetTime the target slot timestamp of the run
+   * @return true if the run has started and either not completed or left surplus appointments
+   *     to release, and was updated within the resume window
+   */
+  public boolean isResumable(String job, long targetTime) {
+    return find(job, targetTime)
+        .filter(state -> !state.status().isTerminal() || !state.surplus().isEmpty())
+        .filter(state -> state.updatedAt()
+            .isAfter(Instant.now().minus(journalConfig.getResumeWindow())))
+        .isPresent();
+  }
+
+  /**
+   * Records the start of an attempt of a run; the first attempt starts the run.
+   *
+   * @param job        the job name
+   * @param targetTime the target slot timestamp of the run
+   * @param attempt    the attempt number, starting at 1
+   */
+  public void attempted(String job, long targetTime, int attempt) {
+    append(job, targetTime, attempt == 1 ? Status.STARTED : Status.ATTEMPTED, 0, null);
+  }
+
+  /**
+   * Records that an appointment of a run was created and awaits confirmation.
+   *
+   * @param job           the job name
+   * @param targetTime    the target slot timestamp of the run
+   * @param appointmentId the created appointment ID
+   * @param account       the account the appointment was created under
+   */
+  public void created(String job, long targetTime, long appointmentId, String account) {
+    append(job, targetTime, Status.CREATED, appointmentId, account);
+  }
+
+  /**
+   * Records that a surplus appointment of a run was deleted.
+   *
+   * @param job           the job name
+   * @param targetTime    the target slot timestamp of the run
+   * @param appointmentId the deleted appointment ID
+   */
+  public void released(String job, long targetTime, long appointmentId) {
+    append(job, targetTime, Status.RELEASED, appointmentId, null);
+  }
+
+  /**
+   * Records that the appointment of a run was confirmed, completing the run.
+   *
+   * @param job           the job name
+   * @param targetTime    the target slot timestamp of the run
+   * @param appointmentId the confirmed appointment ID
+   */
+  public void confirmed(String job, long targetTime, long appointmentId) {
+    append(job, targetTime, Status.CONFIRMED, appointmentId, null);
+  }
+
+  /**
+   * Records that a run ended without booking, e.g. because no slot was found or retries ran out.
+   *
+   * @param job        the job name
+   * @param targetTime the target slot timestamp of the run
+   */
+  public void finished(String job, long targetTime) {
+    append(job, targetTime, Status.FINISHED, 0, null);
+  }
+
+  /**
+   * Forces journaled records to disk if any were appended since the last sync.
+   */
+  @Scheduled(fixedDelayString = "${calendis.journal.sync-interval:PT1S}")
+  public void sync() {
+    if (channel == null || !dirty) {
+      return;
+    }
+
+    writeLock.lock();
+    try {
+      dirty = false;
+      channel.force(false);
+    } catch (IOException e) {
+      dirty = true;
+      log.warn("Failed to sync booking journal: {}", e.getMessage());
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  @Override
+  public void destroy() throws IOException {
+    if (channel != null) {
+      sync();
+      channel.close();
+    }
+  }
+
+  /**
+   * Applies a record to the run's state and appends it to the file under the same lock, so
+   * concurrent records of a run reach the file in the order they were applied, and replaying the
+   * file restores the state held in memory.
+   */
+  private void append(String job, long targetTime, Status status, long appointmentId,
+      String account) {
+    var now = Instant.now();
+    var key = new RunKey(job, targetTime);
+
+    writeLock.lock();
+    try {
+      runs.put(key, apply(runs.get(key), status, appointmentId, account, now));
+
+      if (channel == null) {
+        return;
+      }
+
+      var buffer = ByteBuffer.wrap(
+          format(status, key, appointmentId, account, now).getBytes(StandardCharsets.UTF_8));
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+      dirty = true;
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to append to booking journal", e);
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  /**
+   * Computes the state of a run after a record. Created appointments are kept until released,
+   * and a confirmed run stays confirmed: records of bookings that were still in flight when
+   * another one was confirmed do not reopen it.
+   */
+  private static RunState apply(RunState previous, Status status, long appointmentId,
+      String account, Instant at) {
+    if (previous == null) {
+      previous = new RunState(status == Status.RELEASED ? Status.STARTED : status, 0, at,
+          List.of());
+    }
+
+    var created = previous.created();
+    if (status == Status.CREATED && previous.accountOf(appointmentId).isEmpty()) {
+      var appointments = new ArrayList<>(created);
+      appointments.add(new Appointment(appointmentId, account));
+      created = List.copyOf(appointments);
+    } else if (status == Status.RELEASED) {
+      created = created.stream()
+          .filter(appointment -> appointment.id() != appointmentId)
+          .toList();
+      return new RunState(previous.status(), previous.appointmentId(), at, created);
+    }
+
+    if (previous.status() == Status.CONFIRMED && status != Status.CONFIRMED) {
+      return new RunState(Status.CONFIRMED, previous.appointmentId(), at, created);
+    }
+    return new RunState(status, appointmentId != 0 ? appointmentId : previous.appointmentId(),
+        at, created);
+  }
+
+  /**
+   * Rewrites the journal with only the records needed to restore each run: one per created
+   * appointment and one with the latest state, so it does not grow without bound across
+   * restarts.
+   */
+  private void compact(Path path) throws IOException {
+    var compacted = path.resolveSibling(path.getFileName() + ".tmp");
+    var content = new StringBuilder();
+    runs.forEach((key, state) -> {
+      for (var appointment : state.created()) {
+        content.append(format(Status.CREATED, key, appointment.id(), appointment.account(),
+            state.updatedAt()));
+      }
+      content.append(format(state.status(), key, state.appointmentId(), null,
+          state.updatedAt()));
+    });
+
+    Files.writeString(compacted, content, StandardCharsets.UTF_8);
+    Files.move(compacted, path, StandardCopyOption.REPLACE_EXISTING,
+        StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  private static String format(Status status, RunKey key, long appointmentId, String account,
+      Instant at) {
+    return String.join(SEPARATOR, String.valueOf(at.toEpochMilli()), status.name(),
+        String.valueOf(key.targetTime()), String.valueOf(appointmentId),
+        account != null ? account : NO_ACCOUNT, key.job()) + "\n";
+  }
+
+  private void replay(String line) {
+    var fields = line.split(SEPARATOR, 6);
+
+    try {
+      if (fields.length < 5) {
+        throw new IllegalArgumentException("Expected 6 fields");
+      }
+      // Records written before accounts were journaled have no account field
+      var account = fields.length == 6 && !NO_ACCOUNT.equals(fields[4]) ? fields[4] : null;
+      var key = new RunKey(fields[fields.length - 1], Long.parseLong(fields[2]));
+      runs.put(key, apply(runs.get(key), Status.valueOf(fields[1]), Long.parseLong(fields[3]),
+          account, Instant.ofEpochMilli(Long.parseLong(fields[0]))));
+    } catch (IllegalArgumentException e) {
+      // A partially written last line after a crash
+      log.warn("Skipping malformed booking journal line: {}", line);
+    }
+  }
+}
@@ -0,0 +1,118 @@
+package com.nazjara.scheduler;
+
+import com.nazjara.config.HttpClientConfig;
+import com.nazjara.config.SchedulerConfig;
+import com.nazjara.config.SchedulerConfig.JobConfig;
+import com.nazjara.config.SessionConfig;
+import com.nazjara.model.request.LoginRequest;
+import com.nazjara.service.AuthService;
+import com.nazjara.service.ConnectionWarmupService;
+import com.nazjara.service.ServerClock;
+import com.nazjara.util.DateTimeUtils;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Prepares upcoming booking jobs shortly before their cron fires, so the job itself can go
+ * straight to polling. Makes sure each job's account holds a session that stays valid for the whole
+ * booking window, logging in ahead of time when it does not, keeps pooled connections to the
+ * Calendis API warm until the job fires, and measures the server clock offset release-time jobs
+ * wait with.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookingWindowPreparer {
+
+  private final AuthService authService;
+  private final SchedulerConfig schedulerConfig;
+  private final BookingJobRegistry bookingJobRegistry;
+  private final SessionConfig sessionConfig;
+  private final ConnectionWarmupService connectionWarmupService;
+  private final HttpClientConfig httpClientConfig;
+  private final ServerClock serverClock;
+
+  private final Map<String, ZonedDateTime> preparedFireTimes = new ConcurrentHashMap<>();
+  private final Map<String, ZonedDateTime> warmedFireTimes = new ConcurrentHashMap<>();
+  private final Map<String, ZonedDateTime> clockSyncedFireTimes = new ConcurrentHashMap<>();
+
+  @Scheduled(fixedDelayString = "${calendis.session.check-interval:PT10S}")
+  public void prepareUpcomingJobs() {
+    var now = ZonedDateTime.now(DateTimeUtils.ROMANIA_ZONE);
+
+    for (var job : upcomingJobs()) {
+      var nextFire = bookingJobRegistry.nextFireTime(job.job(), now);
+
+      if (nextFire != null) {
+        warmUpConnections(job, now, nextFire);
+        refreshSession(job, now, nextFire);
+        synchronizeClock(job, now, nextFire);
+      }
+    }
+  }
+
+  private void warmUpConnections(UpcomingJob job, ZonedDateTime now, ZonedDateTime nextFire) {
+    var warmup = httpClientConfig.getWarmup();
+
+    if (!warmup.isEnabled() || nextFire.isAfter(now.plus(warmup.getLead()))
+        || nextFire.equals(warmedFireTimes.put(job.name(), nextFire))) {
+      return;
+    }
+
+    connectionWarmupService.keepWarmUntil(nextFire.toInstant().plus(warmup.getInterval()));
+  }
+
+  private void refreshSession(UpcomingJob job, ZonedDateTime now, ZonedDateTime nextFire) {
+    if (nextFire.isAfter(now.plus(sessionConfig.getRefreshLead()))
+        || nextFire.equals(preparedFireTimes.get(job.name()))) {
+      return;
+    }
+
+    try {
+      authService.getSession(job.loginRequest(),
+          nextFire.toInstant().plus(sessionConfig.getMinValidityAfterFire()));
+      preparedFireTimes.put(job.name(), nextFire);
+      log.info("Session for {} ready ahead of job firing at {}", job.email(), nextFire);
+    } catch (Exception e) {
+      log.warn("Failed to refresh session for {} ahead of job firing at {}", job.email(),
+          nextFire, e);
+    }
+  }
+
+  private void synchronizeClock(UpcomingJob job, ZonedDateTime now, ZonedDateTime nextFire) {
+    var release = schedulerConfig.getRelease();
+    var releaseTime = job.job().getReleaseTime();
+
+    if (releaseTime == null || releaseTime.isBlank()
+        || nextFire.isAfter(now.plus(release.getClockSyncLead()))
+        || nextFire.equals(clockSyncedFireTimes.put(job.job().getName(), nextFire))) {
+      return;
+    }
+
+    var offset = serverClock.synchronize(release.getClockSyncSamples());
+    log.info("Server clock offset of {} ms ready ahead of job {} firing at {}", offset.toMillis(),
+        job.job().getName(), nextFire);
+  }
+
+  private List<UpcomingJob> upcomingJobs() {
+    return bookingJobRegistry.getJobs().stream()
+        .filter(JobConfig::isEnabled)
+        .flatMap(job -> schedulerConfig.bookingAccounts(job).stream().map(account -> {
+          var loginRequest = schedulerConfig.loginRequest(account);
+          var name = account.equals(job.getAccount()) ? job.getName()
+              : job.getName() + "@" + account;
+          return new UpcomingJob(name, job, loginRequest.getEmail(), loginRequest);
+        }))
+        .toList();
+  }
+
+  private record UpcomingJob(String name, JobConfig job, String email, LoginRequest loginRequest) {
+
+  }
+}
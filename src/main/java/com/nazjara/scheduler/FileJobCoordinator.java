@@ -0,0 +1,283 @@
+package com.nazjara.scheduler;
+
+import com.nazjara.config.CoordinationConfig;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+/**
+ * Coordinates instances running on one host, or sharing a file system with working
+ * {@code fcntl} locks, through files in {@code calendis.coordination.directory}:
+ *
+ * <ul>
+ *   <li>each instance touches {@code nodes/<node-id>} every heartbeat interval; instances
+ *   touched within the node TTL are alive,</li>
+ *   <li>a run's lease is an exclusive lock on {@code <job>-<run>.lock}, released by the
+ *   operating system when its holder dies,</li>
+ *   <li>a holder about to create appointments writes its node ID to
+ *   {@code <job>-<run>.booking},</li>
+ *   <li>a completed run leaves {@code <job>-<run>.done} behind.</li>
+ * </ul>
+ *
+ * <p>An instance taking over a lease whose {@code .booking} file names another node reports the
+ * run as abandoned while booking. The same node restarted under a fixed
+ * {@code calendis.coordination.node-id} resumes the run from its own journal instead.
+ *
+ * <p>Jobs are assigned to the alive instances by rendezvous hashing, so adding an instance moves
+ * only the jobs it takes over.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "calendis.coordination.mode", havingValue = "file")
+@RequiredArgsConstructor
+public class FileJobCoordinator implements JobCoordinator, InitializingBean, DisposableBean {
+
+  private static final String NODES = "nodes";
+  private static final String LOCK_SUFFIX = ".lock";
+  private static final String DONE_SUFFIX = ".done";
+  private static final String BOOKING_SUFFIX = ".booking";
+
+  private final CoordinationConfig coordinationConfig;
+
+  // File locks are held per process, so runs leased by this instance are tracked here as well
+  private final Set<Path> held = ConcurrentHashMap.newKeySet();
+
+  private Path directory;
+  private Path nodeFile;
+  private String nodeId;
+
+  @Override
+  public void afterPropertiesSet() throws IOException {
+    directory = coordinationConfig.getDirectory();
+    nodeId = StringUtils.hasText(coordinationConfig.getNodeId())
+        ? coordinationConfig.getNodeId() : defaultNodeId();
+    Files.createDirectories(directory.resolve(NODES));
+    nodeFile = directory.resolve(NODES).resolve(sanitize(nodeId));
+    heartbeat();
+    purgeExpired();
+    log.info("Coordinating jobs as node {} through {}", nodeId, directory.toAbsolutePath());
+  }
+
+  @Override
+  public void destroy() {
+    try {
+      Files.deleteIfExists(nodeFile);
+    } catch (IOException e) {
+      log.warn("Failed to remove node file {}", nodeFile, e);
+    }
+  }
+
+  @Scheduled(fixedDelayString = "${calendis.coordination.heartbeat-interval:PT2S}")
+  public void heartbeat() {
+    try {
+      if (Files.exists(nodeFile)) {
+        Files.setLastModifiedTime(nodeFile, FileTime.from(Instant.now()));
+      } else {
+        Files.writeString(nodeFile, nodeId, StandardCharsets.UTF_8);
+      }
+    } catch (IOException e) {
+      log.warn("Failed to update heartbeat of node {}", nodeId, e);
+    }
+  }
+
+  @Override
+  public boolean prefers(String job) {
+    return aliveNodes().stream()
+        .max(Comparator.comparingLong((String node) -> weight(job, node))
+            .thenComparing(Comparator.naturalOrder()))
+        .map(sanitize(nodeId)::equals)
+        .orElse(true);
+  }
+
+  @Override
+  public Optional<Lease> tryAcquire(String job, long run) {
+    var lockFile = runFile(job, run, LOCK_SUFFIX);
+    if (isCompleted(job, run) || !held.add(lockFile)) {
+      return Optional.empty();
+    }
+    FileChannel channel = null;
+    try {
+      channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+      var lock = channel.tryLock();
+      // The run may have been completed between the check above and taking the lock
+      if (lock == null || isCompleted(job, run)) {
+        channel.close();
+        held.remove(lockFile);
+        return Optional.empty();
+      }
+      return Optional.of(new FileLease(job, run, lockFile, channel, lock,
+          isBookedElsewhere(job, run)));
+    } catch (OverlappingFileLockException e) {
+      held.remove(lockFile);
+      closeQuietly(channel);
+      return Optional.empty();
+    } catch (IOException e) {
+      held.remove(lockFile);
+      closeQuietly(channel);
+      throw new UncheckedIOException("Failed to lock " + lockFile, e);
+    }
+  }
+
+  @Override
+  public boolean isCompleted(String job, long run) {
+    return Files.exists(runFile(job, run, DONE_SUFFIX));
+  }
+
+  private boolean isBookedElsewhere(String job, long run) throws IOException {
+    var bookingFile = runFile(job, run, BOOKING_SUFFIX);
+    return Files.exists(bookingFile)
+        && !Files.readString(bookingFile, StandardCharsets.UTF_8).equals(nodeId);
+  }
+
+  private List<String> aliveNodes() {
+    var cutoff = Instant.now().minus(coordinationConfig.getNodeTtl());
+    try (Stream<Path> nodes = Files.list(directory.resolve(NODES))) {
+      return nodes
+          .filter(node -> modifiedAfter(node, cutoff))
+          .map(node -> node.getFileName().toString())
+          .toList();
+    } catch (IOException e) {
+      log.warn("Failed to list nodes in {}", directory, e);
+      return List.of();
+    }
+  }
+
+  private void purgeExpired() {
+    var cutoff = Instant.now().minus(coordinationConfig.getRetention());
+    try (Stream<Path> files = Files.list(directory)) {
+      files.filter(Files::isRegularFile)
+          .filter(file -> !modifiedAfter(file, cutoff))
+          .forEach(file -> {
+            try {
+              Files.deleteIfExists(file);
+            } catch (IOException e) {
+              log.debug("Failed to delete expired coordination file {}", file, e);
+            }
+          });
+    } catch (IOException e) {
+      log.warn("Failed to purge expired coordination files in {}", directory, e);
+    }
+  }
+
+  private Path runFile(String job, long run, String suffix) {
+    return directory.resolve(sanitize(job) + "-" + run + suffix);
+  }
+
+  private static boolean modifiedAfter(Path file, Instant cutoff) {
+    try {
+      return Files.getLastModifiedTime(file).toInstant().isAfter(cutoff);
+    } catch (IOException e) {
+      return false;
+    }
+  }
+
+  private static long weight(String job, String node) {
+    // SplitMix64 finalizer spreads the combined string hashes over the whole long range
+    long h = job.hashCode() * 0x9E3779B97F4A7C15L ^ node.hashCode();
+    h = (h ^ (h >>> 30)) * 0xBF58476D1CE4E5B9L;
+    h = (h ^ (h >>> 27)) * 0x94D049BB133111EBL;
+    return h ^ (h >>> 31);
+  }
+
+  private static String sanitize(String name) {
+    return name.replaceAll("[^A-Za-z0-9._@-]", "_");
+  }
+
+  private static String defaultNodeId() {
+    try {
+      return ProcessHandle.current().pid() + "@" + InetAddress.getLocalHost().getHostName();
+    } catch (IOException e) {
+      return ManagementFactory.getRuntimeMXBean().getName();
+    }
+  }
+
+  private static void closeQuietly(FileChannel channel) {
+    if (channel == null) {
+      return;
+    }
+    try {
+      channel.close();
+    } catch (IOException e) {
+      log.debug("Failed to close lock channel", e);
+    }
+  }
+
+  @RequiredArgsConstructor
+  private final class FileLease implements Lease {
+
+    private final String job;
+    private final long run;
+    private final Path lockFile;
+    private final FileChannel channel;
+    private final FileLock lock;
+    private final boolean bookingAbandoned;
+    private boolean booking;
+
+    @Override
+    public synchronized void bookingStarted() {
+      if (booking) {
+        return;
+      }
+
+      var bookingFile = runFile(job, run, BOOKING_SUFFIX);
+      try {
+        Files.writeString(bookingFile, nodeId, StandardCharsets.UTF_8);
+        booking = true;
+      } catch (IOException e) {
+        throw new UncheckedIOException("Failed to mark run booking: " + bookingFile, e);
+      }
+    }
+
+    @Override
+    public boolean isBookingAbandoned() {
+      return bookingAbandoned;
+    }
+
+    @Override
+    public void complete() {
+      var doneFile = runFile(job, run, DONE_SUFFIX);
+      try {
+        Files.writeString(doneFile, nodeId, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.DSYNC);
+      } catch (IOException e) {
+        throw new UncheckedIOException("Failed to mark run completed: " + doneFile, e);
+      }
+    }
+
+    @Override
+    public void close() {
+      try {
+        lock.release();
+      } catch (IOException e) {
+        log.debug("Failed to release lock {}", lockFile, e);
+      } finally {
+        closeQuietly(channel);
+        held.remove(lockFile);
+      }
+    }
+  }
+}
@@ -0,0 +1,34 @@
+package com.nazjara.scheduler;
+
+import java.util.concurrent.ThreadLocalRandom;
+import org.springframework.util.backoff.BackOff;
+import org.springframework.util.backoff.BackOffExecution;
+
+/**
+ * Randomizes the intervals of another {@link BackOff} by up to {@code jitter} of their length in
+ * either direction, so jobs started by the same cron do not hit Calendis in lockstep.
+ */
+final class JitteredBackOff implements BackOff {
+
+  private final BackOff delegate;
+  private final double jitter;
+
+  JitteredBackOff(BackOff delegate, double jitter) {
+    this.delegate = delegate;
+    this.jitter = Math.clamp(jitter, 0.0, 1.0);
+  }
+
+  @Override
+  public BackOffExecution start() {
+    var execution = delegate.start();
+
+    return () -> {
+      var interval = execution.nextBackOff();
+      var spread = (long) (interval * jitter);
+      if (interval == BackOffExecution.STOP || spread == 0) {
+        return interval;
+      }
+      return interval + ThreadLocalRandom.current().nextLong(-spread, spread + 1);
+    };
+  }
+}
@@ -0,0 +1,76 @@
+package com.nazjara.scheduler;
+
+import java.util.Optional;
+
+/**
+ * Assigns each run of a booking job to exactly one instance when several instances share the
+ * same jobs. Every instance triggers every job; before running, an instance takes the run's
+ * lease, and instances that do not get it stand by until the run is completed, taking over if its
+ * holder dies.
+ *
+ * <p>Each instance keeps its own booking journal, so an instance taking a run over does not know
+ * which appointments the dead holder created. A run whose holder died after it started booking is
+ * therefore not repeated, see {@link Lease#isBookingAbandoned()}.
+ */
+public interface JobCoordinator {
+
+  /**
+   * Whether the job is assigned to this instance while all instances are alive. Instances the
+   * job is not assigned to compete for its lease only after a short delay.
+   *
+   * @param job the job name
+   * @return true if this instance should run the job
+   */
+  boolean prefers(String job);
+
+  /**
+   * Takes the lease of a job run if no other instance holds it and the run is not completed.
+   *
+   * @param job the job name
+   * @param run identifies the run, e.g. its target slot time
+   * @return the lease, or empty if the run is held elsewhere or completed
+   */
+  Optional<Lease> tryAcquire(String job, long run);
+
+  /**
+   * Checks whether a run was completed by any instance.
+   *
+   * @param job the job name
+   * @param run identifies the run
+   * @return true if the run needs no further instance
+   */
+  boolean isCompleted(String job, long run);
+
+  /**
+   * The exclusive right to execute a job run. Closing it without completing the run lets another
+   * instance take the run over.
+   */
+  interface Lease extends AutoCloseable {
+
+    /**
+     * Records that the holder is about to create appointments for the run. Called before every
+     * creation; only the first call has an effect.
+     */
+    default void bookingStarted() {
+    }
+
+    /**
+     * Whether a previous holder of the run, another instance, started booking it and died before
+     * completing it. Its appointments are only in its own journal, so repeating the run could
+     * book the slot twice.
+     *
+     * @return true if the run was abandoned by its holder while booking
+     */
+    default boolean isBookingAbandoned() {
+      return false;
+    }
+
+    /**
+     * Marks the run as completed, whatever its outcome, so that no other instance repeats it.
+     */
+    void complete();
+
+    @Override
+    void close();
+  }
+}
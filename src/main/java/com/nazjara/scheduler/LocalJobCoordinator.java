@@ -0,0 +1,39 @@
+package com.nazjara.scheduler;
+
+import java.util.Optional;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Coordination of a single instance: every job runs here.
+ */
+@Component
+@ConditionalOnProperty(name = "calendis.coordination.mode", havingValue = "local",
+    matchIfMissing = true)
+public class LocalJobCoordinator implements JobCoordinator {
+
+  private static final Lease LEASE = new Lease() {
+    @Override
+    public void complete() {
+    }
+
+    @Override
+    public void close() {
+    }
+  };
+
+  @Override
+  public boolean prefers(String job) {
+    return true;
+  }
+
+  @Override
+  public Optional<Lease> tryAcquire(String job, long run) {
+    return Optional.of(LEASE);
+  }
+
+  @Override
+  public boolean isCompleted(String job, long run) {
+    return false;
+  }
+}
@@ -0,0 +1,49 @@
+package com.nazjara.scheduler;
+
+import java.time.Duration;
+import org.springframework.util.backoff.BackOff;
+import org.springframework.util.backoff.BackOffExecution;
+
+/**
+ * Uses one {@link BackOff} for a fixed window after an execution starts, or until it stops, and
+ * another one afterwards. Lets a job poll densely while a slot is most likely to open and back
+ * off once it is not.
+ */
+final class PhasedBackOff implements BackOff {
+
+  private final BackOff first;
+  private final Duration window;
+  private final BackOff then;
+
+  PhasedBackOff(BackOff first, Duration window, BackOff then) {
+    this.first = first;
+    this.window = window;
+    this.then = then;
+  }
+
+  @Override
+  public BackOffExecution start() {
+    var started = System.nanoTime();
+    var firstExecution = first.start();
+
+    return new BackOffExecution() {
+
+      private BackOffExecution thenExecution;
+
+      @Override
+      public long nextBackOff() {
+        if (thenExecution == null && System.nanoTime() - started < window.toNanos()) {
+          var interval = firstExecution.nextBackOff();
+          if (interval != STOP) {
+            return interval;
+          }
+        }
+
+        if (thenExecution == null) {
+          thenExecution = then.start();
+        }
+        return thenExecution.nextBackOff();
+      }
+    };
+  }
+}
@@ -0,0 +1,158 @@
+package com.nazjara.scheduler;
+
+import com.nazjara.model.response.AvailableSlotsResponse;
+import com.nazjara.util.AvailableSlotsParser;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compact, immutable index of the available slots of one availability response: slot times in a
+ * sorted {@code long[]} with the staff and group IDs in parallel arrays. It is filled by a
+ * {@link Builder} straight from the streaming parser, looking up a target time is a binary search,
+ * and a {@link AvailableSlotsResponse.Slot} is only created for a match.
+ */
+final class SlotIndex {
+
+  static final SlotIndex EMPTY = new SlotIndex(new long[0], new String[0], new String[0]);
+
+  private final long[] times;
+  private final String[] staffIds;
+  private final String[] groupIds;
+
+  private SlotIndex(long[] times, String[] staffIds, String[] groupIds) {
+    this.times = times;
+    this.staffIds = staffIds;
+    this.groupIds = groupIds;
+  }
+
+  /**
+   * Indexes the available slots of the given list, ignoring unavailable ones.
+   *
+   * @param slots the slots returned by Calendis
+   * @return the index of the available slots
+   */
+  static SlotIndex of(List<AvailableSlotsResponse.Slot> slots) {
+    var builder = builder();
+    for (var slot : slots) {
+      builder.accept(slot.getIsAvailable(), slot.getStaffId(), slot.getTime(), slot.getGroupId());
+    }
+    return builder.build();
+  }
+
+  /**
+   * @return a builder to feed slots to as {@link AvailableSlotsParser} reads them
+   */
+  static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * @return the number of available slots
+   */
+  int size() {
+    return times.length;
+  }
+
+  /**
+   * Finds all available slots at the given time, e.g. one per court.
+   *
+   * @param time the slot timestamp
+   * @return the slots in the order Calendis reported them, empty if none is available
+   */
+  List<AvailableSlotsResponse.Slot> findAll(long time) {
+    var i = Arrays.binarySearch(times, time);
+    if (i < 0) {
+      return List.of();
+    }
+    while (i > 0 && times[i - 1] == time) {
+      i--;
+    }
+
+    var slots = new ArrayList<AvailableSlotsResponse.Slot>();
+    for (; i < times.length && times[i] == time; i++) {
+      slots.add(slotAt(i));
+    }
+    return slots;
+  }
+
+  private AvailableSlotsResponse.Slot slotAt(int i) {
+    return AvailableSlotsResponse.Slot.builder()
+        .isAvailable(1)
+        .staffId(staffIds[i])
+        .time(times[i])
+        .groupId(groupIds[i])
+        .build();
+  }
+
+  /**
+   * Collects the available slots of a response field by field, so no
+   * {@link AvailableSlotsResponse.Slot} is created for slots that are never booked.
+   */
+  static final class Builder implements AvailableSlotsParser.SlotSink {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private long[] times = new long[INITIAL_CAPACITY];
+    private String[] staffIds = new String[INITIAL_CAPACITY];
+    private String[] groupIds = new String[INITIAL_CAPACITY];
+    private int size;
+    private boolean sorted = true;
+
+    private Builder() {
+    }
+
+    /**
+     * Adds a slot to the index if it is available.
+     */
+    @Override
+    public void accept(int isAvailable, String staffId, long time, String groupId) {
+      if (isAvailable != 1) {
+        return;
+      }
+      if (size == times.length) {
+        times = Arrays.copyOf(times, size * 2);
+        staffIds = Arrays.copyOf(staffIds, size * 2);
+        groupIds = Arrays.copyOf(groupIds, size * 2);
+      }
+      if (size > 0 && time < times[size - 1]) {
+        sorted = false;
+      }
+      times[size] = time;
+      staffIds[size] = staffId;
+      groupIds[size] = groupId;
+      size++;
+    }
+
+    /**
+     * @return the index of the slots added so far
+     */
+    SlotIndex build() {
+      if (size == 0) {
+        return EMPTY;
+      }
+
+      if (sorted) {
+        return new SlotIndex(Arrays.copyOf(times, size), Arrays.copyOf(staffIds, size),
+            Arrays.copyOf(groupIds, size));
+      }
+
+      // Calendis returns slots in chronological order; sort by time in case it does not
+      var order = new Integer[size];
+      for (int i = 0; i < size; i++) {
+        order[i] = i;
+      }
+      Arrays.sort(order, (a, b) -> Long.compare(times[a], times[b]));
+
+      var sortedTimes = new long[size];
+      var sortedStaffIds = new String[size];
+      var sortedGroupIds = new String[size];
+      for (int i = 0; i < size; i++) {
+        sortedTimes[i] = times[order[i]];
+        sortedStaffIds[i] = staffIds[order[i]];
+        sortedGroupIds[i] = groupIds[order[i]];
+      }
+      return new SlotIndex(sortedTimes, sortedStaffIds, sortedGroupIds);
+    }
+  }
+}
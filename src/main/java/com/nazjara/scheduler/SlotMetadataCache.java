@@ -0,0 +1,212 @@
+package com.nazjara.scheduler;
+
+import com.nazjara.config.JournalConfig;
+import com.nazjara.model.response.AvailableSlotsResponse;
+import com.nazjara.util.DateTimeUtils;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Remembers the staff and group IDs Calendis reported for each slot time of a service. These IDs
+ * are stable per service, which allows building a booking request for a slot before availability
+ * polling has reported it as open.
+ *
+ * <p>When the booking journal is enabled, the metadata is kept in
+ * {@code calendis.journal.slot-metadata-path} as well, so slots seen before a restart, or by the
+ * previous container, can still be booked speculatively. Changes are written to the file every
+ * {@code calendis.journal.sync-interval}, off the polling path.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SlotMetadataCache implements InitializingBean, DisposableBean {
+
+  private static final String SEPARATOR = "\t";
+
+  private final JournalConfig journalConfig;
+
+  private final Map<Key, AvailableSlotsResponse.Slot> slots = new ConcurrentHashMap<>();
+  private volatile boolean dirty;
+
+  @Override
+  public void afterPropertiesSet() throws IOException {
+    var path = journalConfig.getSlotMetadataPath();
+    if (!journalConfig.isEnabled() || !Files.exists(path)) {
+      return;
+    }
+
+    try (var lines = Files.lines(path, StandardCharsets.UTF_8)) {
+      lines.forEach(this::load);
+    }
+    log.info("Loaded metadata of {} slots from {}", slots.size(), path);
+  }
+
+  /**
+   * Records the metadata of the given slots. Slots seen as available take precedence over
+   * unavailable ones for the same time of day.
+   *
+   * @param locationId the location the slots belong to
+   * @param serviceId  the service the slots belong to
+   * @param stuffId    the staff filter the slots were queried with
+   * @param response   the slots returned by Calendis
+   */
+  public void record(int locationId, int serviceId, int stuffId,
+      List<AvailableSlotsResponse.Slot> response) {
+    for (var slot : response) {
+      record(locationId, serviceId, stuffId, slot.getIsAvailable(), slot.getStaffId(),
+          slot.getTime(), slot.getGroupId());
+    }
+  }
+
+  /**
+   * Records the metadata of a single slot, as read by the streaming parser. A slot is only
+   * created when the metadata is new or changed, so polls reporting known slots allocate nothing.
+   *
+   * @param locationId  the location the slot belongs to
+   * @param serviceId   the service the slot belongs to
+   * @param stuffId     the staff filter the slot was queried with
+   * @param isAvailable whether the slot is available, {@code 1} if it is
+   * @param staffId     the staff (court) ID of the slot
+   * @param time        the slot timestamp
+   * @param groupId     the group ID of the slot
+   */
+  public void record(int locationId, int serviceId, int stuffId, int isAvailable,
+      String staffId, long time, String groupId) {
+    if (staffId == null || groupId == null) {
+      return;
+    }
+
+    var key = new Key(locationId, serviceId, stuffId, secondOfDay(time));
+    var previous = slots.get(key);
+    if (isAvailable == 1) {
+      if (previous == null || previous.getIsAvailable() != 1
+          || !sameMetadata(previous, staffId, groupId)) {
+        slots.put(key, slot(isAvailable, staffId, time, groupId));
+        dirty = true;
+      }
+    } else if (previous == null
+        && slots.putIfAbsent(key, slot(isAvailable, staffId, time, groupId)) == null) {
+      dirty = true;
+    }
+  }
+
+  /**
+   * Builds the slot expected at the given timestamp from previously seen metadata.
+   *
+   * @param locationId the location of the slot
+   * @param serviceId  the service of the slot
+   * @param stuffId    the staff filter used by the job
+   * @param time       the slot timestamp
+   * @return the predicted slot, if metadata for this time of day has been seen before
+   */
+  public Optional<AvailableSlotsResponse.Slot> predict(int locationId, int serviceId, int stuffId,
+      long time) {
+    var key = new Key(locationId, serviceId, stuffId, secondOfDay(time));
+
+    return Optional.ofNullable(slots.get(key))
+        .map(seen -> AvailableSlotsResponse.Slot.builder()
+            .isAvailable(1)
+            .staffId(seen.getStaffId())
+            .groupId(seen.getGroupId())
+            .time(time)
+            .build());
+  }
+
+  /**
+   * Writes the metadata to its file if it changed since the last write.
+   */
+  @Scheduled(fixedDelayString = "${calendis.journal.sync-interval:PT1S}")
+  public synchronized void persist() {
+    if (!journalConfig.isEnabled() || !dirty) {
+      return;
+    }
+
+    dirty = false;
+    var path = journalConfig.getSlotMetadataPath();
+    var content = new StringBuilder();
+    slots.forEach((key, slot) -> content.append(String.join(SEPARATOR,
+        String.valueOf(key.locationId()), String.valueOf(key.serviceId()),
+        String.valueOf(key.stuffId()), String.valueOf(key.secondOfDay()),
+        String.valueOf(slot.getIsAvailable()), slot.getStaffId(), slot.getGroupId()))
+        .append('\n'));
+
+    try {
+      if (path.toAbsolutePath().getParent() != null) {
+        Files.createDirectories(path.toAbsolutePath().getParent());
+      }
+      var written = path.resolveSibling(path.getFileName() + ".tmp");
+      Files.writeString(written, content, StandardCharsets.UTF_8);
+      Files.move(written, path, StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException e) {
+      dirty = true;
+      log.warn("Failed to write slot metadata to {}: {}", path, e.getMessage());
+    }
+  }
+
+  @Override
+  public void destroy() {
+    persist();
+  }
+
+  private void load(String line) {
+    var fields = line.split(SEPARATOR, 7);
+
+    try {
+      if (fields.length < 7) {
+        throw new IllegalArgumentException("Expected 7 fields");
+      }
+      var key = new Key(Integer.parseInt(fields[0]), Integer.parseInt(fields[1]),
+          Integer.parseInt(fields[2]), Integer.parseInt(fields[3]));
+      slots.put(key, AvailableSlotsResponse.Slot.builder()
+          .isAvailable(Integer.parseInt(fields[4]))
+          .staffId(fields[5])
+          .groupId(fields[6])
+          .build());
+    } catch (IllegalArgumentException e) {
+      log.warn("Skipping malformed slot metadata line: {}", line);
+    }
+  }
+
+  private static boolean sameMetadata(AvailableSlotsResponse.Slot previous, String staffId,
+      String groupId) {
+    return Objects.equals(previous.getStaffId(), staffId)
+        && Objects.equals(previous.getGroupId(), groupId);
+  }
+
+  private static AvailableSlotsResponse.Slot slot(int isAvailable, String staffId, long time,
+      String groupId) {
+    return AvailableSlotsResponse.Slot.builder()
+        .isAvailable(isAvailable)
+        .staffId(staffId)
+        .time(time)
+        .groupId(groupId)
+        .build();
+  }
+
+  private int secondOfDay(long time) {
+    return Instant.ofEpochSecond(time)
+        .atZone(DateTimeUtils.ROMANIA_ZONE)
+        .toLocalTime()
+        .toSecondOfDay();
+  }
+
+  private record Key(int locationId, int serviceId, int stuffId, int secondOfDay) {
+
+  }
+}
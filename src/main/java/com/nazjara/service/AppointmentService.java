@@ -1,19 +1,39 @@
 package com.nazjara.service;
 
-import com.nazjara.config.BrowserHeadersHolder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nazjara.config.SessionCookieInterceptor;
 import com.nazjara.dto.AppointmentDto;
+import com.nazjara.dto.AuthDto;
 import com.nazjara.exception.AppointmentNotFoundException;
 import com.nazjara.exception.BookingException;
+import com.nazjara.model.request.BatchAvailableSlotsRequest.SlotsQuery;
 import com.nazjara.model.request.ConfirmAppointmentRequest;
 import com.nazjara.model.request.CreateAppointmentRequest;
 import com.nazjara.model.response.AvailableSlotsResponse;
+import com.nazjara.model.response.BatchAvailableSlotsResponse;
+import com.nazjara.util.AppointmentIdScanner;
+import com.nazjara.util.AvailableSlotsParser;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.jsoup.Jsoup;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
 import org.springframework.web.client.RestClient;
 import org.springframework.web.util.UriComponentsBuilder;
 
@@ -23,42 +43,163 @@ import org.springframework.web.util.UriComponentsBuilder;
 public class AppointmentService {
 
   private static final String GET_AVAILABLE_SLOTS_PATH = "/api/get_available_slots";
-  private static final String CREATE_APPOINTMENT_PATH = "/api/appointment/";
-  private static final String CONFIRM_PAGE_PATH = "/finalizeaza-programarea";
+  static final String CREATE_APPOINTMENT_PATH = "/api/appointment/";
+  static final String CONFIRM_PAGE_PATH = "/finalizeaza-programarea";
   private static final String APPOINTMENT_ID_SELECTOR = "input#appointment_group_id";
 
   private final RestClient restClient;
   private final AuthService authService;
-  private final BrowserHeadersHolder headersHolder;
+  private final AvailableSlotsCache availableSlotsCache;
+  private final CalendisMetrics metrics;
+  private final ObjectMapper objectMapper;
 
   @Value("${calendis.appointment.delete.only-me}")
   private int deleteOnlyMe;
 
+  @Value("${calendis.appointment.batch-parallelism:8}")
+  private int batchParallelism;
+
+  @Value("${calendis.appointment.fast-id-extraction:true}")
+  private boolean fastIdExtraction;
+
   /**
    * Books an appointment by creating it and then confirming it in a single operation. This method
    * handles the complete booking flow: 1. Create the appointment 2. Extract the appointment ID from
    * the confirmation page 3. Confirm the appointment
    *
+   * @param email   the account to book under, or {@code null} for the default account
    * @param request the appointment creation request
    * @return the appointment details
    * @throws BookingException             if there is an error during the booking process
    * @throws AppointmentNotFoundException if the appointment ID cannot be found
    */
-  public AppointmentDto bookAppointment(CreateAppointmentRequest request) {
+  public AppointmentDto bookAppointment(String email, CreateAppointmentRequest request) {
     log.info("Booking appointment with complete flow: {}", request);
 
-    var appointmentDto = createAppointment(request);
+    var appointmentDto = createAppointment(email, request);
     log.info("Created appointment with ID: {}, now confirming", appointmentDto.getId());
 
-    confirmAppointment(appointmentDto.getId());
+    confirmAppointment(email, appointmentDto.getId(), appointmentDto.getLocationId(),
+        appointmentDto.getServiceId());
     log.info("Successfully booked and confirmed appointment with ID: {}", appointmentDto.getId());
 
     return appointmentDto;
   }
 
+  /**
+   * Creates an appointment and resolves its ID, without confirming it. Callers that need to
+   * record the created appointment before confirming it use this together with
+   * {@link #confirmAppointment(String, long, int, int)}.
+   *
+   * @param email   the account to book under, or {@code null} for the default account
+   * @param request the appointment creation request
+   * @return the created appointment, including its ID
+   * @throws BookingException             if there is an error during creation
+   * @throws AppointmentNotFoundException if the appointment ID cannot be found
+   */
+  public AppointmentDto createAppointment(String email, CreateAppointmentRequest request) {
+    var appointments = request.getAppointments();
+    var target = appointments == null || appointments.isEmpty() ? null : appointments.getFirst();
+    var locationId = target != null ? target.getLocationId() : null;
+    var serviceId = target != null ? target.getServiceId() : null;
+
+    return sendCreateAppointment(email, request, locationId, serviceId);
+  }
+
+  /**
+   * Creates an appointment from a payload serialized ahead of time by {@link BookingPayloads},
+   * like {@link #createAppointment(String, CreateAppointmentRequest)}.
+   *
+   * @param email      the account to book under, or {@code null} for the default account
+   * @param payload    the serialized {@code CreateAppointmentRequest}
+   * @param locationId the location of the appointment
+   * @param serviceId  the service of the appointment
+   * @return the created appointment, including its ID
+   * @throws BookingException             if there is an error during creation
+   * @throws AppointmentNotFoundException if the appointment ID cannot be found
+   */
+  public AppointmentDto createAppointment(String email, byte[] payload, int locationId,
+      int serviceId) {
+    return sendCreateAppointment(email, payload, locationId, serviceId);
+  }
+
+  private AppointmentDto sendCreateAppointment(String email, Object body, Integer locationId,
+      Integer serviceId) {
+    var response = withSession(email, CalendisMetrics.ENDPOINT_CREATE_APPOINTMENT, locationId,
+        serviceId, session -> restClient.post()
+        .uri(CREATE_APPOINTMENT_PATH)
+        .contentType(MediaType.APPLICATION_JSON)
+        .attribute(SessionCookieInterceptor.SESSION_ATTRIBUTE, session)
+        .body(body)
+        .retrieve()
+        .toEntity(String.class));
+
+    log.info("Appointment created successfully");
+
+    var appointmentId = fastIdExtraction
+        ? AppointmentIdScanner.fromCreateResponse(response.getHeaders(), response.getBody())
+        .orElseGet(() -> scanAppointmentIdFromConfirmationPage(email, locationId, serviceId))
+        : getAppointmentIdFromConfirmationPage(email, locationId, serviceId);
+    log.info("Extracted appointment ID: {}", appointmentId);
+
+    return AppointmentDto.builder()
+        .id(appointmentId)
+        .dateUnix(System.currentTimeMillis() / 1000)
+        .locationId(locationId != null ? locationId : 0)
+        .serviceId(serviceId != null ? serviceId : 0)
+        .build();
+  }
+
+  /**
+   * Confirms a created appointment. Also used on its own to complete an appointment that was
+   * created before a restart.
+   *
+   * @param email         the account the appointment was created under, or {@code null} for the
+   *                      default account
+   * @param appointmentId the appointment ID
+   * @param locationId    the location of the appointment
+   * @param serviceId     the service of the appointment
+   */
+  public void confirmAppointment(String email, long appointmentId, int locationId,
+      int serviceId) {
+    sendConfirmAppointment(email, appointmentId, locationId, serviceId,
+        buildConfirmRequest(appointmentId));
+  }
+
+  /**
+   * Confirms a created appointment with a payload rendered by {@link BookingPayloads}, like
+   * {@link #confirmAppointment(String, long, int, int)}.
+   *
+   * @param email         the account the appointment was created under, or {@code null} for the
+   *                      default account
+   * @param appointmentId the appointment ID
+   * @param locationId    the location of the appointment
+   * @param serviceId     the service of the appointment
+   * @param payload       the serialized {@code ConfirmAppointmentRequest}
+   */
+  public void confirmAppointment(String email, long appointmentId, int locationId,
+      int serviceId, byte[] payload) {
+    sendConfirmAppointment(email, appointmentId, locationId, serviceId, payload);
+  }
+
+  private void sendConfirmAppointment(String email, long appointmentId, int locationId,
+      int serviceId, Object body) {
+    withSession(email, CalendisMetrics.ENDPOINT_CONFIRM_APPOINTMENT, locationId, serviceId,
+        session -> restClient.put()
+        .uri(CREATE_APPOINTMENT_PATH + appointmentId)
+        .contentType(MediaType.APPLICATION_JSON)
+        .attribute(SessionCookieInterceptor.SESSION_ATTRIBUTE, session)
+        .body(body)
+        .retrieve()
+        .toBodilessEntity());
+
+    log.info("Appointment {} confirmed successfully", appointmentId);
+  }
+
   /**
    * Retrieves available slots for a specific service, location, and date from the Calendis API.
    *
+   * @param email      the account to query with, or {@code null} for the default account
    * @param serviceId  the ID of the service to check availability for
    * @param locationId the ID of the location to check availability for
    * @param date       the date (in Unix timestamp format) to check availability for
@@ -66,26 +207,16 @@ public class AppointmentService {
    * @return the available slots response
    * @throws BookingException if there is an error retrieving available slots
    */
-  public AvailableSlotsResponse getAvailableSlots(int serviceId, int locationId, int stuffId,
-      long date, int dayOnly) {
-    var uriBuilder = UriComponentsBuilder.fromPath(GET_AVAILABLE_SLOTS_PATH)
-        .queryParam("service_id", serviceId)
-        .queryParam("location_id", locationId)
-        .queryParam("date", date)
-        .queryParam("day_only", dayOnly);
-
-    if (stuffId != 0) {
-      uriBuilder.queryParam("user_id", stuffId);
-    }
+  public AvailableSlotsResponse getAvailableSlots(String email, int serviceId, int locationId,
+      int stuffId, long date, int dayOnly) {
+    var uri = buildAvailableSlotsUri(serviceId, locationId, stuffId, date, dayOnly);
 
-    var uri = uriBuilder.build().toUriString();
-
-    var response = restClient.get()
+    var response = withSession(email, CalendisMetrics.ENDPOINT_AVAILABLE_SLOTS, locationId,
+        serviceId, session -> restClient.get()
         .uri(uri)
-        .headers(
-            httpHeaders -> headersHolder.withCookie(buildCookieHeader()).forEach(httpHeaders::add))
+        .attribute(SessionCookieInterceptor.SESSION_ATTRIBUTE, session)
         .retrieve()
-        .body(AvailableSlotsResponse.class);
+        .body(AvailableSlotsResponse.class));
 
     log.info("Retrieved {} available slots",
         response.getAvailableSlots() != null ? response.getAvailableSlots().size() : 0);
@@ -93,78 +224,206 @@ public class AppointmentService {
     return response;
   }
 
+  /**
+   * Retrieves available slots like {@link #getAvailableSlots(String, int, int, int, long, int)},
+   * but reads the response as a token stream and hands the sink only what a booking job needs:
+   * available slots and the slot at the target time. {@code service_details} and unavailable
+   * slots are skipped without being materialized, and kept slots are passed field by field.
+   * Optionally, reading stops once the target slot is found available, so later slots are not
+   * passed on.
+   *
+   * @param email        the account to query with, or {@code null} for the default account
+   * @param serviceId    the ID of the service to check availability for
+   * @param locationId   the ID of the location to check availability for
+   * @param date         the date (in Unix timestamp format) to check availability for
+   * @param dayOnly      flag to indicate whether to return slots for the entire day (1) or not
+   *                     (0)
+   * @param targetTime   the timestamp of the slot the caller is looking for
+   * @param stopAtTarget whether to stop reading once the target slot is found available
+   * @param sink         receives the available slots and the slot at the target time, in
+   *                     response order
+   * @return the number of slots passed to the sink
+   */
+  public int scanAvailableSlots(String email, int serviceId, int locationId, int stuffId,
+      long date, int dayOnly, long targetTime, boolean stopAtTarget,
+      AvailableSlotsParser.SlotSink sink) {
+    var uri = buildAvailableSlotsUri(serviceId, locationId, stuffId, date, dayOnly);
+
+    int scanned = withSession(email, CalendisMetrics.ENDPOINT_AVAILABLE_SLOTS, locationId,
+        serviceId, session -> restClient.get()
+        .uri(uri)
+        .attribute(SessionCookieInterceptor.SESSION_ATTRIBUTE, session)
+        .exchange((clientRequest, clientResponse) -> {
+          checkStatus(clientResponse);
+          try (var parser = objectMapper.createParser(clientResponse.getBody())) {
+            return AvailableSlotsParser.parse(parser, targetTime, stopAtTarget, sink);
+          }
+        }));
+
+    log.info("Scanned {} relevant slots", scanned);
+
+    return scanned;
+  }
+
+  /**
+   * Retrieves available slots like {@link #getAvailableSlots(String, int, int, int, long, int)},
+   * but answers identical queries made within a short TTL from memory and shares a single upstream
+   * request between concurrent identical queries. Scheduler polling, which must see the freshest
+   * availability, bypasses this by calling the uncached variant.
+   *
+   * @param email      the account to query with, or {@code null} for the default account
+   * @param serviceId  the ID of the service to check availability for
+   * @param locationId the ID of the location to check availability for
+   * @param date       the date (in Unix timestamp format) to check availability for
+   * @param dayOnly    flag to indicate whether to return slots for the entire day (1) or not (0)
+   * @return the available slots response
+   */
+  public AvailableSlotsResponse getCachedAvailableSlots(String email, int serviceId,
+      int locationId, int stuffId, long date, int dayOnly) {
+    return availableSlotsCache.get(
+        new AvailableSlotsCache.Key(serviceId, locationId, stuffId, date, dayOnly),
+        () -> getAvailableSlots(email, serviceId, locationId, stuffId, date, dayOnly));
+  }
+
+  /**
+   * Retrieves available slots for several (service, location, staff, date) tuples at once. The
+   * upstream requests are issued concurrently, at most {@code batch-parallelism} at a time, so a
+   * scan of many tuples costs roughly the latency of the slowest request. A tuple queried more
+   * than once is fetched once. A failing tuple is reported with its error and does not fail the
+   * whole batch.
+   *
+   * @param email   the account to query with, or {@code null} for the default account
+   * @param queries the tuples to check availability for
+   * @return the result of each distinct tuple, keyed by the tuple, in request order
+   */
+  public Map<AvailableSlotsCache.Key, BatchAvailableSlotsResponse.Result> getAvailableSlots(
+      String email, List<SlotsQuery> queries) {
+    var permits = new Semaphore(batchParallelism);
+    var distinct = new LinkedHashMap<AvailableSlotsCache.Key, SlotsQuery>();
+    queries.forEach(query -> distinct.putIfAbsent(keyOf(query), query));
+
+    try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      var futures = new LinkedHashMap<AvailableSlotsCache.Key,
+          CompletableFuture<BatchAvailableSlotsResponse.Result>>();
+      distinct.forEach((key, query) -> futures.put(key, CompletableFuture.supplyAsync(
+          () -> fetchBatchResult(email, query, permits), executor)));
+
+      var results = new LinkedHashMap<AvailableSlotsCache.Key,
+          BatchAvailableSlotsResponse.Result>();
+      futures.forEach((key, future) -> results.put(key, future.join()));
+      return results;
+    }
+  }
+
   /**
    * Deletes an appointment for a given user via Calendis API.
    *
+   * @param email         the account to delete with, or {@code null} for the default account
    * @param appointmentId the appointment ID to delete
    * @param userId        the end user ID on whose behalf the deletion is performed
    */
-  public void deleteAppointment(long appointmentId, long userId) {
+  public void deleteAppointment(String email, long appointmentId, long userId) {
     var uri = UriComponentsBuilder.fromPath(CREATE_APPOINTMENT_PATH + appointmentId)
         .queryParam("only_me", deleteOnlyMe)
         .queryParam("end_user_id", userId)
         .build()
         .toUriString();
 
-    restClient.delete()
+    withSession(email, CalendisMetrics.ENDPOINT_DELETE_APPOINTMENT, null, null,
+        session -> restClient.delete()
         .uri(uri)
-        .headers(
-            httpHeaders -> headersHolder.withCookie(buildCookieHeader()).forEach(httpHeaders::add))
+        .attribute(SessionCookieInterceptor.SESSION_ATTRIBUTE, session)
         .retrieve()
-        .toBodilessEntity();
+        .toBodilessEntity());
 
     log.info("Appointment {} deletion requested for user_id={} (only_me={})", appointmentId,
         userId, deleteOnlyMe);
   }
 
-  private AppointmentDto createAppointment(CreateAppointmentRequest request) {
-    restClient.post()
-        .uri(CREATE_APPOINTMENT_PATH)
-        .contentType(MediaType.APPLICATION_JSON)
-        .headers(
-            httpHeaders -> headersHolder.withCookie(buildCookieHeader()).forEach(httpHeaders::add))
-        .body(request)
-        .retrieve()
-        .toBodilessEntity();
-
-    log.info("Appointment created successfully");
+  static String buildAvailableSlotsUri(int serviceId, int locationId, int stuffId, long date,
+      int dayOnly) {
+    var uriBuilder = UriComponentsBuilder.fromPath(GET_AVAILABLE_SLOTS_PATH)
+        .queryParam("service_id", serviceId)
+        .queryParam("location_id", locationId)
+        .queryParam("date", date)
+        .queryParam("day_only", dayOnly);
 
-    var appointmentId = getAppointmentIdFromConfirmationPage();
-    log.info("Extracted appointment ID: {}", appointmentId);
+    if (stuffId != 0) {
+      uriBuilder.queryParam("user_id", stuffId);
+    }
 
-    return AppointmentDto.builder()
-        .id(appointmentId)
-        .dateUnix(System.currentTimeMillis() / 1000)
-        .build();
+    return uriBuilder.build().toUriString();
   }
 
-  private void confirmAppointment(long appointmentId) {
-    var request = buildConfirmRequest(appointmentId);
+  private static AvailableSlotsCache.Key keyOf(SlotsQuery query) {
+    return new AvailableSlotsCache.Key(query.getServiceId(), query.getLocationId(),
+        query.getStuffId(), query.getDate(), query.getDayOnly());
+  }
 
-    restClient.put()
-        .uri(CREATE_APPOINTMENT_PATH + appointmentId)
-        .contentType(MediaType.APPLICATION_JSON)
-        .headers(
-            httpHeaders -> headersHolder.withCookie(buildCookieHeader()).forEach(httpHeaders::add))
-        .body(request)
-        .retrieve()
-        .toBodilessEntity();
+  private BatchAvailableSlotsResponse.Result fetchBatchResult(String email, SlotsQuery query,
+      Semaphore permits) {
+    var result = BatchAvailableSlotsResponse.Result.builder().query(query);
 
-    log.info("Appointment {} confirmed successfully", appointmentId);
+    try {
+      permits.acquire();
+      try {
+        return result.response(getCachedAvailableSlots(email, query.getServiceId(),
+            query.getLocationId(), query.getStuffId(), query.getDate(), query.getDayOnly()))
+            .build();
+      } finally {
+        permits.release();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return result.error("Interrupted").build();
+    } catch (Exception e) {
+      log.warn("Failed to retrieve available slots for {}: {}", query, e.getMessage());
+      return result.error(e.getMessage()).build();
+    }
   }
 
-  private long getAppointmentIdFromConfirmationPage() {
-    var html = restClient.get()
+  private long getAppointmentIdFromConfirmationPage(String email, Integer locationId,
+      Integer serviceId) {
+    var html = withSession(email, CalendisMetrics.ENDPOINT_CONFIRMATION_PAGE, locationId,
+        serviceId, session -> restClient.get()
         .uri(CONFIRM_PAGE_PATH)
-        .headers(
-            httpHeaders -> headersHolder.withCookie(buildCookieHeader()).forEach(httpHeaders::add))
+        .attribute(SessionCookieInterceptor.SESSION_ATTRIBUTE, session)
         .retrieve()
-        .body(String.class);
+        .body(String.class));
 
     return extractAppointmentId(html);
   }
 
-  private long extractAppointmentId(String html) {
+  /**
+   * Streams the confirmation page and stops reading at the appointment ID input instead of
+   * building a DOM for the whole page. Falls back to a Jsoup parse of what was read if the scanner
+   * finds no usable value.
+   */
+  private long scanAppointmentIdFromConfirmationPage(String email, Integer locationId,
+      Integer serviceId) {
+    return withSession(email, CalendisMetrics.ENDPOINT_CONFIRMATION_PAGE, locationId, serviceId,
+        session -> restClient.get()
+        .uri(CONFIRM_PAGE_PATH)
+        .attribute(SessionCookieInterceptor.SESSION_ATTRIBUTE, session)
+        .exchange((clientRequest, clientResponse) -> {
+          checkStatus(clientResponse);
+
+          var html = new StringBuilder();
+          OptionalLong appointmentId;
+          try (var reader = new InputStreamReader(clientResponse.getBody(),
+              StandardCharsets.UTF_8)) {
+            appointmentId = AppointmentIdScanner.scanHtml(reader, html);
+          }
+
+          if (appointmentId.isEmpty()) {
+            log.warn("Appointment ID not found by scanner, falling back to full HTML parse");
+            return extractAppointmentId(html.toString());
+          }
+          return appointmentId.getAsLong();
+        }));
+  }
+
+  static long extractAppointmentId(String html) {
     try {
       var document = Jsoup.parse(html);
       var appointmentIdElement = document.select(APPOINTMENT_ID_SELECTOR).first();
@@ -181,7 +440,23 @@ public class AppointmentService {
     }
   }
 
-  private ConfirmAppointmentRequest buildConfirmRequest(long appointmentId) {
+  /**
+   * Raises the exception {@code retrieve()} would for an error status, for calls that read the
+   * response body themselves through {@code exchange()}.
+   */
+  private static void checkStatus(ClientHttpResponse response) throws IOException {
+    var status = response.getStatusCode();
+    if (status.is4xxClientError()) {
+      throw HttpClientErrorException.create(status, response.getStatusText(),
+          response.getHeaders(), new byte[0], StandardCharsets.UTF_8);
+    }
+    if (status.is5xxServerError()) {
+      throw HttpServerErrorException.create(status, response.getStatusText(),
+          response.getHeaders(), new byte[0], StandardCharsets.UTF_8);
+    }
+  }
+
+  static ConfirmAppointmentRequest buildConfirmRequest(long appointmentId) {
     var client = ConfirmAppointmentRequest.Client.builder()
         .ownAppointment(1)
         .dateUnix(System.currentTimeMillis() / 1000)
@@ -193,7 +468,23 @@ public class AppointmentService {
         .build();
   }
 
-  private String buildCookieHeader() {
-    return "cookie_message=0; client_session=" + authService.getAuthDto().getClientSession();
+  /**
+   * Runs an upstream call with the account's session, timing each attempt. The call attaches the
+   * session to its request, and {@link SessionCookieInterceptor} adds the cookie. If Calendis
+   * rejects the session with 401, the account logs in again and the call is retried once with the
+   * new session.
+   */
+  private <T> T withSession(String email, String endpoint, Integer locationId, Integer serviceId,
+      Function<AuthDto, T> call) {
+    var session = authService.getAuthDto(email);
+    try {
+      return metrics.recordUpstream(endpoint, locationId, serviceId, () -> call.apply(session));
+    } catch (HttpClientErrorException.Unauthorized e) {
+      log.warn("Session rejected for {}, logging in again",
+          email != null ? email : "the default account");
+      var renewed = authService.relogin(email, session);
+      return metrics.recordUpstream(endpoint, locationId, serviceId, () -> call.apply(renewed));
+    }
   }
+
 }
\ No newline at end of file
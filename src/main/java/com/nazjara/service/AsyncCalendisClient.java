@@ -0,0 +1,493 @@
+package com.nazjara.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nazjara.config.HttpClientConfig;
+import com.nazjara.dto.AppointmentDto;
+import com.nazjara.dto.AuthDto;
+import com.nazjara.exception.AuthenticationException;
+import com.nazjara.exception.BookingException;
+import com.nazjara.model.request.CreateAppointmentRequest;
+import com.nazjara.model.request.LoginRequest;
+import com.nazjara.model.response.AvailableSlotsResponse;
+import com.nazjara.util.AppointmentIdScanner;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.async.methods.SimpleHttpRequest;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.client5.http.async.methods.SimpleRequestBuilder;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.Header;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * Non-blocking counterpart of {@link AuthService} and {@link AppointmentService} on the Apache
+ * async client. No thread is held while a request is in flight, so many polls and bookings can be
+ * multiplexed over a few connections (a single one with HTTP/2).
+ *
+ * <p>Every request is limited by {@code calendis.http.async.request-timeout}. Futures returned
+ * here can be composed with further timeouts; when one completes exceptionally, including by
+ * cancellation or {@link CompletableFuture#orTimeout}, the request in flight is aborted. Errors
+ * are reported with the same exceptions as the blocking client, and a session rejected with 401
+ * is re-created and the request retried once.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AsyncCalendisClient {
+
+  private final CloseableHttpAsyncClient asyncHttpClient;
+  private final AuthService authService;
+  private final SessionRegistry sessionRegistry;
+  private final CalendisMetrics metrics;
+  private final ObjectMapper objectMapper;
+  private final HttpClientConfig httpClientConfig;
+
+  private final Map<String, CompletableFuture<AuthDto>> relogins = new ConcurrentHashMap<>();
+
+  @Value("${calendis.api.base-url}")
+  private String baseUrl;
+
+  @Value("${calendis.appointment.delete.only-me}")
+  private int deleteOnlyMe;
+
+  /**
+   * Asynchronous {@link AuthService#login(LoginRequest)}.
+   *
+   * @param loginRequest the login request containing email, password, and remember flag
+   * @return the authentication details including the session token
+   */
+  public CompletableFuture<AuthDto> login(LoginRequest loginRequest) {
+    log.info("Attempting to login asynchronously with email: {}", loginRequest.getEmail());
+
+    var issuedAt = Instant.now();
+    return metrics.recordUpstreamAsync(CalendisMetrics.ENDPOINT_LOGIN, null, null,
+            () -> execute(SimpleRequestBuilder.post(baseUrl + AuthService.LOGIN_PATH)
+                .setBody(toJson(loginRequest), ContentType.APPLICATION_JSON)
+                .build()))
+        .thenApply(response -> authService.registerSession(loginRequest,
+            Arrays.stream(response.getHeaders(HttpHeaders.SET_COOKIE))
+                .map(Header::getValue)
+                .toList(),
+            issuedAt));
+  }
+
+  /**
+   * Asynchronous {@link AppointmentService#getAvailableSlots(String, int, int, int, long, int)}.
+   *
+   * @param email      the account to query with, or {@code null} for the default account
+   * @param serviceId  the ID of the service to check availability for
+   * @param locationId the ID of the location to check availability for
+   * @param date       the date (in Unix timestamp format) to check availability for
+   * @param dayOnly    flag to indicate whether to return slots for the entire day (1) or not (0)
+   * @return the available slots response
+   */
+  public CompletableFuture<AvailableSlotsResponse> getAvailableSlots(String email, int serviceId,
+      int locationId, int stuffId, long date, int dayOnly) {
+    var uri = baseUrl + AppointmentService.buildAvailableSlotsUri(serviceId, locationId, stuffId,
+        date, dayOnly);
+
+    return withSession(email, CalendisMetrics.ENDPOINT_AVAILABLE_SLOTS, locationId, serviceId,
+        session -> SimpleRequestBuilder.get(uri).build(),
+        response -> fromJson(response, AvailableSlotsResponse.class));
+  }
+
+  /**
+   * Asynchronous {@link AppointmentService#bookAppointment(String, CreateAppointmentRequest)}.
+   * Cancelling the returned future aborts the step in flight and skips the remaining ones.
+   *
+   * @param email   the account to book under, or {@code null} for the default account
+   * @param request the appointment creation request
+   * @return the appointment details
+   */
+  public CompletableFuture<AppointmentDto> bookAppointment(String email,
+      CreateAppointmentRequest request) {
+    var result = new CompletableFuture<AppointmentDto>();
+    var step = new AtomicReference<CompletableFuture<?>>();
+
+    var created = createAppointment(email, request);
+    step.set(created);
+
+    created.thenCompose(appointmentDto -> {
+          if (result.isDone()) {
+            return CompletableFuture.failedFuture(new CancellationException());
+          }
+          var confirmed = confirmAppointment(email, appointmentDto.getId(),
+              appointmentDto.getLocationId(), appointmentDto.getServiceId());
+          step.set(confirmed);
+          return confirmed.thenApply(ignored -> appointmentDto);
+        })
+        .whenComplete((appointmentDto, e) -> complete(result, appointmentDto, e));
+
+    result.whenComplete((appointmentDto, e) -> {
+      if (e != null) {
+        step.get().cancel(true);
+      }
+    });
+    return result;
+  }
+
+  /**
+   * Asynchronous {@link AppointmentService#createAppointment(String, CreateAppointmentRequest)}.
+   * The appointment ID is read from the create response, or else from the confirmation page.
+   *
+   * @param email   the account to book under, or {@code null} for the default account
+   * @param request the appointment creation request
+   * @return the created appointment, including its ID
+   */
+  public CompletableFuture<AppointmentDto> createAppointment(String email,
+      CreateAppointmentRequest request) {
+    var appointments = request.getAppointments();
+    var target = appointments == null || appointments.isEmpty() ? null : appointments.getFirst();
+    var locationId = target != null ? target.getLocationId() : null;
+    var serviceId = target != null ? target.getServiceId() : null;
+
+    return withSession(email, CalendisMetrics.ENDPOINT_CREATE_APPOINTMENT, locationId, serviceId,
+        session -> SimpleRequestBuilder.post(baseUrl + AppointmentService.CREATE_APPOINTMENT_PATH)
+            .setBody(toJson(request), ContentType.APPLICATION_JSON)
+            .build(),
+        response -> AppointmentIdScanner.fromCreateResponse(toHttpHeaders(response),
+            response.getBodyText()))
+        .thenCompose(appointmentId -> appointmentId.isPresent()
+            ? CompletableFuture.completedFuture(appointmentId.getAsLong())
+            : getAppointmentIdFromConfirmationPage(email, locationId, serviceId))
+        .thenApply(appointmentId -> {
+          log.info("Created appointment with ID: {}", appointmentId);
+          return AppointmentDto.builder()
+              .id(appointmentId)
+              .dateUnix(System.currentTimeMillis() / 1000)
+              .locationId(locationId != null ? locationId : 0)
+              .serviceId(serviceId != null ? serviceId : 0)
+              .build();
+        });
+  }
+
+  /**
+   * Asynchronous {@link AppointmentService#confirmAppointment(String, long, int, int)}.
+   *
+   * @param email         the account the appointment was created under, or {@code null} for the
+   *                      default account
+   * @param appointmentId the appointment ID
+   * @param locationId    the location of the appointment
+   * @param serviceId     the service of the appointment
+   * @return a future completing once the appointment is confirmed
+   */
+  public CompletableFuture<Void> confirmAppointment(String email, long appointmentId,
+      int locationId, int serviceId) {
+    var body = toJson(AppointmentService.buildConfirmRequest(appointmentId));
+
+    return withSession(email, CalendisMetrics.ENDPOINT_CONFIRM_APPOINTMENT, locationId,
+        serviceId,
+        session -> SimpleRequestBuilder.put(
+                baseUrl + AppointmentService.CREATE_APPOINTMENT_PATH + appointmentId)
+            .setBody(body, ContentType.APPLICATION_JSON)
+            .build(),
+        response -> {
+          log.info("Appointment {} confirmed successfully", appointmentId);
+          return null;
+        });
+  }
+
+  /**
+   * Asynchronous {@link AppointmentService#deleteAppointment(String, long, long)}.
+   *
+   * @param email         the account to delete with, or {@code null} for the default account
+   * @param appointmentId the appointment ID to delete
+   * @param userId        the end user ID on whose behalf the deletion is performed
+   * @return a future completing once the deletion is accepted
+   */
+  public CompletableFuture<Void> deleteAppointment(String email, long appointmentId,
+      long userId) {
+    var uri = baseUrl + UriComponentsBuilder
+        .fromPath(AppointmentService.CREATE_APPOINTMENT_PATH + appointmentId)
+        .queryParam("only_me", deleteOnlyMe)
+        .queryParam("end_user_id", userId)
+        .build()
+        .toUriString();
+
+    return withSession(email, CalendisMetrics.ENDPOINT_DELETE_APPOINTMENT, null, null,
+        session -> SimpleRequestBuilder.delete(uri).build(),
+        response -> {
+          log.info("Appointment {} deletion requested for user_id={}", appointmentId, userId);
+          return null;
+        });
+  }
+
+  private CompletableFuture<Long> getAppointmentIdFromConfirmationPage(String email,
+      Integer locationId, Integer serviceId) {
+    return withSession(email, CalendisMetrics.ENDPOINT_CONFIRMATION_PAGE, locationId, serviceId,
+        session -> SimpleRequestBuilder.get(baseUrl + AppointmentService.CONFIRM_PAGE_PATH)
+            .build(),
+        response -> {
+          var html = response.getBodyText();
+          try {
+            var appointmentId = AppointmentIdScanner.scanHtml(new StringReader(html),
+                new StringBuilder());
+            return appointmentId.isPresent() ? appointmentId.getAsLong()
+                : AppointmentService.extractAppointmentId(html);
+          } catch (IOException e) {
+            throw new BookingException("Error extracting appointment ID from HTML", e);
+          }
+        });
+  }
+
+  /**
+   * Sends a request with the account's session and maps its response, timing each attempt. If
+   * Calendis rejects the session with 401, the account logs in again and the request is retried
+   * once. The request in flight is aborted when the returned future completes exceptionally.
+   */
+  private <T> CompletableFuture<T> withSession(String email, String endpoint, Integer locationId,
+      Integer serviceId, Function<AuthDto, SimpleHttpRequest> request,
+      Function<SimpleHttpResponse, T> mapper) {
+    var inFlight = new AtomicReference<CompletableFuture<SimpleHttpResponse>>();
+    Function<AuthDto, CompletableFuture<SimpleHttpResponse>> send = session ->
+        metrics.recordUpstreamAsync(endpoint, locationId, serviceId, () -> {
+          var call = request.apply(session);
+          call.setHeader(HttpHeaders.COOKIE, session.getCookieHeader());
+          var future = execute(call);
+          inFlight.set(future);
+          return future;
+        });
+
+    var result = new CompletableFuture<T>();
+
+    var rejected = new AtomicReference<AuthDto>();
+    currentSession(email)
+        .thenCompose(session -> {
+          rejected.set(session);
+          return send.apply(session);
+        })
+        .exceptionallyCompose(e -> {
+          if (unwrap(e) instanceof HttpClientErrorException.Unauthorized) {
+            log.warn("Session rejected for {}, logging in again",
+                email != null ? email : "the default account");
+            return relogin(email, rejected.get()).thenCompose(send);
+          }
+          return CompletableFuture.failedFuture(unwrap(e));
+        })
+        .thenApply(mapper)
+        .whenComplete((value, e) -> complete(result, value, e));
+
+    result.whenComplete((value, e) -> {
+      var future = inFlight.get();
+      if (e != null && future != null) {
+        future.cancel(true);
+      }
+    });
+    return result;
+  }
+
+  private CompletableFuture<AuthDto> currentSession(String email) {
+    try {
+      return CompletableFuture.completedFuture(authService.getAuthDto(email));
+    } catch (AuthenticationException e) {
+      return CompletableFuture.failedFuture(e);
+    }
+  }
+
+  /**
+   * Asynchronous {@link AuthService#relogin(String, AuthDto)}. Concurrent callers for the same
+   * account share the login in flight.
+   */
+  private CompletableFuture<AuthDto> relogin(String email, AuthDto rejected) {
+    Optional<LoginRequest> loginRequest;
+    try {
+      loginRequest = sessionRegistry.findCredentials(email);
+    } catch (AuthenticationException e) {
+      return CompletableFuture.failedFuture(e);
+    }
+    if (loginRequest.isEmpty()) {
+      return CompletableFuture.failedFuture(new AuthenticationException(
+          "Cannot re-authenticate " + (email != null ? email : "the default account")
+              + " without a previous login"));
+    }
+    var account = loginRequest.get().getEmail();
+
+    var pending = new CompletableFuture<AuthDto>();
+    var inFlight = relogins.putIfAbsent(account, pending);
+    if (inFlight != null) {
+      return inFlight;
+    }
+
+    // Checked once the login is claimed, so a login that just completed is not repeated
+    var current = sessionRegistry.find(account);
+    if (current.isPresent() && !AuthService.isSameSession(current.get(), rejected)) {
+      relogins.remove(account, pending);
+      pending.complete(current.get());
+      return pending;
+    }
+
+    sessionRegistry.remove(account, rejected);
+    login(loginRequest.get()).whenComplete((session, e) -> {
+      relogins.remove(account, pending);
+      if (e != null) {
+        pending.completeExceptionally(unwrap(e));
+      } else {
+        pending.complete(session);
+      }
+    });
+    return pending;
+  }
+
+
+  /**
+   * Executes a request on the async client. The future fails with the exceptions RestClient
+   * raises for error statuses and I/O errors, and cancelling it aborts the exchange.
+   */
+  private CompletableFuture<SimpleHttpResponse> execute(SimpleHttpRequest request) {
+    var future = new CompletableFuture<SimpleHttpResponse>();
+
+    var exchange = asyncHttpClient.execute(request, new FutureCallback<>() {
+      @Override
+      public void completed(SimpleHttpResponse encoded) {
+        SimpleHttpResponse response;
+        try {
+          response = decode(encoded);
+        } catch (IOException e) {
+          failed(e);
+          return;
+        }
+
+        if (response.getCode() >= 400) {
+          future.completeExceptionally(toException(response));
+        } else {
+          future.complete(response);
+        }
+      }
+
+      @Override
+      public void failed(Exception e) {
+        future.completeExceptionally(new ResourceAccessException(
+            "I/O error on " + request.getMethod() + " request for \"" + request.getRequestUri()
+                + "\": " + e.getMessage(), e instanceof IOException io ? io : new IOException(e)));
+      }
+
+      @Override
+      public void cancelled() {
+        future.cancel(false);
+      }
+    });
+
+    future.orTimeout(httpClientConfig.getAsync().getRequestTimeout().toMillis(),
+        TimeUnit.MILLISECONDS);
+    future.whenComplete((response, e) -> {
+      if (e != null) {
+        exchange.cancel(true);
+      }
+    });
+    return future;
+  }
+
+  /**
+   * Inflates a gzip or deflate encoded body. Unlike the classic client, the async client does
+   * not decompress responses itself.
+   */
+  static SimpleHttpResponse decode(SimpleHttpResponse response) throws IOException {
+    var encoding = response.getFirstHeader(HttpHeaders.CONTENT_ENCODING);
+    var body = response.getBodyBytes();
+    if (encoding == null || body == null || body.length == 0) {
+      return response;
+    }
+
+    InputStream inflater = switch (encoding.getValue().trim().toLowerCase(Locale.ROOT)) {
+      case "gzip", "x-gzip" -> new GZIPInputStream(new ByteArrayInputStream(body));
+      case "deflate" -> new InflaterInputStream(new ByteArrayInputStream(body));
+      case "identity" -> null;
+      default -> throw new IOException("Unsupported content encoding: " + encoding.getValue());
+    };
+    if (inflater == null) {
+      return response;
+    }
+
+    byte[] inflated;
+    try (inflater) {
+      inflated = inflater.readAllBytes();
+    }
+
+    var decoded = new SimpleHttpResponse(response.getCode(), response.getReasonPhrase());
+    decoded.setVersion(response.getVersion());
+    for (var header : response.getHeaders()) {
+      if (!HttpHeaders.CONTENT_ENCODING.equalsIgnoreCase(header.getName())
+          && !HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(header.getName())) {
+        decoded.addHeader(header);
+      }
+    }
+    decoded.setBody(inflated, response.getContentType());
+    return decoded;
+  }
+
+  private RuntimeException toException(SimpleHttpResponse response) {
+    var status = HttpStatusCode.valueOf(response.getCode());
+    var body = response.getBodyBytes() != null ? response.getBodyBytes() : new byte[0];
+
+    return status.is4xxClientError()
+        ? HttpClientErrorException.create(status, response.getReasonPhrase(),
+        toHttpHeaders(response), body, StandardCharsets.UTF_8)
+        : HttpServerErrorException.create(status, response.getReasonPhrase(),
+            toHttpHeaders(response), body, StandardCharsets.UTF_8);
+  }
+
+  private static HttpHeaders toHttpHeaders(SimpleHttpResponse response) {
+    var httpHeaders = new HttpHeaders();
+    for (var header : response.getHeaders()) {
+      httpHeaders.add(header.getName(), header.getValue());
+    }
+    return httpHeaders;
+  }
+
+  private byte[] toJson(Object value) {
+    try {
+      return objectMapper.writeValueAsBytes(value);
+    } catch (JsonProcessingException e) {
+      throw new IllegalArgumentException("Cannot serialize request body", e);
+    }
+  }
+
+  private <T> T fromJson(SimpleHttpResponse response, Class<T> type) {
+    try {
+      return objectMapper.readValue(response.getBodyBytes(), type);
+    } catch (IOException e) {
+      throw new BookingException("Cannot read " + type.getSimpleName() + " from response", e);
+    }
+  }
+
+  private static <T> void complete(CompletableFuture<T> result, T value, Throwable e) {
+    if (e == null) {
+      result.complete(value);
+    } else {
+      result.completeExceptionally(unwrap(e));
+    }
+  }
+
+  private static Throwable unwrap(Throwable e) {
+    return e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+  }
+}
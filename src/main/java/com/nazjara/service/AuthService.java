@@ -1,9 +1,18 @@
 package com.nazjara.service;
 
-import com.nazjara.config.BrowserHeadersHolder;
+import com.nazjara.config.SessionConfig;
 import com.nazjara.dto.AuthDto;
 import com.nazjara.exception.AuthenticationException;
 import com.nazjara.model.request.LoginRequest;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpHeaders;
@@ -16,16 +25,21 @@ import org.springframework.web.client.RestClient;
 @RequiredArgsConstructor
 public class AuthService {
 
-  private static final String LOGIN_PATH = "/api/login";
+  static final String LOGIN_PATH = "/api/login";
   private static final String CLIENT_SESSION_COOKIE = "client_session";
+  private static final String MAX_AGE_ATTRIBUTE = "max-age=";
+  private static final String EXPIRES_ATTRIBUTE = "expires=";
+  private static final String COOKIE_HEADER_PREFIX = "cookie_message=0; client_session=";
 
   private final RestClient restClient;
-  private final BrowserHeadersHolder headersHolder;
+  private final SessionRegistry sessionRegistry;
+  private final SessionConfig sessionConfig;
+  private final CalendisMetrics metrics;
 
-  private AuthDto authDto;
+  private final Map<String, ReentrantLock> loginLocks = new ConcurrentHashMap<>();
 
   /**
-   * Authenticates a user with the Calendis API and stores the session token.
+   * Authenticates a user with the Calendis API and stores the session token for that account.
    *
    * @param loginRequest the login request containing email, password, and remember flag
    * @return the authentication details including the session token
@@ -34,16 +48,31 @@ public class AuthService {
   public AuthDto login(LoginRequest loginRequest) {
     log.info("Attempting to login with email: {}", loginRequest.getEmail());
 
-    var response = restClient.post()
-        .uri(LOGIN_PATH)
-        .headers(httpHeaders -> headersHolder.getHeaders().forEach(httpHeaders::add))
-        .contentType(MediaType.APPLICATION_JSON)
-        .body(loginRequest)
-        .retrieve()
-        .toBodilessEntity();
+    var issuedAt = Instant.now();
+    var response = metrics.recordUpstream(CalendisMetrics.ENDPOINT_LOGIN, null, null,
+        () -> restClient.post()
+            .uri(LOGIN_PATH)
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(loginRequest)
+            .retrieve()
+            .toBodilessEntity());
 
-    var cookies = response.getHeaders().get(HttpHeaders.SET_COOKIE);
+    return registerSession(loginRequest, response.getHeaders().get(HttpHeaders.SET_COOKIE),
+        issuedAt);
+  }
 
+  /**
+   * Extracts the session from the {@code Set-Cookie} headers of a login response and stores it
+   * for the account. Shared by the blocking and the asynchronous login.
+   *
+   * @param loginRequest the credentials the login was made with
+   * @param cookies      the {@code Set-Cookie} header values of the login response
+   * @param issuedAt     when the login request was sent
+   * @return the authentication details including the session token
+   * @throws AuthenticationException if the session token cannot be extracted
+   */
+  public AuthDto registerSession(LoginRequest loginRequest, List<String> cookies,
+      Instant issuedAt) {
     if (cookies == null || cookies.isEmpty()) {
       log.error("No cookies found in response");
       throw new AuthenticationException("No cookies found in response");
@@ -52,8 +81,15 @@ public class AuthService {
     for (var cookie : cookies) {
       if (cookie.contains(CLIENT_SESSION_COOKIE)) {
         var sessionValue = extractSessionValue(cookie);
-        authDto = new AuthDto(sessionValue);
-        log.info("Successfully logged in and obtained session: {}", sessionValue);
+        var authDto = AuthDto.builder()
+            .clientSession(sessionValue)
+            .cookieHeader(COOKIE_HEADER_PREFIX + sessionValue)
+            .issuedAt(issuedAt)
+            .expiresAt(extractExpiry(cookie, issuedAt))
+            .build();
+        sessionRegistry.register(loginRequest, authDto);
+        log.info("Successfully logged in and obtained session: {} (expires at {})", sessionValue,
+            authDto.getExpiresAt());
         return authDto;
       }
     }
@@ -63,16 +99,104 @@ public class AuthService {
   }
 
   /**
-   * Retrieves the current authentication details.
+   * Returns a cached session for the account if it stays valid for at least the configured refresh
+   * margin, otherwise logs in again. Concurrent callers for the same account share a single login.
+   *
+   * @param loginRequest the login request containing email, password, and remember flag
+   * @return the authentication details including the session token
+   * @throws AuthenticationException if a new login is needed and fails
+   */
+  public AuthDto getSession(LoginRequest loginRequest) {
+    return getSession(loginRequest, Instant.now().plus(sessionConfig.getRefreshMargin()));
+  }
+
+  /**
+   * Returns a cached session for the account if it is still valid at the given instant, otherwise
+   * logs in again. Concurrent callers for the same account share a single login.
    *
+   * @param loginRequest the login request containing email, password, and remember flag
+   * @param validUntil   the instant the returned session must still be valid at
    * @return the authentication details including the session token
-   * @throws AuthenticationException if the user is not authenticated (login has not been called)
+   * @throws AuthenticationException if a new login is needed and fails
    */
-  public AuthDto getAuthDto() {
-    if (authDto == null) {
-      throw new AuthenticationException("Not authenticated. Please login first.");
+  public AuthDto getSession(LoginRequest loginRequest, Instant validUntil) {
+    var email = loginRequest.getEmail();
+    var cached = sessionRegistry.find(email).filter(session -> session.isValidAt(validUntil));
+
+    if (cached.isPresent()) {
+      log.debug("Reusing cached session for email: {}", email);
+      return cached.get();
+    }
+
+    var lock = loginLock(email);
+    lock.lock();
+    try {
+      return sessionRegistry.find(email)
+          .filter(session -> session.isValidAt(validUntil))
+          .orElseGet(() -> login(loginRequest));
+    } finally {
+      lock.unlock();
     }
-    return authDto;
+  }
+
+  /**
+   * Replaces a session Calendis rejected before its advertised expiry by logging in again with the
+   * account's last known credentials. Concurrent callers rejected with the same session share a
+   * single login, and a caller whose session was already replaced gets the new one.
+   *
+   * @param email    the account email, or {@code null} for the default account
+   * @param rejected the session Calendis rejected, or {@code null} to log in again regardless
+   * @return the new authentication details
+   * @throws AuthenticationException if the account has never logged in or the login fails
+   */
+  public AuthDto relogin(String email, AuthDto rejected) {
+    var loginRequest = sessionRegistry.findCredentials(email)
+        .orElseThrow(() -> new AuthenticationException(
+            "Cannot re-authenticate " + (email != null ? email : "the default account")
+                + " without a previous login"));
+    var account = loginRequest.getEmail();
+
+    var lock = loginLock(account);
+    lock.lock();
+    try {
+      var current = sessionRegistry.find(account);
+      if (current.isPresent() && !isSameSession(current.get(), rejected)) {
+        log.debug("Session of {} was already re-created", account);
+        return current.get();
+      }
+
+      sessionRegistry.remove(account, rejected);
+      return login(loginRequest);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Whether two authentication details carry the same session token.
+   *
+   * @param session  a session, may be {@code null}
+   * @param rejected another session, may be {@code null}
+   * @return true if both are present and share the token
+   */
+  static boolean isSameSession(AuthDto session, AuthDto rejected) {
+    return session != null && rejected != null
+        && Objects.equals(session.getClientSession(), rejected.getClientSession());
+  }
+
+  /**
+   * Retrieves the authentication details of the given account.
+   *
+   * @param email the account email, or {@code null} for the default account
+   * @return the authentication details including the session token
+   * @throws AuthenticationException if the account is not authenticated (login has not been called)
+   */
+  public AuthDto getAuthDto(String email) {
+    return sessionRegistry.get(email);
+  }
+
+  private ReentrantLock loginLock(String email) {
+    return loginLocks.computeIfAbsent(email, key -> new ReentrantLock());
   }
 
   private String extractSessionValue(String cookie) {
@@ -88,4 +212,30 @@ public class AuthService {
     throw new AuthenticationException(
         "Failed to extract client_session value from cookie: " + cookie);
   }
-}
\ No newline at end of file
+
+  private Instant extractExpiry(String cookie, Instant issuedAt) {
+    Instant expires = null;
+
+    for (var part : cookie.split(";")) {
+      var trimmed = part.trim();
+      var lower = trimmed.toLowerCase();
+
+      try {
+        if (lower.startsWith(MAX_AGE_ATTRIBUTE)) {
+          // Max-Age takes precedence over Expires (RFC 6265, section 5.3)
+          var maxAge = Long.parseLong(trimmed.substring(MAX_AGE_ATTRIBUTE.length()).trim());
+          return issuedAt.plusSeconds(maxAge);
+        }
+
+        if (lower.startsWith(EXPIRES_ATTRIBUTE)) {
+          var value = trimmed.substring(EXPIRES_ATTRIBUTE.length()).trim().replace('-', ' ');
+          expires = ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant();
+        }
+      } catch (NumberFormatException | DateTimeParseException e) {
+        log.warn("Ignoring unparseable cookie attribute: {}", trimmed);
+      }
+    }
+
+    return expires != null ? expires : issuedAt.plus(sessionConfig.getDefaultTtl());
+  }
+}
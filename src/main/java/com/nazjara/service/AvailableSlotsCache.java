@@ -0,0 +1,104 @@
+package com.nazjara.service;
+
+import com.nazjara.model.response.AvailableSlotsResponse;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Short-lived in-memory cache of available slots responses. Identical queries made within the TTL
+ * are answered from memory, and concurrent identical queries that miss the cache share a single
+ * upstream request. Failed requests are not cached.
+ */
+@Slf4j
+@Component
+public class AvailableSlotsCache {
+
+  private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+
+  @Value("${calendis.appointment.slots-cache.ttl:PT2S}")
+  private Duration ttl;
+
+  @Value("${calendis.appointment.slots-cache.max-entries:1000}")
+  private int maxEntries;
+
+  /**
+   * Returns the cached response for the key, or loads it. If another thread is already loading
+   * the same key, waits for its result instead of issuing another request.
+   *
+   * @param key    the query identifying the response
+   * @param loader fetches the response from Calendis on a miss
+   * @return the available slots response
+   */
+  public AvailableSlotsResponse get(Key key, Supplier<AvailableSlotsResponse> loader) {
+    var now = System.nanoTime();
+    var candidate = new Entry(new CompletableFuture<>(), now);
+    var entry = entries.compute(key,
+        (k, existing) -> existing != null && existing.isUsable(now, ttl) ? existing : candidate);
+
+    if (entry == candidate) {
+      evictIfFull();
+      load(key, candidate, loader);
+    } else {
+      log.debug("Serving available slots for {} from cache", key);
+    }
+
+    try {
+      return entry.future().join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw e;
+    }
+  }
+
+  private void load(Key key, Entry entry, Supplier<AvailableSlotsResponse> loader) {
+    try {
+      entry.future().complete(loader.get());
+    } catch (RuntimeException e) {
+      entries.remove(key, entry);
+      entry.future().completeExceptionally(e);
+    }
+  }
+
+  private void evictIfFull() {
+    if (entries.size() <= maxEntries) {
+      return;
+    }
+
+    var now = System.nanoTime();
+    entries.entrySet().removeIf(e -> e.getValue().future().isDone()
+        && !e.getValue().isUsable(now, ttl));
+
+    while (entries.size() > maxEntries) {
+      var oldest = entries.entrySet().stream()
+          .filter(e -> e.getValue().future().isDone())
+          .min(Comparator.comparingLong(e -> e.getValue().createdAt()));
+
+      if (oldest.isEmpty()) {
+        // Only in-flight requests left, which must stay visible for coalescing
+        return;
+      }
+      entries.remove(oldest.get().getKey(), oldest.get().getValue());
+    }
+  }
+
+  public record Key(int serviceId, int locationId, int stuffId, long date, int dayOnly) {
+
+  }
+
+  private record Entry(CompletableFuture<AvailableSlotsResponse> future, long createdAt) {
+
+    boolean isUsable(long now, Duration ttl) {
+      return !future.isDone() || now - createdAt < ttl.toNanos();
+    }
+  }
+}
@@ -0,0 +1,134 @@
+package com.nazjara.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nazjara.model.request.CreateAppointmentRequest;
+import com.nazjara.model.response.AvailableSlotsResponse;
+import com.nazjara.util.DateTimeUtils;
+import com.nazjara.util.JsonTemplate;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Serializes create and confirm payloads ahead of a booking window. Booking then only patches the
+ * slot dependent values (staff ID, group ID, appointment ID and the confirmation timestamp) into
+ * pre-built bytes, so no request objects are built and no reflective serialization runs between
+ * finding a slot and confirming it.
+ */
+@Slf4j
+@Component
+public class BookingPayloads {
+
+  private static final String STAFF_ID = "__staff_id__";
+  private static final String GROUP_ID = "__group_id__";
+  private static final long APPOINTMENT_ID = Long.MIN_VALUE;
+  private static final long CONFIRMED_AT = Long.MIN_VALUE + 1;
+
+  private final ObjectMapper objectMapper;
+  private final JsonTemplate confirmTemplate;
+
+  public BookingPayloads(ObjectMapper objectMapper) {
+    this.objectMapper = objectMapper;
+
+    var request = AppointmentService.buildConfirmRequest(APPOINTMENT_ID);
+    request.getClients().getFirst().setDateUnix(CONFIRMED_AT);
+    this.confirmTemplate = JsonTemplate.compile(serialize(request),
+        String.valueOf(APPOINTMENT_ID), String.valueOf(CONFIRMED_AT));
+  }
+
+  /**
+   * Serializes the create payloads of a job's candidate slot times.
+   *
+   * @param locationId the location of the job
+   * @param serviceId  the service of the job
+   * @param slotTimes  the candidate slot times, in epoch seconds
+   * @return the primed payloads
+   */
+  public Primed prime(int locationId, int serviceId, long... slotTimes) {
+    var templates = new HashMap<Long, JsonTemplate>();
+    for (var slotTime : slotTimes) {
+      templates.put(slotTime, createTemplate(locationId, serviceId, slotTime));
+    }
+    return new Primed(locationId, serviceId, templates);
+  }
+
+  /**
+   * Renders the confirm payload of an appointment, timestamped now.
+   *
+   * @param appointmentId the appointment ID
+   * @return the serialized {@code ConfirmAppointmentRequest}
+   */
+  public byte[] confirm(long appointmentId) {
+    return confirmTemplate.render(JsonTemplate.number(appointmentId),
+        JsonTemplate.number(System.currentTimeMillis() / 1000));
+  }
+
+  /**
+   * Create payloads of one job run, keyed by slot time.
+   */
+  public final class Primed {
+
+    private final int locationId;
+    private final int serviceId;
+    private final Map<Long, JsonTemplate> templates;
+
+    private Primed(int locationId, int serviceId, Map<Long, JsonTemplate> templates) {
+      this.locationId = locationId;
+      this.serviceId = serviceId;
+      this.templates = templates;
+    }
+
+    /**
+     * Renders the create payload of a slot. A slot time that was not primed is serialized on
+     * demand.
+     *
+     * @param slot the slot to book
+     * @return the serialized {@code CreateAppointmentRequest}
+     */
+    public byte[] create(AvailableSlotsResponse.Slot slot) {
+      var template = templates.get(slot.getTime());
+      if (template == null) {
+        log.debug("No primed payload for slot time {}, serializing it now", slot.getTime());
+        template = createTemplate(locationId, serviceId, slot.getTime());
+      }
+      return template.render(JsonTemplate.string(slot.getStaffId()),
+          JsonTemplate.string(slot.getGroupId()));
+    }
+  }
+
+  private JsonTemplate createTemplate(int locationId, int serviceId, long slotTime) {
+    var appointment = CreateAppointmentRequest.Appointment.builder()
+        .dateUnix(slotTime)
+        .dateUtcUnix(
+            DateTimeUtils.convertTimestamp(slotTime, DateTimeUtils.ROMANIA_TIMEZONE, "UTC"))
+        .locationId(locationId)
+        .serviceId(serviceId)
+        .staffId(STAFF_ID)
+        .startTime(LocalTime.ofInstant(Instant.ofEpochSecond(slotTime),
+            DateTimeUtils.ROMANIA_ZONE)
+            .format(DateTimeUtils.TIME_FORMATTER))
+        .originalSlot(0)
+        .build();
+
+    var request = CreateAppointmentRequest.builder()
+        .appointments(Collections.singletonList(appointment))
+        .groupId(GROUP_ID)
+        .build();
+
+    return JsonTemplate.compile(serialize(request), "\"" + STAFF_ID + "\"",
+        "\"" + GROUP_ID + "\"");
+  }
+
+  private byte[] serialize(Object request) {
+    try {
+      return objectMapper.writeValueAsBytes(request);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Cannot serialize booking payload", e);
+    }
+  }
+}
@@ -0,0 +1,183 @@
+package com.nazjara.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientResponseException;
+
+/**
+ * Micrometer instrumentation of upstream Calendis calls and of the booking scheduler. Upstream
+ * timers publish percentile histograms, so latency quantiles can be derived per endpoint,
+ * location, service and outcome from the Prometheus endpoint.
+ */
+@Component
+@RequiredArgsConstructor
+public class CalendisMetrics {
+
+  public static final String ENDPOINT_LOGIN = "login";
+  public static final String ENDPOINT_AVAILABLE_SLOTS = "get_available_slots";
+  public static final String ENDPOINT_CREATE_APPOINTMENT = "create_appointment";
+  public static final String ENDPOINT_CONFIRMATION_PAGE = "confirmation_page";
+  public static final String ENDPOINT_CONFIRM_APPOINTMENT = "confirm_appointment";
+  public static final String ENDPOINT_DELETE_APPOINTMENT = "delete_appointment";
+
+  private static final String UPSTREAM_REQUESTS = "calendis.upstream.requests";
+  private static final String POLLS = "calendis.scheduler.polls";
+  private static final String RETRIES = "calendis.scheduler.retries";
+  private static final String THROTTLES = "calendis.scheduler.throttles";
+  private static final String BOOKINGS = "calendis.scheduler.bookings";
+  private static final String NONE = "none";
+
+  private final MeterRegistry meterRegistry;
+
+  /**
+   * Times an upstream call and records it with its outcome, {@code success} or the kind of
+   * failure. Exceptions are rethrown unchanged.
+   *
+   * @param endpoint   the upstream endpoint, one of the {@code ENDPOINT_*} constants
+   * @param locationId the location the call concerns, or {@code null} if none
+   * @param serviceId  the service the call concerns, or {@code null} if none
+   * @param call       the upstream call
+   * @return the result of the call
+   */
+  public <T> T recordUpstream(String endpoint, Integer locationId, Integer serviceId,
+      Supplier<T> call) {
+    var sample = Timer.start(meterRegistry);
+    var outcome = "success";
+
+    try {
+      return call.get();
+    } catch (RuntimeException e) {
+      outcome = outcome(e);
+      throw e;
+    } finally {
+      sample.stop(upstreamTimer(endpoint, locationId, serviceId, outcome));
+    }
+  }
+
+  /**
+   * Times an asynchronous upstream call until its future completes, recording it like
+   * {@link #recordUpstream(String, Integer, Integer, Supplier)}.
+   *
+   * @param endpoint   the upstream endpoint, one of the {@code ENDPOINT_*} constants
+   * @param locationId the location the call concerns, or {@code null} if none
+   * @param serviceId  the service the call concerns, or {@code null} if none
+   * @param call       starts the upstream call
+   * @return the future of the call
+   */
+  public <T> CompletableFuture<T> recordUpstreamAsync(String endpoint, Integer locationId,
+      Integer serviceId, Supplier<CompletableFuture<T>> call) {
+    var sample = Timer.start(meterRegistry);
+
+    CompletableFuture<T> future;
+    try {
+      future = call.get();
+    } catch (RuntimeException e) {
+      future = CompletableFuture.failedFuture(e);
+    }
+
+    return future.whenComplete((result, e) -> sample.stop(upstreamTimer(endpoint, locationId,
+        serviceId, e == null ? "success" : outcome(e instanceof CompletionException
+            && e.getCause() != null ? e.getCause() : e))));
+  }
+
+  /**
+   * Counts an availability poll of a booking job.
+   *
+   * @param job   the job name
+   * @param phase {@code burst} for polls of the release burst, {@code regular} otherwise
+   */
+  public void poll(String job, String phase) {
+    Counter.builder(POLLS)
+        .description("Availability polls made by booking jobs")
+        .tag("job", job)
+        .tag("phase", phase)
+        .register(meterRegistry)
+        .increment();
+  }
+
+  /**
+   * Counts a retry of a booking job after a failed attempt.
+   *
+   * @param job the job name
+   */
+  public void retry(String job) {
+    Counter.builder(RETRIES)
+        .description("Booking job retries after a failed attempt")
+        .tag("job", job)
+        .register(meterRegistry)
+        .increment();
+  }
+
+  /**
+   * Counts an availability poll of a booking job that Calendis throttled.
+   *
+   * @param job the job name
+   */
+  public void throttle(String job) {
+    Counter.builder(THROTTLES)
+        .description("Availability polls of booking jobs throttled by Calendis")
+        .tag("job", job)
+        .register(meterRegistry)
+        .increment();
+  }
+
+  /**
+   * Counts the final outcome of a booking job run.
+   *
+   * @param job     the job name
+   * @param outcome the outcome, e.g. {@code booked} or {@code not_found}
+   */
+  public void booking(String job, String outcome) {
+    Counter.builder(BOOKINGS)
+        .description("Outcomes of booking job runs")
+        .tag("job", job)
+        .tag("outcome", outcome)
+        .register(meterRegistry)
+        .increment();
+  }
+
+  private Timer upstreamTimer(String endpoint, Integer locationId, Integer serviceId,
+      String outcome) {
+    return Timer.builder(UPSTREAM_REQUESTS)
+        .description("Latency of requests to the Calendis API")
+        .tag("endpoint", endpoint)
+        .tag("location", tagValue(locationId))
+        .tag("service", tagValue(serviceId))
+        .tag("outcome", outcome)
+        .publishPercentileHistogram()
+        .register(meterRegistry);
+  }
+
+  private static String outcome(Throwable e) {
+    if (e instanceof RestClientResponseException responseException) {
+      var status = responseException.getStatusCode();
+      if (status.value() == 401) {
+        return "unauthorized";
+      }
+      if (status.value() == 429) {
+        return "throttled";
+      }
+      return status.is4xxClientError() ? "client_error" : "server_error";
+    }
+    if (e instanceof TimeoutException) {
+      return "timeout";
+    }
+    if (e instanceof CancellationException) {
+      return "cancelled";
+    }
+    return e instanceof ResourceAccessException ? "io_error" : "error";
+  }
+
+  private static String tagValue(Integer id) {
+    return id != null ? String.valueOf(id) : NONE;
+  }
+}
@@ -0,0 +1,81 @@
+package com.nazjara.service;
+
+import com.nazjara.config.HttpClientConfig;
+import java.time.Instant;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClient;
+
+/**
+ * Opens connections to the Calendis API ahead of a booking window and keeps them alive, so the
+ * first availability poll after a job fires does not pay for DNS, TCP and TLS setup.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ConnectionWarmupService {
+
+  private static final String WARMUP_PATH = "/";
+
+  private final RestClient restClient;
+  private final HttpClientConfig httpClientConfig;
+
+  private final AtomicReference<Instant> warmUntil = new AtomicReference<>(Instant.MIN);
+  private final AtomicBoolean running = new AtomicBoolean();
+
+  /**
+   * Keeps the configured number of pooled connections open until the given instant. Calls made
+   * while a warm-up loop is already running only extend its deadline.
+   *
+   * @param until the instant connections must be kept warm until
+   */
+  @Async
+  public void keepWarmUntil(Instant until) {
+    warmUntil.accumulateAndGet(until, (current, next) -> current.isAfter(next) ? current : next);
+
+    while (Instant.now().isBefore(warmUntil.get()) && running.compareAndSet(false, true)) {
+      try {
+        log.info("Keeping {} connections warm until {}",
+            httpClientConfig.getWarmup().getConnections(), warmUntil.get());
+
+        while (Instant.now().isBefore(warmUntil.get())) {
+          warmUp();
+          Thread.sleep(httpClientConfig.getWarmup().getInterval().toMillis());
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        log.info("Connection warm-up interrupted, stopping.");
+        return;
+      } finally {
+        running.set(false);
+      }
+    }
+  }
+
+  /**
+   * Issues one lightweight request per configured connection in parallel, which either opens new
+   * pooled connections or refreshes the idle timer of existing ones.
+   */
+  public void warmUp() {
+    try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      for (int i = 0; i < httpClientConfig.getWarmup().getConnections(); i++) {
+        executor.submit(this::ping);
+      }
+    }
+  }
+
+  private void ping() {
+    try {
+      restClient.head()
+          .uri(WARMUP_PATH)
+          .exchange((request, response) -> response.getStatusCode());
+    } catch (Exception e) {
+      log.debug("Warm-up request failed: {}", e.getMessage());
+    }
+  }
+}
@@ -0,0 +1,115 @@
+package com.nazjara.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClient;
+
+/**
+ * Estimates the offset between the local clock and the Calendis server clock from the {@code Date}
+ * response header, so release instants expressed in server time can be hit precisely. Measuring
+ * takes about a second, so it is done ahead of a booking window by
+ * {@code BookingWindowPreparer}; jobs only read the last measured offset.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ServerClock {
+
+  private static final String CLOCK_PATH = "/";
+  private static final long DATE_RESOLUTION_MILLIS = 1000;
+
+  private final RestClient restClient;
+
+  private volatile Duration offset = Duration.ZERO;
+  private volatile Instant synchronizedAt;
+
+  /**
+   * Measures the server clock offset and keeps it for {@link #toLocal(Instant)}. A measurement
+   * without any sample keeps the previous offset.
+   *
+   * @param samples the number of requests to sample
+   * @return the offset now in use
+   */
+  public Duration synchronize(int samples) {
+    measureOffset(samples).ifPresent(measured -> {
+      offset = measured;
+      synchronizedAt = Instant.now();
+    });
+    return offset;
+  }
+
+  /**
+   * @return when the offset was last measured, if it ever was
+   */
+  public Optional<Instant> synchronizedAt() {
+    return Optional.ofNullable(synchronizedAt);
+  }
+
+  /**
+   * Converts an instant of the server clock to the local clock, using the last measured offset.
+   *
+   * @param serverInstant the instant on the server clock
+   * @return the same instant on the local clock
+   */
+  public Instant toLocal(Instant serverInstant) {
+    return serverInstant.minus(offset);
+  }
+
+  /**
+   * Measures the server clock offset. The {@code Date} header only has second resolution, so each
+   * sample bounds the offset to an interval of one second plus the round trip. Samples are spread
+   * across a second so that intersecting their intervals narrows the estimate well below that.
+   *
+   * @param samples the number of requests to sample
+   * @return the estimated offset, positive when the server clock is ahead of the local one; empty
+   *     if no sample could be taken
+   */
+  Optional<Duration> measureOffset(int samples) {
+    var lower = Long.MIN_VALUE;
+    var upper = Long.MAX_VALUE;
+    var midpointSum = 0L;
+    var taken = 0;
+
+    for (int i = 0; i < samples; i++) {
+      try {
+        var sent = System.currentTimeMillis();
+        var serverDate = restClient.head()
+            .uri(CLOCK_PATH)
+            .exchange((request, response) -> response.getHeaders().getDate());
+        var received = System.currentTimeMillis();
+
+        if (serverDate > 0) {
+          // The server stamped the response at some point in [serverDate, serverDate + 1s),
+          // which happened locally somewhere in [sent, received]
+          lower = Math.max(lower, serverDate - received);
+          upper = Math.min(upper, serverDate + DATE_RESOLUTION_MILLIS - sent);
+          midpointSum += serverDate + DATE_RESOLUTION_MILLIS / 2 - (sent + received) / 2;
+          taken++;
+        }
+
+        if (i < samples - 1) {
+          Thread.sleep(DATE_RESOLUTION_MILLIS / samples + 7);
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        break;
+      } catch (Exception e) {
+        log.debug("Clock sample failed: {}", e.getMessage());
+      }
+    }
+
+    if (taken == 0) {
+      log.warn("Could not sample the server clock, keeping offset of {} ms", offset.toMillis());
+      return Optional.empty();
+    }
+
+    var estimate = lower <= upper ? (lower + upper) / 2 : midpointSum / taken;
+    log.info("Server clock offset: {} ms (bounds [{}, {}] ms from {} samples)", estimate, lower,
+        upper, taken);
+    return Optional.of(Duration.ofMillis(estimate));
+  }
+}
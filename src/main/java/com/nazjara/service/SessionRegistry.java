@@ -0,0 +1,113 @@
+package com.nazjara.service;
+
+import com.nazjara.config.SessionConfig;
+import com.nazjara.dto.AuthDto;
+import com.nazjara.exception.AuthenticationException;
+import com.nazjara.model.request.LoginRequest;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+/**
+ * Thread-safe registry of Calendis sessions keyed by account email. Each account keeps its own
+ * {@code client_session}, so concurrent jobs running under different accounts never overwrite each
+ * other's session. The credentials used for the last login are kept alongside, so an expired or
+ * rejected session can be re-created without the caller having to supply them again.
+ *
+ * <p>Callers that do not name an account act on the one configured in
+ * {@code calendis.session.default-email}, never on whichever account logged in last, so a login
+ * by a scheduled job cannot redirect a request to another account.
+ */
+@Component
+@RequiredArgsConstructor
+public class SessionRegistry {
+
+  private final SessionConfig sessionConfig;
+
+  private final Map<String, AuthDto> sessions = new ConcurrentHashMap<>();
+  private final Map<String, LoginRequest> credentials = new ConcurrentHashMap<>();
+
+  /**
+   * Stores the session for the given account, replacing any previous one.
+   *
+   * @param loginRequest the credentials the session was obtained with
+   * @param authDto      the authentication details including the session token
+   */
+  public void register(LoginRequest loginRequest, AuthDto authDto) {
+    var email = loginRequest.getEmail();
+    credentials.put(email, loginRequest);
+    sessions.put(email, authDto);
+  }
+
+  /**
+   * Retrieves the session for the given account. When no email is provided, the session of the
+   * default account is returned.
+   *
+   * @param email the account email, or {@code null} for the default account
+   * @return the authentication details including the session token
+   * @throws AuthenticationException if the account is not authenticated, or no email is given and
+   *                                 no default account is configured
+   */
+  public AuthDto get(String email) {
+    var key = resolveEmail(email);
+    return find(key).orElseThrow(() -> new AuthenticationException(
+        "Not authenticated for " + key + ". Please login first."));
+  }
+
+  /**
+   * Looks up the session for the given account without failing when there is none.
+   *
+   * @param email the account email
+   * @return the session, if the account has logged in
+   */
+  public Optional<AuthDto> find(String email) {
+    return email != null ? Optional.ofNullable(sessions.get(email)) : Optional.empty();
+  }
+
+  /**
+   * Retrieves the credentials last used to log in the given account.
+   *
+   * @param email the account email, or {@code null} for the default account
+   * @return the login request, if the account has logged in
+   * @throws AuthenticationException if no email is given and no default account is configured
+   */
+  public Optional<LoginRequest> findCredentials(String email) {
+    return Optional.ofNullable(credentials.get(resolveEmail(email)));
+  }
+
+  /**
+   * Removes the session for the given account if it is still the given one, so a session another
+   * thread has just re-created is kept.
+   *
+   * @param email   the account email
+   * @param session the session to remove, or {@code null} to remove any
+   */
+  public void remove(String email, AuthDto session) {
+    if (session == null) {
+      sessions.remove(email);
+    } else {
+      sessions.remove(email, session);
+    }
+  }
+
+  /**
+   * Resolves the account a call acts on.
+   *
+   * @param email the account email, or {@code null} for the default account
+   * @return the account email
+   * @throws AuthenticationException if no email is given and no default account is configured
+   */
+  public String resolveEmail(String email) {
+    if (email != null) {
+      return email;
+    }
+    if (!StringUtils.hasText(sessionConfig.getDefaultEmail())) {
+      throw new AuthenticationException(
+          "No account given and no default account configured. Please pass an email.");
+    }
+    return sessionConfig.getDefaultEmail();
+  }
+}
@@ -0,0 +1,210 @@
+package com.nazjara.service;
+
+import com.nazjara.model.response.AvailableSlotsResponse;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Streams slot availability changes to server-sent event subscribers. All subscribers of the same
+ * query share one background poller, so N watchers cost one upstream request per interval. Each
+ * poll is compared with the previous snapshot and only slots that appeared, disappeared or changed
+ * are pushed, as a {@code changes} event. A subscriber first receives the full snapshot as a
+ * {@code snapshot} event. The poller stops when its last subscriber leaves.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SlotWatchService implements DisposableBean {
+
+  private static final String SNAPSHOT_EVENT = "snapshot";
+  private static final String CHANGES_EVENT = "changes";
+
+  private final AppointmentService appointmentService;
+  private final TaskScheduler taskScheduler;
+  private final Map<AvailableSlotsCache.Key, Watch> watches = new ConcurrentHashMap<>();
+
+  @Value("${calendis.appointment.watch.interval:PT5S}")
+  private Duration interval;
+
+  @Value("${calendis.appointment.watch.timeout:PT30M}")
+  private Duration timeout;
+
+  /**
+   * Subscribes to availability changes of a query, starting its poller if it is the first
+   * subscriber.
+   *
+   * @param email the account the poller queries with, or {@code null} for the default account;
+   *              a poller keeps the account of the subscriber that started it
+   * @param key   the query to watch
+   * @return the event stream
+   */
+  public SseEmitter subscribe(String email, AvailableSlotsCache.Key key) {
+    var emitter = new SseEmitter(timeout.toMillis());
+
+    var watch = watches.compute(key, (k, existing) -> {
+      var current = existing != null ? existing : startWatch(k, email);
+      current.subscribers.add(emitter);
+      return current;
+    });
+    log.info("New subscriber for {}, {} watching", key, watch.subscribers.size());
+
+    emitter.onCompletion(() -> unsubscribe(key, emitter));
+    emitter.onTimeout(emitter::complete);
+    emitter.onError(e -> unsubscribe(key, emitter));
+
+    var snapshot = watch.snapshot;
+    if (snapshot != null) {
+      send(key, emitter, SNAPSHOT_EVENT, List.copyOf(snapshot.values()));
+    }
+    return emitter;
+  }
+
+  @Override
+  public void destroy() {
+    watches.values().forEach(watch -> {
+      watch.poller.cancel(false);
+      watch.subscribers.forEach(SseEmitter::complete);
+    });
+    watches.clear();
+  }
+
+  private Watch startWatch(AvailableSlotsCache.Key key, String email) {
+    log.info("Starting availability poller for {} every {}", key, interval);
+
+    var watch = new Watch(key, email);
+    watch.poller = taskScheduler.scheduleWithFixedDelay(() -> poll(watch), interval);
+    return watch;
+  }
+
+  private void unsubscribe(AvailableSlotsCache.Key key, SseEmitter emitter) {
+    watches.computeIfPresent(key, (k, watch) -> {
+      watch.subscribers.remove(emitter);
+      if (!watch.subscribers.isEmpty()) {
+        return watch;
+      }
+
+      log.info("Last subscriber left, stopping availability poller for {}", key);
+      watch.poller.cancel(false);
+      return null;
+    });
+  }
+
+  private void poll(Watch watch) {
+    var key = watch.key;
+    AvailableSlotsResponse response;
+
+    try {
+      response = appointmentService.getCachedAvailableSlots(watch.email, key.serviceId(),
+          key.locationId(), key.stuffId(), key.date(), key.dayOnly());
+    } catch (Exception e) {
+      log.warn("Failed to poll available slots for {}: {}", key, e.getMessage());
+      return;
+    }
+
+    var current = index(response);
+    var previous = watch.snapshot;
+    watch.snapshot = current;
+
+    if (previous == null) {
+      broadcast(watch, SNAPSHOT_EVENT, List.copyOf(current.values()));
+      return;
+    }
+
+    var changes = diff(previous, current);
+    if (!changes.isEmpty()) {
+      log.debug("{} slots changed for {}", changes.size(), key);
+      broadcast(watch, CHANGES_EVENT, changes);
+    }
+  }
+
+  /**
+   * Slots that are new or whose availability or group changed, followed by slots that are gone,
+   * reported as unavailable.
+   */
+  static List<AvailableSlotsResponse.Slot> diff(
+      Map<SlotId, AvailableSlotsResponse.Slot> previous,
+      Map<SlotId, AvailableSlotsResponse.Slot> current) {
+    var changes = new ArrayList<AvailableSlotsResponse.Slot>();
+
+    current.forEach((id, slot) -> {
+      var before = previous.get(id);
+      if (before == null || before.getIsAvailable() != slot.getIsAvailable()
+          || !Objects.equals(before.getGroupId(), slot.getGroupId())) {
+        changes.add(slot);
+      }
+    });
+
+    previous.forEach((id, slot) -> {
+      if (!current.containsKey(id)) {
+        changes.add(AvailableSlotsResponse.Slot.builder()
+            .isAvailable(0)
+            .staffId(slot.getStaffId())
+            .time(slot.getTime())
+            .groupId(slot.getGroupId())
+            .build());
+      }
+    });
+
+    return changes;
+  }
+
+  static Map<SlotId, AvailableSlotsResponse.Slot> index(AvailableSlotsResponse response) {
+    var slots = new HashMap<SlotId, AvailableSlotsResponse.Slot>();
+    if (response != null && response.getAvailableSlots() != null) {
+      for (var slot : response.getAvailableSlots()) {
+        slots.put(new SlotId(slot.getTime(), slot.getStaffId()), slot);
+      }
+    }
+    return slots;
+  }
+
+  private void broadcast(Watch watch, String event, List<AvailableSlotsResponse.Slot> slots) {
+    for (var emitter : watch.subscribers) {
+      send(watch.key, emitter, event, slots);
+    }
+  }
+
+  private void send(AvailableSlotsCache.Key key, SseEmitter emitter, String event,
+      List<AvailableSlotsResponse.Slot> slots) {
+    try {
+      emitter.send(SseEmitter.event().name(event).data(slots));
+    } catch (IOException | IllegalStateException e) {
+      log.debug("Dropping subscriber of {}: {}", key, e.getMessage());
+      unsubscribe(key, emitter);
+      emitter.completeWithError(e);
+    }
+  }
+
+  private static final class Watch {
+
+    private final AvailableSlotsCache.Key key;
+    private final String email;
+    private final Set<SseEmitter> subscribers = ConcurrentHashMap.newKeySet();
+    private volatile Map<SlotId, AvailableSlotsResponse.Slot> snapshot;
+    private ScheduledFuture<?> poller;
+
+    private Watch(AvailableSlotsCache.Key key, String email) {
+      this.key = key;
+      this.email = email;
+    }
+  }
+
+  record SlotId(long time, String staffId) {
+
+  }
+}
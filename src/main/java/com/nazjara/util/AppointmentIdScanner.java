@@ -0,0 +1,98 @@
+package com.nazjara.util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.net.URI;
+import java.util.OptionalLong;
+import java.util.regex.Pattern;
+import lombok.experimental.UtilityClass;
+import org.springframework.http.HttpHeaders;
+
+/**
+ * Lightweight extraction of the appointment group ID without building a DOM, either from the
+ * create appointment response or by scanning the confirmation page as it streams in.
+ */
+@UtilityClass
+public class AppointmentIdScanner {
+
+  private static final String MARKER = "appointment_group_id";
+  private static final int CHUNK_SIZE = 8192;
+
+  private static final Pattern JSON_ID = Pattern.compile(
+      "\"" + MARKER + "\"\\s*:\\s*\"?(\\d+)");
+  private static final Pattern LOCATION_ID = Pattern.compile("/api/appointment/(\\d+)/?$");
+  private static final Pattern INPUT_ID = Pattern.compile(
+      "(?i)^<input\\b.*\\sid\\s*=\\s*[\"']?" + MARKER + "(?:[\"'\\s/>]|$)", Pattern.DOTALL);
+  private static final Pattern INPUT_VALUE = Pattern.compile(
+      "(?i)\\svalue\\s*=\\s*[\"']?(\\d+)");
+
+  /**
+   * Looks for the appointment group ID in the response to the create appointment request, in the
+   * {@code Location} header or an {@code appointment_group_id} field of the body.
+   *
+   * @param headers the response headers
+   * @param body    the response body, may be {@code null}
+   * @return the appointment group ID, if the response carries it
+   */
+  public OptionalLong fromCreateResponse(HttpHeaders headers, String body) {
+    var location = headers.getLocation();
+    if (location != null) {
+      var matcher = LOCATION_ID.matcher(URI.create("/").resolve(location).getPath());
+      if (matcher.find()) {
+        return OptionalLong.of(Long.parseLong(matcher.group(1)));
+      }
+    }
+
+    if (body != null && body.contains(MARKER)) {
+      var matcher = JSON_ID.matcher(body);
+      if (matcher.find()) {
+        return OptionalLong.of(Long.parseLong(matcher.group(1)));
+      }
+    }
+
+    return OptionalLong.empty();
+  }
+
+  /**
+   * Reads HTML until the {@code <input id="appointment_group_id">} element has been seen and
+   * returns its value, without reading the rest of the document.
+   *
+   * @param reader   the HTML source
+   * @param consumed receives everything read, so callers can fall back to a full parse
+   * @return the appointment group ID, or empty if the document ended without a match
+   * @throws IOException if reading fails
+   */
+  public OptionalLong scanHtml(Reader reader, StringBuilder consumed) throws IOException {
+    var buffer = new char[CHUNK_SIZE];
+    var searchFrom = 0;
+    int read;
+
+    while ((read = reader.read(buffer)) != -1) {
+      consumed.append(buffer, 0, read);
+
+      int markerIndex;
+      while ((markerIndex = consumed.indexOf(MARKER, searchFrom)) != -1) {
+        var tagStart = consumed.lastIndexOf("<", markerIndex);
+        var tagEnd = consumed.indexOf(">", markerIndex);
+
+        if (tagEnd == -1) {
+          // Tag continues in the next chunk
+          break;
+        }
+
+        searchFrom = markerIndex + MARKER.length();
+
+        if (tagStart != -1) {
+          var tag = consumed.substring(tagStart, tagEnd + 1);
+          if (INPUT_ID.matcher(tag).find()) {
+            var value = INPUT_VALUE.matcher(tag);
+            return value.find() ? OptionalLong.of(Long.parseLong(value.group(1)))
+                : OptionalLong.empty();
+          }
+        }
+      }
+    }
+
+    return OptionalLong.empty();
+  }
+}
@@ -0,0 +1,138 @@
+package com.nazjara.util;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.nazjara.model.response.AvailableSlotsResponse;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.experimental.UtilityClass;
+
+/**
+ * Token-level reader of {@code get_available_slots} responses. Unlike binding the whole
+ * {@link AvailableSlotsResponse}, it skips {@code service_details} and every other field it does
+ * not need without building objects for them, only passes on slots it keeps, and stops reading
+ * once the target slot is found available. Kept slots are either collected into
+ * {@link AvailableSlotsResponse.Slot} instances or handed field by field to a {@link SlotSink}.
+ */
+@UtilityClass
+public class AvailableSlotsParser {
+
+  private static final String AVAILABLE_SLOTS = "available_slots";
+  private static final String IS_AVAILABLE = "is_available";
+  private static final String STAFF_ID = "staff_id";
+  private static final String TIME = "time";
+  private static final String GROUP_ID = "group_id";
+
+  /**
+   * Receives the slots kept by {@link #parse(JsonParser, long, boolean, SlotSink)} field by field,
+   * so a caller can index them without an {@link AvailableSlotsResponse.Slot} per slot.
+   */
+  @FunctionalInterface
+  public interface SlotSink {
+
+    void accept(int isAvailable, String staffId, long time, String groupId);
+  }
+
+  /**
+   * Reads the available slots of a response, plus any slot at the target time whatever its
+   * availability, so its metadata can still be recorded. Optionally, reading stops right after an
+   * available slot at the target time.
+   *
+   * @param parser       the parser positioned before the response object
+   * @param targetTime   the timestamp of the slot of interest
+   * @param stopAtTarget whether to stop reading once the target slot is found available
+   * @return the kept slots, in response order
+   * @throws IOException if the response cannot be read or is not a JSON object
+   */
+  public List<AvailableSlotsResponse.Slot> parse(JsonParser parser, long targetTime,
+      boolean stopAtTarget) throws IOException {
+    var slots = new ArrayList<AvailableSlotsResponse.Slot>();
+    parse(parser, targetTime, stopAtTarget, (isAvailable, staffId, time, groupId) ->
+        slots.add(AvailableSlotsResponse.Slot.builder()
+            .isAvailable(isAvailable)
+            .staffId(staffId)
+            .time(time)
+            .groupId(groupId)
+            .build()));
+    return slots;
+  }
+
+  /**
+   * Reads the response like {@link #parse(JsonParser, long, boolean)}, handing each kept slot to
+   * the sink instead of collecting it.
+   *
+   * @param parser       the parser positioned before the response object
+   * @param targetTime   the timestamp of the slot of interest
+   * @param stopAtTarget whether to stop reading once the target slot is found available
+   * @param sink         receives the kept slots, in response order
+   * @return the number of kept slots
+   * @throws IOException if the response cannot be read or is not a JSON object
+   */
+  public int parse(JsonParser parser, long targetTime, boolean stopAtTarget, SlotSink sink)
+      throws IOException {
+    var kept = 0;
+
+    if (parser.nextToken() != JsonToken.START_OBJECT) {
+      throw new IOException("Expected a JSON object in available slots response");
+    }
+
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      var field = parser.currentName();
+      var token = parser.nextToken();
+
+      if (!AVAILABLE_SLOTS.equals(field) || token != JsonToken.START_ARRAY) {
+        parser.skipChildren();
+        continue;
+      }
+
+      while (parser.nextToken() == JsonToken.START_OBJECT) {
+        var slot = readSlot(parser, targetTime, sink);
+        if (slot != Kept.NO) {
+          kept++;
+        }
+        if (slot == Kept.TARGET && stopAtTarget) {
+          return kept;
+        }
+      }
+    }
+
+    return kept;
+  }
+
+  /**
+   * Reads one slot object and passes it to the sink if it is available or at the target time.
+   *
+   * @return whether the slot was kept, and whether it is the available target slot
+   */
+  private Kept readSlot(JsonParser parser, long targetTime, SlotSink sink) throws IOException {
+    var isAvailable = 0;
+    String staffId = null;
+    var time = 0L;
+    String groupId = null;
+
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      var field = parser.currentName();
+      parser.nextToken();
+
+      switch (field) {
+        case IS_AVAILABLE -> isAvailable = parser.getValueAsInt();
+        case STAFF_ID -> staffId = parser.getValueAsString();
+        case TIME -> time = parser.getValueAsLong();
+        case GROUP_ID -> groupId = parser.getValueAsString();
+        default -> parser.skipChildren();
+      }
+    }
+
+    if (isAvailable != 1 && time != targetTime) {
+      return Kept.NO;
+    }
+
+    sink.accept(isAvailable, staffId, time, groupId);
+    return isAvailable == 1 && time == targetTime ? Kept.TARGET : Kept.YES;
+  }
+
+  private enum Kept {
+    NO, YES, TARGET
+  }
+}
@@ -10,12 +10,26 @@ import lombok.experimental.UtilityClass;
 @UtilityClass
 public class DateTimeUtils {
 
+  /**
+   * Time zone of the Calendis locations, in which slot times and job schedules are expressed.
+   */
+  public static final String ROMANIA_TIMEZONE = "Europe/Bucharest";
+  public static final ZoneId ROMANIA_ZONE = ZoneId.of(ROMANIA_TIMEZONE);
+
+  /**
+   * Format of slot start times, e.g. {@code 21:30}.
+   */
+  public static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm");
+
   public long getFutureTimestamp(String zoneId, int daysAhead, String time) {
+    return getFutureTimestamp(ZoneId.of(zoneId), daysAhead, time);
+  }
+
+  public long getFutureTimestamp(ZoneId zoneId, int daysAhead, String time) {
     return LocalDate.now()
         .plusDays(daysAhead)
-        .atStartOfDay(ZoneId.of(zoneId))
-        .plusSeconds(time != null ?
-            LocalTime.parse(time, DateTimeFormatter.ofPattern("HH:mm")).toSecondOfDay() : 0)
+        .atStartOfDay(zoneId)
+        .plusSeconds(time != null ? LocalTime.parse(time, TIME_FORMATTER).toSecondOfDay() : 0)
         .toInstant()
         .getEpochSecond();
   }
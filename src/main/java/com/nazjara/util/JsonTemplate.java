@@ -0,0 +1,140 @@
+package com.nazjara.util;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.stream.IntStream;
+
+/**
+ * A JSON document serialized once with placeholder values. Rendering copies the pre-built bytes
+ * and splices literal values into the placeholder positions, without building or serializing an
+ * object graph.
+ */
+public final class JsonTemplate {
+
+  private static final byte[] NULL = "null".getBytes(StandardCharsets.US_ASCII);
+
+  private final byte[][] segments;
+  private final int[] order;
+  private final int fixedLength;
+
+  private JsonTemplate(byte[][] segments, int[] order) {
+    this.segments = segments;
+    this.order = order;
+    this.fixedLength = Arrays.stream(segments).mapToInt(segment -> segment.length).sum();
+  }
+
+  /**
+   * Compiles a template from a serialized document.
+   *
+   * @param json         the serialized document, containing each placeholder exactly once
+   * @param placeholders the placeholders as they appear in the document, e.g. {@code "\"__id__\""}
+   *                     for a string value, in the order their values are passed to
+   *                     {@link #render(byte[]...)}
+   * @return the template
+   * @throws IllegalArgumentException if a placeholder does not appear in the document
+   */
+  public static JsonTemplate compile(byte[] json, String... placeholders) {
+    var positions = new int[placeholders.length];
+    var lengths = new int[placeholders.length];
+
+    for (int i = 0; i < placeholders.length; i++) {
+      var placeholder = placeholders[i].getBytes(StandardCharsets.UTF_8);
+      positions[i] = indexOf(json, placeholder);
+      lengths[i] = placeholder.length;
+      if (positions[i] < 0) {
+        throw new IllegalArgumentException("Placeholder not found: " + placeholders[i]);
+      }
+    }
+
+    var order = IntStream.range(0, placeholders.length).boxed()
+        .sorted(Comparator.comparingInt(i -> positions[i]))
+        .mapToInt(Integer::intValue)
+        .toArray();
+
+    var segments = new byte[placeholders.length + 1][];
+    var start = 0;
+    for (int i = 0; i < order.length; i++) {
+      segments[i] = Arrays.copyOfRange(json, start, positions[order[i]]);
+      start = positions[order[i]] + lengths[order[i]];
+    }
+    segments[order.length] = Arrays.copyOfRange(json, start, json.length);
+
+    return new JsonTemplate(segments, order);
+  }
+
+  /**
+   * Renders the document with the given literal values in place of the placeholders.
+   *
+   * @param values the JSON literals, see {@link #string(String)} and {@link #number(long)}, in
+   *               placeholder order
+   * @return the rendered document
+   */
+  public byte[] render(byte[]... values) {
+    if (values.length != order.length) {
+      throw new IllegalArgumentException(
+          "Expected " + order.length + " values, got " + values.length);
+    }
+
+    var length = fixedLength;
+    for (var value : values) {
+      length += value.length;
+    }
+
+    var document = new byte[length];
+    var offset = 0;
+    for (int i = 0; i < order.length; i++) {
+      System.arraycopy(segments[i], 0, document, offset, segments[i].length);
+      offset += segments[i].length;
+      var value = values[order[i]];
+      System.arraycopy(value, 0, document, offset, value.length);
+      offset += value.length;
+    }
+    System.arraycopy(segments[order.length], 0, document, offset, segments[order.length].length);
+
+    return document;
+  }
+
+  /**
+   * Encodes a string as a quoted JSON literal.
+   *
+   * @param value the string, may be {@code null}
+   * @return the literal
+   */
+  public static byte[] string(String value) {
+    if (value == null) {
+      return NULL;
+    }
+
+    var escaped = JsonStringEncoder.getInstance().quoteAsUTF8(value);
+    var literal = new byte[escaped.length + 2];
+    literal[0] = '"';
+    System.arraycopy(escaped, 0, literal, 1, escaped.length);
+    literal[literal.length - 1] = '"';
+    return literal;
+  }
+
+  /**
+   * Encodes a number as a JSON literal.
+   *
+   * @param value the number
+   * @return the literal
+   */
+  public static byte[] number(long value) {
+    return Long.toString(value).getBytes(StandardCharsets.US_ASCII);
+  }
+
+  private static int indexOf(byte[] data, byte[] pattern) {
+    outer:
+    for (int i = 0; i <= data.length - pattern.length; i++) {
+      for (int j = 0; j < pattern.length; j++) {
+        if (data[i + j] != pattern[j]) {
+          continue outer;
+        }
+      }
+      return i;
+    }
+    return -1;
+  }
+}
@@ -0,0 +1,46 @@
+package com.nazjara.util;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.locks.LockSupport;
+import lombok.experimental.UtilityClass;
+
+@UtilityClass
+public class ReleaseTimer {
+
+  /**
+   * Blocks until the given instant with sub-millisecond precision. Sleeps coarsely while the
+   * instant is far away, parks for the last {@code parkThreshold} and busy-spins for the final
+   * {@code spinThreshold}, so the thread wakes up neither early nor a scheduler tick late.
+   *
+   * @param target        the instant to wait for
+   * @param parkThreshold remaining time below which the thread parks instead of sleeping
+   * @param spinThreshold remaining time below which the thread busy-spins
+   * @throws InterruptedException if the thread is interrupted while waiting
+   */
+  public void awaitInstant(Instant target, Duration parkThreshold, Duration spinThreshold)
+      throws InterruptedException {
+    var parkNanos = parkThreshold.toNanos();
+    var spinNanos = spinThreshold.toNanos();
+
+    while (true) {
+      var remaining = Duration.between(Instant.now(), target).toNanos();
+
+      if (remaining <= 0) {
+        return;
+      }
+
+      if (remaining > parkNanos) {
+        Thread.sleep((remaining - parkNanos) / 1_000_000);
+      } else if (remaining > spinNanos) {
+        LockSupport.parkNanos(remaining - spinNanos);
+      } else {
+        Thread.onSpinWait();
+      }
+
+      if (Thread.interrupted()) {
+        throw new InterruptedException("Interrupted while waiting for " + target);
+      }
+    }
+  }
+}
@@ -0,0 +1,43 @@
+package com.nazjara.util;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Optional;
+import lombok.experimental.UtilityClass;
+import org.springframework.http.HttpHeaders;
+
+@UtilityClass
+public class RetryAfter {
+
+  /**
+   * Reads the {@code Retry-After} header of a response, given either as a number of seconds or as
+   * an HTTP date.
+   *
+   * @param headers the response headers, may be {@code null}
+   * @param now     the current instant, to turn an HTTP date into a delay
+   * @return the delay the server asks for, or empty if the header is absent or malformed
+   */
+  public Optional<Duration> from(HttpHeaders headers, Instant now) {
+    var value = headers != null ? headers.getFirst(HttpHeaders.RETRY_AFTER) : null;
+    if (value == null || value.isBlank()) {
+      return Optional.empty();
+    }
+
+    value = value.trim();
+    try {
+      return Optional.of(Duration.ofSeconds(Math.max(0, Long.parseLong(value))));
+    } catch (NumberFormatException e) {
+      // Not delay-seconds, try the HTTP date form
+    }
+
+    try {
+      var retryAt = ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant();
+      return Optional.of(retryAt.isAfter(now) ? Duration.between(now, retryAt) : Duration.ZERO);
+    } catch (DateTimeParseException e) {
+      return Optional.empty();
+    }
+  }
+}
@@ -0,0 +1,92 @@
+package com.nazjara.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.headerDoesNotExist;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+import com.nazjara.dto.AuthDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestClient;
+
+/**
+ * Checks the headers of requests sent by a RestClient set up like {@link RestClientConfig}: the
+ * {@link BrowserHeadersHolder} defaults plus the {@link SessionCookieInterceptor}.
+ */
+class SessionCookieInterceptorTests {
+
+  private static final String COOKIE = "client_session=abc";
+
+  private final BrowserHeadersHolder headersHolder = new BrowserHeadersHolder();
+
+  private MockRestServiceServer server;
+  private RestClient restClient;
+
+  @BeforeEach
+  void setUp() {
+    var builder = RestClient.builder()
+        .baseUrl("https://www.calendis.ro")
+        .defaultHeaders(httpHeaders -> httpHeaders.addAll(headersHolder.getHeaders()))
+        .requestInterceptor(new SessionCookieInterceptor());
+    server = MockRestServiceServer.bindTo(builder).build();
+    restClient = builder.build();
+  }
+
+  @Test
+  void addsSessionCookieOfTheRequestAttribute() {
+    server.expect(requestTo("https://www.calendis.ro/api/get_available_slots"))
+        .andExpect(header(HttpHeaders.COOKIE, COOKIE))
+        .andRespond(withSuccess());
+
+    restClient.get()
+        .uri("/api/get_available_slots")
+        .attribute(SessionCookieInterceptor.SESSION_ATTRIBUTE,
+            AuthDto.builder().clientSession("abc").cookieHeader(COOKIE).build())
+        .retrieve()
+        .toBodilessEntity();
+
+    server.verify();
+  }
+
+  @Test
+  void sendsNoCookieWithoutSession() {
+    server.expect(requestTo("https://www.calendis.ro/api/login"))
+        .andExpect(headerDoesNotExist(HttpHeaders.COOKIE))
+        .andRespond(withSuccess());
+
+    restClient.post().uri("/api/login").retrieve().toBodilessEntity();
+
+    server.verify();
+  }
+
+  @Test
+  void sendsEachBrowserHeaderOnce() {
+    server.expect(requestTo("https://www.calendis.ro/api/login"))
+        .andExpect(header(HttpHeaders.USER_AGENT,
+            headersHolder.getHeaders().getFirst(HttpHeaders.USER_AGENT)))
+        .andExpect(header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate, br, zstd"))
+        .andExpect(header(HttpHeaders.ORIGIN, "https://www.calendis.ro"))
+        .andExpect(header("Sec-Fetch-Mode", "cors"))
+        .andRespond(withSuccess());
+    server.expect(requestTo("https://www.calendis.ro/api/login"))
+        .andExpect(request -> assertThat(request.getHeaders().get(HttpHeaders.ORIGIN))
+            .containsExactly("https://www.calendis.ro"))
+        .andRespond(withSuccess());
+
+    restClient.post().uri("/api/login").retrieve().toBodilessEntity();
+    restClient.post().uri("/api/login").retrieve().toBodilessEntity();
+
+    server.verify();
+  }
+
+  @Test
+  void keepsBrowserHeadersReadOnly() {
+    assertThatThrownBy(() -> headersHolder.getHeaders().set(HttpHeaders.COOKIE, COOKIE))
+        .isInstanceOf(UnsupportedOperationException.class);
+  }
+}
@@ -0,0 +1,80 @@
+package com.nazjara.scheduler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.mockito.Mockito.mock;
+
+import com.nazjara.config.SchedulerConfig;
+import com.nazjara.config.SchedulerConfig.JobConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.TaskScheduler;
+
+class BookingJobRegistryTests {
+
+  private SchedulerConfig schedulerConfig;
+  private BookingJobRegistry registry;
+
+  @BeforeEach
+  void setUp() {
+    schedulerConfig = new SchedulerConfig();
+    schedulerConfig.getEmail().setPrimary("primary@example.com");
+    schedulerConfig.getPassword().setPrimary("secret");
+    schedulerConfig.getEmail().setSecondary("secondary@example.com");
+    schedulerConfig.getPassword().setSecondary("secret");
+    registry = new BookingJobRegistry(mock(TaskScheduler.class),
+        mock(AppointmentScheduler.class), schedulerConfig);
+  }
+
+  @Test
+  void registersSingleBookingWithoutUserId() {
+    registry.register(job());
+
+    assertThat(registry.getJob("tennis")).isPresent();
+  }
+
+  @Test
+  void rejectsParallelBookingsWithoutUserId() {
+    var job = job();
+    job.setParallelBookings(2);
+
+    assertThatIllegalArgumentException().isThrownBy(() -> registry.register(job))
+        .withMessageContaining("calendis.scheduler.user-id.primary");
+
+    schedulerConfig.getUserId().setPrimary(7);
+    registry.register(job);
+    assertThat(registry.getJob("tennis")).isPresent();
+  }
+
+  @Test
+  void rejectsRaceWithoutUserIdOfEveryAccount() {
+    var job = job();
+    job.setRace(true);
+    schedulerConfig.getUserId().setPrimary(7);
+
+    assertThatIllegalArgumentException().isThrownBy(() -> registry.register(job))
+        .withMessageContaining("calendis.scheduler.user-id.secondary");
+
+    schedulerConfig.getUserId().setSecondary(8);
+    registry.register(job);
+    assertThat(registry.getJob("tennis")).isPresent();
+  }
+
+  @Test
+  void schedulesNoConfiguredJobsWhenDisabled() {
+    schedulerConfig.getJobs().add(job());
+    schedulerConfig.setEnabled(false);
+
+    registry.afterSingletonsInstantiated();
+
+    assertThat(registry.getJobs()).isEmpty();
+  }
+
+  private static JobConfig job() {
+    var job = new JobConfig();
+    job.setName("tennis");
+    job.setCronExpression("0 55 10 * * SAT");
+    job.setAppointmentTime("11:00");
+    return job;
+  }
+}
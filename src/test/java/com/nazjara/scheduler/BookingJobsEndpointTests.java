@@ -0,0 +1,70 @@
+package com.nazjara.scheduler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import com.nazjara.config.SchedulerConfig;
+import com.nazjara.exception.ErrorResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.scheduling.TaskScheduler;
+
+class BookingJobsEndpointTests {
+
+  private BookingJobRegistry registry;
+  private BookingJobsEndpoint endpoint;
+
+  @BeforeEach
+  void setUp() {
+    registry = new BookingJobRegistry(mock(TaskScheduler.class),
+        mock(AppointmentScheduler.class), new SchedulerConfig());
+    endpoint = new BookingJobsEndpoint(registry);
+  }
+
+  @Test
+  void registersValidJob() {
+    var response = register("tennis", "0 55 10 * * SAT", "primary", "11:00");
+
+    assertThat(response.getStatus()).isEqualTo(WebEndpointResponse.STATUS_OK);
+    assertThat(response.getBody()).isInstanceOf(BookingJobsEndpoint.JobView.class);
+    assertThat(registry.getJob("tennis")).isPresent();
+  }
+
+  @Test
+  void rejectsInvalidCronExpression() {
+    assertBadRequest(register("tennis", "every saturday", "primary", "11:00"),
+        "Invalid cron expression");
+  }
+
+  @Test
+  void rejectsUnknownAccount() {
+    assertBadRequest(register("tennis", "0 55 10 * * SAT", "tertiary", "11:00"),
+        "Unknown account");
+  }
+
+  @Test
+  void rejectsBlankName() {
+    assertBadRequest(register(" ", "0 55 10 * * SAT", "primary", "11:00"),
+        "Job name is required");
+  }
+
+  @Test
+  void rejectsInvalidAppointmentTime() {
+    assertBadRequest(register("tennis", "0 55 10 * * SAT", "primary", "11am"),
+        "Invalid appointment time");
+  }
+
+  private WebEndpointResponse<Object> register(String name, String cron, String account,
+      String appointmentTime) {
+    return endpoint.register(name, cron, 4609, 37695, appointmentTime, null, account, null, null,
+        null, null, null, null);
+  }
+
+  private void assertBadRequest(WebEndpointResponse<Object> response, String message) {
+    assertThat(response.getStatus()).isEqualTo(WebEndpointResponse.STATUS_BAD_REQUEST);
+    assertThat(response.getBody()).isInstanceOfSatisfying(ErrorResponse.class,
+        error -> assertThat(error.getMessage()).contains(message));
+    assertThat(registry.getJobs()).isEmpty();
+  }
+}
@@ -0,0 +1,197 @@
+package com.nazjara.scheduler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.nazjara.config.JournalConfig;
+import com.nazjara.scheduler.BookingJournal.Status;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class BookingJournalTests {
+
+  private static final String JOB = "tennis";
+  private static final long TARGET = 1_900_000_000L;
+  private static final String ACCOUNT = "primary";
+  private static final String OTHER_ACCOUNT = "secondary";
+
+  @TempDir
+  Path directory;
+
+  private JournalConfig journalConfig;
+  private BookingJournal journal;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    journalConfig = new JournalConfig();
+    journalConfig.setPath(directory.resolve("journal.log"));
+    journal = open();
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    journal.destroy();
+  }
+
+  @Test
+  void replaysRunsAfterRestart() throws IOException {
+    journal.attempted(JOB, TARGET, 1);
+    journal.created(JOB, TARGET, 42, ACCOUNT);
+    journal.attempted("squash", TARGET, 1);
+    journal.finished("squash", TARGET);
+
+    var state = restart().find(JOB, TARGET).orElseThrow();
+
+    assertThat(state.status()).isEqualTo(Status.CREATED);
+    assertThat(state.appointmentId()).isEqualTo(42);
+    assertThat(state.awaitsConfirmation()).isTrue();
+    assertThat(journal.isResumable(JOB, TARGET)).isTrue();
+    assertThat(journal.find("squash", TARGET).orElseThrow().status())
+        .isEqualTo(Status.FINISHED);
+  }
+
+  @Test
+  void keepsAppointmentIdOfLaterAttempts() throws IOException {
+    journal.attempted(JOB, TARGET, 1);
+    journal.created(JOB, TARGET, 42, ACCOUNT);
+    journal.attempted(JOB, TARGET, 2);
+
+    var state = restart().find(JOB, TARGET).orElseThrow();
+
+    assertThat(state.status()).isEqualTo(Status.ATTEMPTED);
+    assertThat(state.appointmentId()).isEqualTo(42);
+    assertThat(state.awaitsConfirmation()).isTrue();
+  }
+
+  @Test
+  void compactsToOneRecordPerCreatedAppointmentAndRun() throws IOException {
+    journal.attempted(JOB, TARGET, 1);
+    journal.attempted(JOB, TARGET, 2);
+    journal.created(JOB, TARGET, 42, ACCOUNT);
+    journal.created(JOB, TARGET, 43, ACCOUNT);
+    journal.confirmed(JOB, TARGET, 43);
+    journal.attempted("squash", TARGET, 1);
+
+    restart();
+
+    assertThat(Files.readAllLines(journalConfig.getPath(), StandardCharsets.UTF_8)).hasSize(4);
+    var state = restart().find(JOB, TARGET).orElseThrow();
+    assertThat(state.status()).isEqualTo(Status.CONFIRMED);
+    assertThat(state.appointmentId()).isEqualTo(43);
+    assertThat(state.created()).extracting(BookingJournal.Appointment::id)
+        .containsExactly(42L, 43L);
+  }
+
+  @Test
+  void skipsTruncatedLastLine() throws IOException {
+    journal.created(JOB, TARGET, 42, ACCOUNT);
+    journal.destroy();
+    Files.writeString(journalConfig.getPath(), "1700000000000\tCONFIR",
+        StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+    journal = open();
+
+    assertThat(journal.find(JOB, TARGET).orElseThrow().status()).isEqualTo(Status.CREATED);
+  }
+
+  @Test
+  void confirmedRunStaysConfirmed() throws IOException {
+    journal.created(JOB, TARGET, 42, ACCOUNT);
+    journal.confirmed(JOB, TARGET, 42);
+    journal.created(JOB, TARGET, 43, ACCOUNT);
+    journal.finished(JOB, TARGET);
+
+    var state = restart().find(JOB, TARGET).orElseThrow();
+
+    assertThat(state.status()).isEqualTo(Status.CONFIRMED);
+    assertThat(state.appointmentId()).isEqualTo(42);
+    assertThat(state.surplus()).containsExactly(new BookingJournal.Appointment(43, ACCOUNT));
+  }
+
+  @Test
+  void releasedAppointmentsAreNoLongerSurplus() throws IOException {
+    journal.created(JOB, TARGET, 42, ACCOUNT);
+    journal.created(JOB, TARGET, 43, OTHER_ACCOUNT);
+    journal.created(JOB, TARGET, 44, OTHER_ACCOUNT);
+    journal.confirmed(JOB, TARGET, 42);
+    journal.released(JOB, TARGET, 43);
+
+    assertThat(journal.isResumable(JOB, TARGET)).isTrue();
+
+    var state = restart().find(JOB, TARGET).orElseThrow();
+    assertThat(state.status()).isEqualTo(Status.CONFIRMED);
+    assertThat(state.accountOf(44)).contains(OTHER_ACCOUNT);
+    assertThat(state.surplus()).containsExactly(new BookingJournal.Appointment(44, OTHER_ACCOUNT));
+
+    journal.released(JOB, TARGET, 44);
+    assertThat(journal.isResumable(JOB, TARGET)).isFalse();
+  }
+
+  @Test
+  void replaysRecordsWithoutAccount() throws IOException {
+    journal.destroy();
+    var now = System.currentTimeMillis();
+    Files.writeString(journalConfig.getPath(), now + "\tCREATED\t" + TARGET + "\t42\t" + JOB
+        + "\n", StandardCharsets.UTF_8);
+
+    journal = open();
+
+    var state = journal.find(JOB, TARGET).orElseThrow();
+    assertThat(state.awaitsConfirmation()).isTrue();
+    assertThat(state.created()).containsExactly(new BookingJournal.Appointment(42, null));
+  }
+
+  @Test
+  void concurrentAppendsReplayToTheStateHeldInMemory() throws Exception {
+    var bookings = 64;
+    var start = new CountDownLatch(1);
+    var futures = new ArrayList<Future<?>>();
+
+    try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      LongStream.rangeClosed(1, bookings).forEach(id -> futures.add(executor.submit(() -> {
+        start.await();
+        journal.created(JOB, TARGET, id, ACCOUNT);
+        if (id == bookings / 2) {
+          journal.confirmed(JOB, TARGET, id);
+        }
+        return null;
+      })));
+      start.countDown();
+      for (var future : futures) {
+        future.get();
+      }
+    }
+
+    var inMemory = journal.find(JOB, TARGET).orElseThrow();
+    var replayed = restart().find(JOB, TARGET).orElseThrow();
+
+    assertThat(inMemory.status()).isEqualTo(Status.CONFIRMED);
+    assertThat(replayed.status()).isEqualTo(Status.CONFIRMED);
+    assertThat(replayed.appointmentId()).isEqualTo(bookings / 2);
+    assertThat(replayed.created()).containsExactlyElementsOf(inMemory.created());
+    assertThat(replayed.created()).hasSize(bookings);
+  }
+
+  private BookingJournal restart() throws IOException {
+    journal.destroy();
+    journal = open();
+    return journal;
+  }
+
+  private BookingJournal open() throws IOException {
+    var opened = new BookingJournal(journalConfig);
+    opened.afterPropertiesSet();
+    return opened;
+  }
+}
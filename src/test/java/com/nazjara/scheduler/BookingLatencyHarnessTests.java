@@ -0,0 +1,177 @@
+package com.nazjara.scheduler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.nazjara.config.SchedulerConfig;
+import com.nazjara.config.SchedulerConfig.JobConfig;
+import com.nazjara.stub.CalendisStub;
+import com.nazjara.util.DateTimeUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+/**
+ * Runs release-time booking jobs against {@link CalendisStub} and reports the time from slot
+ * release to confirmation. Only runs when {@code calendis.harness.runs} is set, e.g.
+ * {@code mvn test -Dtest=BookingLatencyHarnessTests -Dcalendis.harness.runs=50}. The stub is
+ * tuned with {@code calendis.harness.latency-ms}, {@code latency-jitter-ms}, {@code error-rate},
+ * {@code throttle-rate}, {@code contention} and {@code contention-delay-ms}.
+ */
+@Slf4j
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@EnabledIfSystemProperty(named = "calendis.harness.runs", matches = "\\d+")
+class BookingLatencyHarnessTests {
+
+  private static final String APPOINTMENT_TIME = "11:00";
+  private static final String STAFF_ID = "court-1";
+  private static final Duration RELEASE_LEAD = Duration.ofMillis(1500);
+  private static final Duration RUN_TIMEOUT = Duration.ofMinutes(2);
+  private static final String BOOKINGS = "calendis.scheduler.bookings";
+
+  private static CalendisStub stub;
+  private static Path journalDir;
+
+  @Autowired
+  private AppointmentScheduler appointmentScheduler;
+
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  @BeforeAll
+  static void startStub() throws IOException {
+    stub = CalendisStub.start(CalendisStub.Behavior.builder()
+        .latency(Duration.ofMillis(Long.getLong("calendis.harness.latency-ms", 40)))
+        .latencyJitter(Duration.ofMillis(Long.getLong("calendis.harness.latency-jitter-ms", 20)))
+        .errorRate(doubleProperty("calendis.harness.error-rate", 0.0))
+        .throttleRate(doubleProperty("calendis.harness.throttle-rate", 0.0))
+        .contention(doubleProperty("calendis.harness.contention", 0.0))
+        .contentionDelay(Duration.ofMillis(
+            Long.getLong("calendis.harness.contention-delay-ms", 150)))
+        .idInCreateResponse(Boolean.getBoolean("calendis.harness.id-in-create-response"))
+        .build());
+    journalDir = Files.createTempDirectory("booking-journal");
+  }
+
+  @AfterAll
+  static void stopStub() {
+    if (stub != null) {
+      stub.close();
+    }
+  }
+
+  @DynamicPropertySource
+  static void stubProperties(DynamicPropertyRegistry registry) {
+    registry.add("calendis.api.base-url", () -> stub.baseUrl());
+    registry.add("calendis.journal.path", () -> journalDir.resolve("journal.log").toString());
+    registry.add("calendis.journal.slot-metadata-path",
+        () -> journalDir.resolve("slot-metadata.tsv").toString());
+    registry.add("calendis.scheduler.email.primary", () -> "harness@example.com");
+    registry.add("calendis.scheduler.email.secondary", () -> "harness2@example.com");
+    registry.add("calendis.scheduler.password.primary", () -> "harness");
+    registry.add("calendis.scheduler.password.secondary", () -> "harness");
+    registry.add("calendis.http.warmup.enabled", () -> false);
+    registry.add("calendis.scheduler.polling.dense-interval", () -> "PT0.2S");
+    registry.add("calendis.scheduler.polling.dense-window", () -> "PT2S");
+    registry.add("calendis.scheduler.polling.search-timeout", () -> "PT10S");
+    registry.add("calendis.scheduler.retry.initial-delay", () -> "PT0.1S");
+    registry.add("calendis.scheduler.retry.max-delay", () -> "PT1S");
+  }
+
+  @Test
+  void measuresReleaseToConfirmationLatency() throws InterruptedException {
+    var runs = Integer.getInteger("calendis.harness.runs");
+    var latencies = new ArrayList<Long>();
+    Map<String, Integer> outcomes = new TreeMap<>();
+
+    for (int run = 0; run < runs; run++) {
+      var releaseAt = Instant.now().plus(RELEASE_LEAD).truncatedTo(ChronoUnit.MILLIS);
+      var job = job("harness-" + run, releaseAt);
+      stub.openSlot(DateTimeUtils.getFutureTimestamp(DateTimeUtils.ROMANIA_ZONE, 14,
+          APPOINTMENT_TIME), STAFF_ID, releaseAt);
+
+      appointmentScheduler.runJob(job);
+      var outcome = awaitOutcome(job.getName());
+      outcomes.merge(outcome, 1, Integer::sum);
+
+      var confirmedAt = stub.confirmation().getNow(null);
+      if (confirmedAt != null) {
+        latencies.add(Duration.between(releaseAt, confirmedAt).toMillis());
+      }
+    }
+
+    report(latencies, outcomes);
+    assertThat(outcomes.values().stream().mapToInt(Integer::intValue).sum()).isEqualTo(runs);
+    assertThat(outcomes).doesNotContainKey("timeout");
+  }
+
+  private static JobConfig job(String name, Instant releaseAt) {
+    var job = new JobConfig();
+    job.setName(name);
+    job.setEnabled(true);
+    job.setAccount(SchedulerConfig.PRIMARY_ACCOUNT);
+    job.setLocationId(4609);
+    job.setServiceId(37695);
+    job.setAppointmentTime(APPOINTMENT_TIME);
+    job.setReleaseTime(LocalTime.ofInstant(releaseAt, DateTimeUtils.ROMANIA_ZONE)
+        .toString());
+    return job;
+  }
+
+  /**
+   * Waits for the job to count its outcome, which it does exactly once at the end of its run.
+   */
+  private String awaitOutcome(String job) throws InterruptedException {
+    var deadline = Instant.now().plus(RUN_TIMEOUT);
+
+    while (Instant.now().isBefore(deadline)) {
+      for (var counter : meterRegistry.find(BOOKINGS).tag("job", job).counters()) {
+        if (counter.count() > 0) {
+          return counter.getId().getTag("outcome");
+        }
+      }
+      Thread.sleep(20);
+    }
+    return "timeout";
+  }
+
+  private static void report(List<Long> latencies, Map<String, Integer> outcomes) {
+    log.info("Outcomes: {}", outcomes);
+
+    if (latencies.isEmpty()) {
+      log.info("No slot was confirmed, no latencies to report");
+      return;
+    }
+
+    var sorted = latencies.stream().sorted().toList();
+    log.info("Release to confirmation over {} bookings: p50={} ms, p90={} ms, p99={} ms, "
+            + "max={} ms", sorted.size(), percentile(sorted, 0.50), percentile(sorted, 0.90),
+        percentile(sorted, 0.99), sorted.getLast());
+  }
+
+  private static long percentile(List<Long> sorted, double quantile) {
+    return sorted.get(Math.max(0, (int) Math.ceil(quantile * sorted.size()) - 1));
+  }
+
+  private static double doubleProperty(String name, double defaultValue) {
+    var value = System.getProperty(name);
+    return value != null ? Double.parseDouble(value) : defaultValue;
+  }
+}
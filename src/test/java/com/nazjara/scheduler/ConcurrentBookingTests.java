@@ -0,0 +1,140 @@
+package com.nazjara.scheduler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.nazjara.config.SchedulerConfig;
+import com.nazjara.config.SchedulerConfig.JobConfig;
+import com.nazjara.stub.CalendisStub;
+import com.nazjara.util.DateTimeUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+/**
+ * Runs booking jobs that book several candidates at once against a {@link CalendisStub} offering
+ * one slot per court, and checks that exactly one appointment is left in place.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+class ConcurrentBookingTests {
+
+  private static final String APPOINTMENT_TIME = "11:00";
+  private static final List<String> COURTS = List.of("court-1", "court-2");
+  private static final Duration RUN_TIMEOUT = Duration.ofSeconds(30);
+  private static final String BOOKINGS = "calendis.scheduler.bookings";
+
+  private static CalendisStub stub;
+  private static Path journalDir;
+
+  @Autowired
+  private AppointmentScheduler appointmentScheduler;
+
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  @BeforeAll
+  static void startStub() throws IOException {
+    stub = CalendisStub.start(CalendisStub.Behavior.builder()
+        .latency(Duration.ofMillis(20))
+        .latencyJitter(Duration.ofMillis(20))
+        .contentionDelay(Duration.ZERO)
+        .idInCreateResponse(true)
+        .build());
+    journalDir = Files.createTempDirectory("booking-journal");
+  }
+
+  @AfterAll
+  static void stopStub() {
+    if (stub != null) {
+      stub.close();
+    }
+  }
+
+  @DynamicPropertySource
+  static void stubProperties(DynamicPropertyRegistry registry) {
+    registry.add("calendis.api.base-url", () -> stub.baseUrl());
+    registry.add("calendis.journal.path", () -> journalDir.resolve("journal.log").toString());
+    registry.add("calendis.journal.slot-metadata-path",
+        () -> journalDir.resolve("slot-metadata.tsv").toString());
+    registry.add("calendis.scheduler.enabled", () -> false);
+    registry.add("calendis.scheduler.email.primary", () -> "primary@example.com");
+    registry.add("calendis.scheduler.email.secondary", () -> "secondary@example.com");
+    registry.add("calendis.scheduler.password.primary", () -> "secret");
+    registry.add("calendis.scheduler.password.secondary", () -> "secret");
+    registry.add("calendis.scheduler.user-id.primary", () -> 101);
+    registry.add("calendis.scheduler.user-id.secondary", () -> 102);
+    registry.add("calendis.http.warmup.enabled", () -> false);
+    registry.add("calendis.scheduler.polling.dense-interval", () -> "PT0.1S");
+    registry.add("calendis.scheduler.polling.search-timeout", () -> "PT10S");
+    registry.add("calendis.scheduler.retry.initial-delay", () -> "PT0.1S");
+  }
+
+  @Test
+  void releasesAppointmentWhoseConfirmationFailedWhileAnotherWon() throws InterruptedException {
+    var job = job("failed-confirmation", false);
+    stub.openSlots(targetTime(), COURTS, Instant.EPOCH);
+    stub.failConfirmationOf("court-1");
+
+    appointmentScheduler.runJob(job);
+
+    assertThat(awaitOutcome(job.getName())).isEqualTo("booked");
+    assertThat(stub.booked()).containsOnlyKeys(stub.confirmed()).containsValue("court-2")
+        .hasSize(1);
+  }
+
+  @Test
+  void cancelsEveryBookingOfTheRaceButTheWinner() throws InterruptedException {
+    var job = job("race", true);
+    stub.openSlots(targetTime(), COURTS, Instant.EPOCH);
+
+    appointmentScheduler.runJob(job);
+
+    assertThat(awaitOutcome(job.getName())).isEqualTo("booked");
+    assertThat(stub.booked()).hasSize(1).containsOnlyKeys(stub.confirmed());
+  }
+
+  private static JobConfig job(String name, boolean race) {
+    var job = new JobConfig();
+    job.setName(name);
+    job.setEnabled(true);
+    job.setAccount(SchedulerConfig.PRIMARY_ACCOUNT);
+    job.setLocationId(4609);
+    job.setServiceId(37695);
+    job.setAppointmentTime(APPOINTMENT_TIME);
+    job.setParallelBookings(COURTS.size());
+    job.setRace(race);
+    return job;
+  }
+
+  private static long targetTime() {
+    return DateTimeUtils.getFutureTimestamp(DateTimeUtils.ROMANIA_ZONE, 14,
+        APPOINTMENT_TIME);
+  }
+
+  /**
+   * Waits for the job to count its outcome, which it does exactly once at the end of its run.
+   */
+  private String awaitOutcome(String job) throws InterruptedException {
+    var deadline = Instant.now().plus(RUN_TIMEOUT);
+
+    while (Instant.now().isBefore(deadline)) {
+      for (var counter : meterRegistry.find(BOOKINGS).tag("job", job).counters()) {
+        if (counter.count() > 0) {
+          return counter.getId().getTag("outcome");
+        }
+      }
+      Thread.sleep(20);
+    }
+    return "timeout";
+  }
+}
@@ -0,0 +1,197 @@
+package com.nazjara.scheduler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.nazjara.config.CoordinationConfig;
+import com.nazjara.scheduler.JobCoordinator.Lease;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class FileJobCoordinatorTests {
+
+  private static final String JOB = "tennis";
+  private static final long RUN = 1_900_000_000L;
+
+  @TempDir
+  Path directory;
+
+  private final List<FileJobCoordinator> coordinators = new ArrayList<>();
+  private FileJobCoordinator first;
+  private FileJobCoordinator second;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    first = open("node-a");
+    second = open("node-b");
+  }
+
+  @AfterEach
+  void tearDown() {
+    coordinators.forEach(FileJobCoordinator::destroy);
+  }
+
+  @Test
+  void leasesRunToOneCoordinatorAtATime() {
+    var lease = first.tryAcquire(JOB, RUN).orElseThrow();
+
+    assertThat(first.tryAcquire(JOB, RUN)).isEmpty();
+    assertThat(second.tryAcquire(JOB, RUN)).isEmpty();
+    assertThat(second.tryAcquire(JOB, RUN + 1)).isPresent().get().satisfies(Lease::close);
+
+    lease.close();
+
+    assertThat(second.tryAcquire(JOB, RUN)).isPresent().get().satisfies(Lease::close);
+  }
+
+  @Test
+  void leavesCompletedRunUnleased() {
+    try (var lease = first.tryAcquire(JOB, RUN).orElseThrow()) {
+      lease.complete();
+    }
+
+    assertThat(first.isCompleted(JOB, RUN)).isTrue();
+    assertThat(second.isCompleted(JOB, RUN)).isTrue();
+    assertThat(first.tryAcquire(JOB, RUN)).isEmpty();
+    assertThat(second.tryAcquire(JOB, RUN)).isEmpty();
+    assertThat(second.isCompleted(JOB, RUN + 1)).isFalse();
+  }
+
+  @Test
+  void takesOverRunWhoseHolderDiedBeforeBooking() {
+    first.tryAcquire(JOB, RUN).orElseThrow().close();
+
+    try (var takeover = second.tryAcquire(JOB, RUN).orElseThrow()) {
+      assertThat(takeover.isBookingAbandoned()).isFalse();
+    }
+  }
+
+  @Test
+  void flagsTakeoverOfRunWhoseHolderDiedWhileBooking() {
+    var lease = first.tryAcquire(JOB, RUN).orElseThrow();
+    lease.bookingStarted();
+    lease.bookingStarted();
+    lease.close();
+
+    try (var takeover = second.tryAcquire(JOB, RUN).orElseThrow()) {
+      assertThat(takeover.isBookingAbandoned()).isTrue();
+    }
+    try (var resumed = first.tryAcquire(JOB, RUN).orElseThrow()) {
+      assertThat(resumed.isBookingAbandoned()).isFalse();
+    }
+    assertThat(directory.resolve(JOB + "-" + RUN + ".booking")).hasContent("node-a");
+  }
+
+  @Test
+  void grantsRacedLeaseOnce() throws Exception {
+    var rounds = 50;
+    var executor = Executors.newFixedThreadPool(4);
+    try {
+      for (long run = RUN; run < RUN + rounds; run++) {
+        var start = new CountDownLatch(1);
+        var attempts = new ArrayList<Future<Optional<Lease>>>();
+        for (var coordinator : List.of(first, second, first, second)) {
+          var raced = run;
+          attempts.add(executor.submit((Callable<Optional<Lease>>) () -> {
+            start.await();
+            return coordinator.tryAcquire(JOB, raced);
+          }));
+        }
+        start.countDown();
+
+        var leases = new ArrayList<Lease>();
+        for (var attempt : attempts) {
+          attempt.get().ifPresent(leases::add);
+        }
+
+        assertThat(leases).hasSize(1);
+        leases.forEach(Lease::close);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  void assignsEachJobToOneAliveCoordinator() {
+    var jobs = IntStream.range(0, 100).mapToObj(i -> "job-" + i).toList();
+
+    for (var job : jobs) {
+      assertThat(first.prefers(job)).isNotEqualTo(second.prefers(job));
+    }
+    assertThat(jobs).anyMatch(first::prefers).anyMatch(second::prefers);
+  }
+
+  @Test
+  void movesOnlyJobsTakenOverByNewCoordinator() throws IOException {
+    var jobs = IntStream.range(0, 100).mapToObj(i -> "job-" + i).toList();
+    var before = jobs.stream().filter(first::prefers).toList();
+
+    var third = open("node-c");
+
+    for (var job : jobs) {
+      if (first.prefers(job)) {
+        assertThat(before).contains(job);
+      } else if (before.contains(job)) {
+        assertThat(third.prefers(job)).isTrue();
+      }
+    }
+  }
+
+  @Test
+  void ignoresStoppedAndSilentCoordinators() throws IOException {
+    var jobs = IntStream.range(0, 20).mapToObj(i -> "job-" + i).toList();
+
+    second.destroy();
+
+    assertThat(jobs).allMatch(first::prefers);
+
+    var third = open("node-c");
+    Files.setLastModifiedTime(directory.resolve("nodes").resolve("node-c"),
+        FileTime.from(Instant.now().minus(Duration.ofMinutes(1))));
+
+    assertThat(jobs).allMatch(first::prefers).noneMatch(third::prefers);
+  }
+
+  @Test
+  void purgesExpiredRunFilesAtStartup() throws IOException {
+    try (var lease = first.tryAcquire(JOB, RUN).orElseThrow()) {
+      lease.complete();
+    }
+    var old = FileTime.from(Instant.now().minus(Duration.ofDays(8)));
+    Files.setLastModifiedTime(directory.resolve(JOB + "-" + RUN + ".done"), old);
+    Files.setLastModifiedTime(directory.resolve(JOB + "-" + RUN + ".lock"), old);
+
+    var restarted = open("node-a");
+
+    assertThat(restarted.isCompleted(JOB, RUN)).isFalse();
+    assertThat(directory.resolve(JOB + "-" + RUN + ".lock")).doesNotExist();
+  }
+
+  private FileJobCoordinator open(String nodeId) throws IOException {
+    var config = new CoordinationConfig();
+    config.setMode(CoordinationConfig.Mode.FILE);
+    config.setDirectory(directory);
+    config.setNodeId(nodeId);
+
+    var coordinator = new FileJobCoordinator(config);
+    coordinator.afterPropertiesSet();
+    coordinators.add(coordinator);
+    return coordinator;
+  }
+}
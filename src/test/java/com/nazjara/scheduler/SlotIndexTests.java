@@ -0,0 +1,90 @@
+package com.nazjara.scheduler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.nazjara.model.response.AvailableSlotsResponse.Slot;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class SlotIndexTests {
+
+  private static final long FIRST = 1_900_000_000L;
+  private static final long MIDDLE = FIRST + 1_800;
+  private static final long LAST = FIRST + 3_600;
+
+  private final SlotIndex index = SlotIndex.of(List.of(
+      slot(1, FIRST, "court-1"),
+      slot(0, FIRST + 900, "court-1"),
+      slot(1, MIDDLE, "court-1"),
+      slot(1, LAST, "court-1")));
+
+  @Test
+  void findsSlotsAtBothEnds() {
+    assertThat(index.size()).isEqualTo(3);
+    assertThat(index.findAll(FIRST)).extracting(Slot::getTime).containsExactly(FIRST);
+    assertThat(index.findAll(LAST)).extracting(Slot::getTime).containsExactly(LAST);
+    assertThat(index.findAll(MIDDLE)).singleElement().satisfies(slot -> {
+      assertThat(slot.getIsAvailable()).isEqualTo(1);
+      assertThat(slot.getStaffId()).isEqualTo("court-1");
+      assertThat(slot.getGroupId()).isEqualTo("group-" + MIDDLE);
+    });
+  }
+
+  @Test
+  void findsNothingOutsideOrBetweenSlots() {
+    assertThat(index.findAll(FIRST - 1)).isEmpty();
+    assertThat(index.findAll(LAST + 1)).isEmpty();
+    assertThat(index.findAll(FIRST + 900)).isEmpty();
+    assertThat(index.findAll(Long.MIN_VALUE)).isEmpty();
+    assertThat(index.findAll(Long.MAX_VALUE)).isEmpty();
+    assertThat(index.findAll(MIDDLE + 1)).isEmpty();
+  }
+
+  @Test
+  void indexesNothingWithoutAvailableSlots() {
+    assertThat(SlotIndex.of(List.of())).isSameAs(SlotIndex.EMPTY);
+    assertThat(SlotIndex.of(List.of(slot(0, FIRST, "court-1")))).isSameAs(SlotIndex.EMPTY);
+    assertThat(SlotIndex.builder().build()).isSameAs(SlotIndex.EMPTY);
+    assertThat(SlotIndex.EMPTY.findAll(FIRST)).isEmpty();
+  }
+
+  @Test
+  void keepsReportedOrderOfSlotsSharingTime() {
+    var unsorted = SlotIndex.of(List.of(
+        slot(1, LAST, "court-3"),
+        slot(1, MIDDLE, "court-1"),
+        slot(1, FIRST, "court-1"),
+        slot(1, MIDDLE, "court-2"),
+        slot(1, MIDDLE, "court-3")));
+
+    assertThat(unsorted.findAll(MIDDLE)).extracting(Slot::getStaffId)
+        .containsExactly("court-1", "court-2", "court-3");
+    assertThat(unsorted.findAll(FIRST)).extracting(Slot::getStaffId).containsExactly("court-1");
+    assertThat(unsorted.findAll(LAST)).extracting(Slot::getStaffId).containsExactly("court-3");
+  }
+
+  @Test
+  void indexesSlotsFedByTheBuilderBeyondItsInitialCapacity() {
+    var builder = SlotIndex.builder();
+    for (int i = 199; i >= 0; i--) {
+      builder.accept(i % 2, "court-" + i, FIRST + i * 60L, "group-" + i);
+    }
+
+    var fed = builder.build();
+
+    assertThat(fed.size()).isEqualTo(100);
+    assertThat(fed.findAll(FIRST + 60)).extracting(Slot::getStaffId).containsExactly("court-1");
+    assertThat(fed.findAll(FIRST + 199 * 60L)).extracting(Slot::getGroupId)
+        .containsExactly("group-199");
+    assertThat(fed.findAll(FIRST)).isEmpty();
+  }
+
+  private static Slot slot(int isAvailable, long time, String staffId) {
+    return Slot.builder()
+        .isAvailable(isAvailable)
+        .staffId(staffId)
+        .groupId("group-" + time)
+        .time(time)
+        .build();
+  }
+}
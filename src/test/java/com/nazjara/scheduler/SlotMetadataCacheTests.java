@@ -0,0 +1,119 @@
+package com.nazjara.scheduler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.nazjara.config.JournalConfig;
+import com.nazjara.model.response.AvailableSlotsResponse.Slot;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SlotMetadataCacheTests {
+
+  private static final int LOCATION = 1;
+  private static final int SERVICE = 2;
+  private static final int STUFF = 0;
+  private static final long SLOT_TIME = 1_900_000_800L;
+  private static final long NEXT_WEEK = SLOT_TIME + Duration.ofDays(7).toSeconds();
+
+  @TempDir
+  Path directory;
+
+  private JournalConfig journalConfig;
+  private SlotMetadataCache cache;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    journalConfig = new JournalConfig();
+    journalConfig.setPath(directory.resolve("journal.log"));
+    journalConfig.setSlotMetadataPath(directory.resolve("slot-metadata.tsv"));
+    cache = open();
+  }
+
+  @Test
+  void predictsSlotsSeenBeforeRestart() throws IOException {
+    cache.record(LOCATION, SERVICE, STUFF, List.of(slot(1, "7", "11")));
+    cache.destroy();
+
+    var predicted = open().predict(LOCATION, SERVICE, STUFF, NEXT_WEEK).orElseThrow();
+
+    assertThat(predicted.getIsAvailable()).isEqualTo(1);
+    assertThat(predicted.getStaffId()).isEqualTo("7");
+    assertThat(predicted.getGroupId()).isEqualTo("11");
+    assertThat(predicted.getTime()).isEqualTo(NEXT_WEEK);
+  }
+
+  @Test
+  void prefersMetadataOfAvailableSlots() throws IOException {
+    cache.record(LOCATION, SERVICE, STUFF, List.of(slot(1, "7", "11")));
+    cache.record(LOCATION, SERVICE, STUFF, List.of(slot(0, "8", "12")));
+    cache.persist();
+
+    var predicted = open().predict(LOCATION, SERVICE, STUFF, SLOT_TIME).orElseThrow();
+
+    assertThat(predicted.getStaffId()).isEqualTo("7");
+    assertThat(predicted.getGroupId()).isEqualTo("11");
+  }
+
+  @Test
+  void keepsKnownMetadataWithoutMarkingItChanged() throws IOException {
+    cache.record(LOCATION, SERVICE, STUFF, 1, "7", SLOT_TIME, "11");
+    cache.persist();
+    Files.delete(journalConfig.getSlotMetadataPath());
+
+    cache.record(LOCATION, SERVICE, STUFF, 1, "7", NEXT_WEEK, "11");
+    cache.record(LOCATION, SERVICE, STUFF, 0, "8", SLOT_TIME, "12");
+    cache.persist();
+
+    assertThat(journalConfig.getSlotMetadataPath()).doesNotExist();
+    assertThat(cache.predict(LOCATION, SERVICE, STUFF, SLOT_TIME).orElseThrow().getStaffId())
+        .isEqualTo("7");
+  }
+
+  @Test
+  void skipsMalformedLines() throws IOException {
+    cache.record(LOCATION, SERVICE, STUFF, List.of(slot(1, "7", "11")));
+    cache.persist();
+    Files.writeString(journalConfig.getSlotMetadataPath(), "1\t2\tnot-a-number\n3\t4\n",
+        StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+    var reopened = open();
+
+    assertThat(reopened.predict(LOCATION, SERVICE, STUFF, SLOT_TIME)).isPresent();
+    assertThat(reopened.predict(3, 4, STUFF, SLOT_TIME)).isEmpty();
+  }
+
+  @Test
+  void keepsMetadataInMemoryWhenJournalIsDisabled() throws IOException {
+    journalConfig.setEnabled(false);
+    cache = open();
+
+    cache.record(LOCATION, SERVICE, STUFF, List.of(slot(1, "7", "11")));
+    cache.destroy();
+
+    assertThat(cache.predict(LOCATION, SERVICE, STUFF, SLOT_TIME)).isPresent();
+    assertThat(journalConfig.getSlotMetadataPath()).doesNotExist();
+  }
+
+  private SlotMetadataCache open() throws IOException {
+    var opened = new SlotMetadataCache(journalConfig);
+    opened.afterPropertiesSet();
+    return opened;
+  }
+
+  private static Slot slot(int isAvailable, String staffId, String groupId) {
+    return Slot.builder()
+        .isAvailable(isAvailable)
+        .staffId(staffId)
+        .groupId(groupId)
+        .time(SLOT_TIME)
+        .build();
+  }
+}
@@ -0,0 +1,108 @@
+package com.nazjara.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.nazjara.model.request.BatchAvailableSlotsRequest.SlotsQuery;
+import com.nazjara.model.request.LoginRequest;
+import com.nazjara.stub.CalendisStub;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+/**
+ * Runs the {@link AppointmentService} batch availability scan against a {@link CalendisStub}.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+class AppointmentServiceTests {
+
+  private static final String EMAIL = "batch@example.com";
+  private static final long SLOT_TIME = 1_900_000_000L;
+  private static final long DATE = 1_899_964_800L;
+
+  private static CalendisStub stub;
+  private static Path journalDir;
+
+  @Autowired
+  private AppointmentService appointmentService;
+
+  @Autowired
+  private AuthService authService;
+
+  @BeforeAll
+  static void startStub() throws IOException {
+    stub = CalendisStub.start(CalendisStub.Behavior.builder()
+        .latency(Duration.ofMillis(20))
+        .latencyJitter(Duration.ZERO)
+        .contentionDelay(Duration.ZERO)
+        .build());
+    stub.openSlot(SLOT_TIME, "7", Instant.EPOCH);
+    journalDir = Files.createTempDirectory("booking-journal");
+  }
+
+  @AfterAll
+  static void stopStub() {
+    if (stub != null) {
+      stub.close();
+    }
+  }
+
+  @DynamicPropertySource
+  static void stubProperties(DynamicPropertyRegistry registry) {
+    registry.add("calendis.api.base-url", () -> stub.baseUrl());
+    registry.add("calendis.journal.path", () -> journalDir.resolve("journal.log").toString());
+    registry.add("calendis.journal.slot-metadata-path",
+        () -> journalDir.resolve("slot-metadata.tsv").toString());
+    registry.add("calendis.http.warmup.enabled", () -> false);
+    registry.add("calendis.scheduler.enabled", () -> false);
+  }
+
+  @Test
+  void keysBatchResultsByDistinctTupleInRequestOrder() {
+    authService.login(new LoginRequest(EMAIL, "secret", true));
+    var second = query(2, 0);
+    var first = query(1, 7);
+
+    var results = appointmentService.getAvailableSlots(EMAIL, List.of(second, first, second));
+
+    assertThat(results.keySet()).containsExactly(
+        new AvailableSlotsCache.Key(2, 1, 0, DATE, 1),
+        new AvailableSlotsCache.Key(1, 1, 7, DATE, 1));
+    assertThat(results.values()).allSatisfy(result -> {
+      assertThat(result.getError()).isNull();
+      assertThat(result.getResponse().getAvailableSlots())
+          .anySatisfy(slot -> assertThat(slot.getTime()).isEqualTo(SLOT_TIME));
+    });
+    assertThat(results.get(new AvailableSlotsCache.Key(1, 1, 7, DATE, 1)).getQuery())
+        .isEqualTo(first);
+  }
+
+  @Test
+  void reportsFailingTupleWithoutFailingTheBatch() {
+    var results = appointmentService.getAvailableSlots("unknown@example.com",
+        List.of(query(3, 0)));
+
+    assertThat(results.values()).singleElement().satisfies(result -> {
+      assertThat(result.getResponse()).isNull();
+      assertThat(result.getError()).contains("Not authenticated");
+    });
+  }
+
+  private static SlotsQuery query(int serviceId, int stuffId) {
+    return SlotsQuery.builder()
+        .serviceId(serviceId)
+        .locationId(1)
+        .stuffId(stuffId)
+        .date(DATE)
+        .build();
+  }
+}
@@ -0,0 +1,128 @@
+package com.nazjara.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.nazjara.model.request.CreateAppointmentRequest;
+import com.nazjara.model.request.LoginRequest;
+import com.nazjara.stub.CalendisStub;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.DeflaterOutputStream;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.core5.http.ContentType;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+/**
+ * Runs {@link AsyncCalendisClient} against a {@link CalendisStub} that gzips its responses.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+class AsyncCalendisClientTests {
+
+  private static final String EMAIL = "async@example.com";
+  private static final long SLOT_TIME = 1_900_000_000L;
+  private static final String STAFF_ID = "court-1";
+
+  private static CalendisStub stub;
+  private static Path journalDir;
+
+  @Autowired
+  private AsyncCalendisClient asyncCalendisClient;
+
+  @BeforeAll
+  static void startStub() throws IOException {
+    stub = CalendisStub.start(CalendisStub.Behavior.builder()
+        .latency(Duration.ZERO)
+        .latencyJitter(Duration.ZERO)
+        .contentionDelay(Duration.ZERO)
+        .gzip(true)
+        .build());
+    journalDir = Files.createTempDirectory("booking-journal");
+  }
+
+  @AfterAll
+  static void stopStub() {
+    if (stub != null) {
+      stub.close();
+    }
+  }
+
+  @DynamicPropertySource
+  static void stubProperties(DynamicPropertyRegistry registry) {
+    registry.add("calendis.api.base-url", () -> stub.baseUrl());
+    registry.add("calendis.journal.path", () -> journalDir.resolve("journal.log").toString());
+    registry.add("calendis.journal.slot-metadata-path",
+        () -> journalDir.resolve("slot-metadata.tsv").toString());
+    registry.add("calendis.http.warmup.enabled", () -> false);
+  }
+
+  @Test
+  void readsGzipEncodedResponses() throws Exception {
+    stub.openSlot(SLOT_TIME, STAFF_ID, Instant.now().minusSeconds(1));
+    asyncCalendisClient.login(new LoginRequest(EMAIL, "secret", true)).get(5, TimeUnit.SECONDS);
+
+    var slots = asyncCalendisClient.getAvailableSlots(EMAIL, 1, 2, 0, SLOT_TIME, 1)
+        .get(5, TimeUnit.SECONDS);
+    assertThat(slots.getSuccess()).isEqualTo(1);
+    assertThat(slots.getAvailableSlots())
+        .anySatisfy(slot -> {
+          assertThat(slot.getTime()).isEqualTo(SLOT_TIME);
+          assertThat(slot.getIsAvailable()).isEqualTo(1);
+        });
+
+    // The ID is read from the gzipped confirmation page, as the create response has none
+    var appointment = asyncCalendisClient.bookAppointment(EMAIL, createRequest())
+        .get(5, TimeUnit.SECONDS);
+    assertThat(appointment.getId()).isPositive();
+    assertThat(stub.confirmation()).isCompleted();
+  }
+
+  @Test
+  void inflatesDeflateEncodedBody() throws IOException {
+    var compressed = new ByteArrayOutputStream();
+    try (var deflater = new DeflaterOutputStream(compressed)) {
+      deflater.write("{\"success\":1}".getBytes(StandardCharsets.UTF_8));
+    }
+    var response = new SimpleHttpResponse(200);
+    response.addHeader("Content-Encoding", "deflate");
+    response.setBody(compressed.toByteArray(), ContentType.APPLICATION_JSON);
+
+    var decoded = AsyncCalendisClient.decode(response);
+
+    assertThat(decoded.getBodyText()).isEqualTo("{\"success\":1}");
+    assertThat(decoded.getFirstHeader("Content-Encoding")).isNull();
+  }
+
+  @Test
+  void leavesUnencodedBodyAsIs() throws IOException {
+    var response = SimpleHttpResponse.create(200, "{}", ContentType.APPLICATION_JSON);
+
+    assertThat(AsyncCalendisClient.decode(response)).isSameAs(response);
+  }
+
+  private static CreateAppointmentRequest createRequest() {
+    return CreateAppointmentRequest.builder()
+        .appointments(List.of(CreateAppointmentRequest.Appointment.builder()
+            .dateUnix(SLOT_TIME)
+            .dateUtcUnix(SLOT_TIME)
+            .locationId(2)
+            .serviceId(1)
+            .staffId(STAFF_ID)
+            .startTime("11:00")
+            .build()))
+        .groupId("group-" + SLOT_TIME)
+        .build();
+  }
+}
@@ -0,0 +1,192 @@
+package com.nazjara.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.nazjara.config.SessionConfig;
+import com.nazjara.model.request.LoginRequest;
+import com.nazjara.stub.CalendisStub;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+/**
+ * Runs {@link AuthService} session handling against a {@link CalendisStub} that counts logins.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+class AuthServiceTests {
+
+  private static final Instant ISSUED_AT = Instant.parse("2030-03-17T18:00:00Z");
+  private static final long SLOT_TIME = 1_900_000_000L;
+
+  private static CalendisStub stub;
+  private static Path journalDir;
+
+  @Autowired
+  private AuthService authService;
+
+  @Autowired
+  private AppointmentService appointmentService;
+
+  @Autowired
+  private AsyncCalendisClient asyncCalendisClient;
+
+  @Autowired
+  private SessionConfig sessionConfig;
+
+  @BeforeAll
+  static void startStub() throws IOException {
+    stub = CalendisStub.start(CalendisStub.Behavior.builder()
+        .latency(Duration.ofMillis(20))
+        .latencyJitter(Duration.ZERO)
+        .contentionDelay(Duration.ZERO)
+        .build());
+    journalDir = Files.createTempDirectory("booking-journal");
+  }
+
+  @AfterAll
+  static void stopStub() {
+    if (stub != null) {
+      stub.close();
+    }
+  }
+
+  @DynamicPropertySource
+  static void stubProperties(DynamicPropertyRegistry registry) {
+    registry.add("calendis.api.base-url", () -> stub.baseUrl());
+    registry.add("calendis.journal.path", () -> journalDir.resolve("journal.log").toString());
+    registry.add("calendis.journal.slot-metadata-path",
+        () -> journalDir.resolve("slot-metadata.tsv").toString());
+    registry.add("calendis.http.warmup.enabled", () -> false);
+    registry.add("calendis.scheduler.enabled", () -> false);
+  }
+
+  @Test
+  void readsExpiryFromMaxAgeBeforeExpires() {
+    var session = authService.registerSession(login("max-age@example.com"),
+        List.of("client_session=a; Expires=Sun, 17 Mar 2030 20:00:00 GMT; Max-Age=600; path=/"),
+        ISSUED_AT);
+
+    assertThat(session.getClientSession()).isEqualTo("a");
+    assertThat(session.getIssuedAt()).isEqualTo(ISSUED_AT);
+    assertThat(session.getExpiresAt()).isEqualTo(ISSUED_AT.plusSeconds(600));
+  }
+
+  @Test
+  void readsExpiryFromExpires() {
+    var session = authService.registerSession(login("expires@example.com"),
+        List.of("cookie_message=0; path=/",
+            "client_session=b; expires=Sun, 17-Mar-2030 20:00:00 GMT; HttpOnly"),
+        ISSUED_AT);
+
+    assertThat(session.getClientSession()).isEqualTo("b");
+    assertThat(session.getExpiresAt()).isEqualTo(Instant.parse("2030-03-17T20:00:00Z"));
+  }
+
+  @Test
+  void assumesDefaultLifetimeWithoutValidExpiry() {
+    var session = authService.registerSession(login("default-ttl@example.com"),
+        List.of("client_session=c; Max-Age=soon; Expires=tomorrow; path=/"), ISSUED_AT);
+
+    assertThat(session.getExpiresAt()).isEqualTo(ISSUED_AT.plus(sessionConfig.getDefaultTtl()));
+  }
+
+  @Test
+  void reusesSessionUntilRefreshMargin() {
+    var loginRequest = login("reuse@example.com");
+    var before = stub.logins();
+
+    var session = authService.getSession(loginRequest);
+
+    assertThat(authService.getSession(loginRequest)).isSameAs(session);
+    assertThat(stub.logins() - before).isEqualTo(1);
+
+    // Expires within the refresh margin, so it is no longer reused
+    authService.registerSession(loginRequest, List.of("client_session=stub-0; Max-Age=60"),
+        Instant.now());
+
+    assertThat(authService.getSession(loginRequest).getClientSession()).isNotEqualTo("stub-0");
+    assertThat(stub.logins() - before).isEqualTo(2);
+  }
+
+  @Test
+  void sharesOneLoginBetweenConcurrentCallers() throws Exception {
+    var loginRequest = login("single-flight@example.com");
+    var before = stub.logins();
+
+    var sessions = runConcurrently(8, () -> authService.getSession(loginRequest));
+
+    assertThat(sessions).hasSize(8).allSatisfy(session -> assertThat(session)
+        .isSameAs(sessions.getFirst()));
+    assertThat(stub.logins() - before).isEqualTo(1);
+  }
+
+  @Test
+  void logsInOnceWhenConcurrentCallsAreRejected() throws Exception {
+    var email = "rejected@example.com";
+    authService.getSession(login(email));
+    stub.revokeSessions();
+    var before = stub.logins();
+
+    var responses = runConcurrently(8, () -> appointmentService.getAvailableSlots(email, 1, 2, 0,
+        SLOT_TIME, 1));
+
+    assertThat(responses).hasSize(8).allSatisfy(response ->
+        assertThat(response.getSuccess()).isEqualTo(1));
+    assertThat(stub.logins() - before).isEqualTo(1);
+  }
+
+  @Test
+  void logsInOnceWhenConcurrentAsyncCallsAreRejected() throws Exception {
+    var email = "rejected-async@example.com";
+    authService.getSession(login(email));
+    stub.revokeSessions();
+    var before = stub.logins();
+
+    var responses = runConcurrently(8, () -> asyncCalendisClient.getAvailableSlots(email, 1, 2, 0,
+        SLOT_TIME, 1).get(5, TimeUnit.SECONDS));
+
+    assertThat(responses).hasSize(8).allSatisfy(response ->
+        assertThat(response.getSuccess()).isEqualTo(1));
+    assertThat(stub.logins() - before).isEqualTo(1);
+  }
+
+  private static LoginRequest login(String email) {
+    return new LoginRequest(email, "secret", true);
+  }
+
+  private static <T> List<T> runConcurrently(int count, Callable<T> task) throws Exception {
+    var start = new CountDownLatch(1);
+    try (var executor = Executors.newFixedThreadPool(count)) {
+      var futures = new ArrayList<Future<T>>();
+      for (int i = 0; i < count; i++) {
+        futures.add(executor.submit(() -> {
+          start.await();
+          return task.call();
+        }));
+      }
+      start.countDown();
+
+      var results = new ArrayList<T>();
+      for (var future : futures) {
+        results.add(future.get(10, TimeUnit.SECONDS));
+      }
+      return results;
+    }
+  }
+}
@@ -0,0 +1,193 @@
+package com.nazjara.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.nazjara.model.response.AvailableSlotsResponse;
+import com.nazjara.service.AvailableSlotsCache.Key;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class AvailableSlotsCacheTests {
+
+  private static final Key KEY = new Key(1, 2, 0, 1_900_000_000L, 1);
+
+  private final AvailableSlotsCache cache = new AvailableSlotsCache();
+  private final AtomicInteger loads = new AtomicInteger();
+
+  @BeforeEach
+  void setUp() {
+    configure(Duration.ofHours(1), 1000);
+  }
+
+  @Test
+  void servesRepeatedQueriesWithinTtlFromMemory() {
+    var response = cache.get(KEY, this::load);
+
+    assertThat(cache.get(KEY, this::load)).isSameAs(response);
+    assertThat(cache.get(new Key(1, 2, 0, 1_900_086_400L, 1), this::load))
+        .isNotSameAs(response);
+    assertThat(loads).hasValue(2);
+  }
+
+  @Test
+  void reloadsAfterTtl() throws InterruptedException {
+    configure(Duration.ofMillis(50), 1000);
+    var response = cache.get(KEY, this::load);
+
+    Thread.sleep(100);
+
+    assertThat(cache.get(KEY, this::load)).isNotSameAs(response);
+    assertThat(loads).hasValue(2);
+  }
+
+  @Test
+  void sharesOneRequestBetweenConcurrentMisses() throws InterruptedException {
+    // Without a TTL, only coalescing with the in-flight request avoids a second load
+    configure(Duration.ZERO, 1000);
+    var release = new CountDownLatch(1);
+    var results = new ConcurrentLinkedQueue<AvailableSlotsResponse>();
+
+    var threads = startAll(8, () -> results.add(cache.get(KEY, () -> blockingLoad(release))));
+    awaitWaiting(threads);
+    release.countDown();
+    joinAll(threads);
+
+    assertThat(loads).hasValue(1);
+    assertThat(results).hasSize(8).containsOnly(results.peek());
+  }
+
+  @Test
+  void doesNotCacheFailures() {
+    Supplier<AvailableSlotsResponse> failing = () -> {
+      loads.incrementAndGet();
+      throw new IllegalStateException("Calendis unavailable");
+    };
+
+    assertThatThrownBy(() -> cache.get(KEY, failing)).hasMessage("Calendis unavailable");
+    assertThatThrownBy(() -> cache.get(KEY, failing)).hasMessage("Calendis unavailable");
+    var response = cache.get(KEY, this::load);
+
+    assertThat(cache.get(KEY, this::load)).isSameAs(response);
+    assertThat(loads).hasValue(3);
+  }
+
+  @Test
+  void sharesFailureWithConcurrentMisses() throws InterruptedException {
+    var release = new CountDownLatch(1);
+    var failures = new ConcurrentLinkedQueue<Throwable>();
+    Supplier<AvailableSlotsResponse> failing = () -> {
+      blockingLoad(release);
+      throw new IllegalStateException("Calendis unavailable");
+    };
+
+    var threads = startAll(4, () -> {
+      try {
+        cache.get(KEY, failing);
+      } catch (IllegalStateException e) {
+        failures.add(e);
+      }
+    });
+    awaitWaiting(threads);
+    release.countDown();
+    joinAll(threads);
+
+    assertThat(loads).hasValue(1);
+    assertThat(failures).hasSize(4);
+    cache.get(KEY, this::load);
+    assertThat(loads).hasValue(2);
+  }
+
+  @Test
+  void keepsInFlightRequestsWhenEvicting() throws InterruptedException {
+    configure(Duration.ofHours(1), 1);
+    var release = new CountDownLatch(1);
+    var results = new ConcurrentLinkedQueue<AvailableSlotsResponse>();
+
+    var inFlight = startAll(1, () -> results.add(cache.get(KEY, () -> blockingLoad(release))));
+    awaitWaiting(inFlight);
+    for (long date = 1; date <= 3; date++) {
+      cache.get(new Key(1, 2, 0, date, 1), this::load);
+    }
+    var coalesced = startAll(1, () -> results.add(cache.get(KEY, this::load)));
+    awaitWaiting(coalesced);
+    release.countDown();
+    joinAll(inFlight);
+    joinAll(coalesced);
+
+    assertThat(loads).hasValue(4);
+    assertThat(results).hasSize(2).containsOnly(results.peek());
+  }
+
+  @Test
+  void evictsOldestCompletedEntriesWhenFull() {
+    configure(Duration.ofHours(1), 2);
+    var oldest = new Key(1, 2, 0, 1, 1);
+    cache.get(oldest, this::load);
+    cache.get(new Key(1, 2, 0, 2, 1), this::load);
+    cache.get(new Key(1, 2, 0, 3, 1), this::load);
+    var newest = cache.get(new Key(1, 2, 0, 4, 1), this::load);
+
+    assertThat(cache.get(new Key(1, 2, 0, 4, 1), this::load)).isSameAs(newest);
+    cache.get(oldest, this::load);
+    assertThat(loads).hasValue(5);
+  }
+
+  private void configure(Duration ttl, int maxEntries) {
+    ReflectionTestUtils.setField(cache, "ttl", ttl);
+    ReflectionTestUtils.setField(cache, "maxEntries", maxEntries);
+  }
+
+  private AvailableSlotsResponse load() {
+    loads.incrementAndGet();
+    return AvailableSlotsResponse.builder().success(1).availableSlots(List.of()).build();
+  }
+
+  private AvailableSlotsResponse blockingLoad(CountDownLatch release) {
+    try {
+      if (!release.await(10, TimeUnit.SECONDS)) {
+        throw new IllegalStateException("Load was never released");
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException(e);
+    }
+    return load();
+  }
+
+  private static List<Thread> startAll(int count, Runnable task) {
+    var threads = new ArrayList<Thread>();
+    for (int i = 0; i < count; i++) {
+      threads.add(Thread.ofPlatform().start(task));
+    }
+    return threads;
+  }
+
+  /**
+   * Waits until every thread is blocked, either loading or waiting for the shared load.
+   */
+  private static void awaitWaiting(List<Thread> threads) throws InterruptedException {
+    var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+    while (!threads.stream().allMatch(thread -> thread.getState() == Thread.State.WAITING
+        || thread.getState() == Thread.State.TIMED_WAITING)) {
+      assertThat(System.nanoTime()).isLessThan(deadline);
+      Thread.sleep(5);
+    }
+  }
+
+  private static void joinAll(List<Thread> threads) throws InterruptedException {
+    for (var thread : threads) {
+      thread.join(TimeUnit.SECONDS.toMillis(10));
+      assertThat(thread.isAlive()).isFalse();
+    }
+  }
+}
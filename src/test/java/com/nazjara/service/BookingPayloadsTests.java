@@ -0,0 +1,85 @@
+package com.nazjara.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nazjara.model.request.CreateAppointmentRequest;
+import com.nazjara.model.response.AvailableSlotsResponse.Slot;
+import com.nazjara.util.DateTimeUtils;
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class BookingPayloadsTests {
+
+  private static final int LOCATION = 12;
+  private static final int SERVICE = 34;
+  private static final long SLOT_TIME = 1_900_000_800L;
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private final BookingPayloads payloads = new BookingPayloads(objectMapper);
+
+  @Test
+  void rendersCreatePayloadLikeRequestObject() throws IOException {
+    var slot = slot(SLOT_TIME, "court \"7\"", "group\\11");
+
+    var rendered = payloads.prime(LOCATION, SERVICE, SLOT_TIME).create(slot);
+
+    assertThat(objectMapper.readTree(rendered)).isEqualTo(expectedCreate(slot));
+  }
+
+  @Test
+  void serializesUnprimedSlotOnDemand() throws IOException {
+    var slot = slot(SLOT_TIME + 1_800, "7", null);
+
+    var rendered = payloads.prime(LOCATION, SERVICE, SLOT_TIME).create(slot);
+
+    assertThat(objectMapper.readTree(rendered)).isEqualTo(expectedCreate(slot));
+    assertThat(objectMapper.readTree(rendered).get("group_id").isNull()).isTrue();
+  }
+
+  @Test
+  void rendersConfirmPayloadForAnyAppointmentId() throws IOException {
+    for (var appointmentId : new long[] {42, Long.MIN_VALUE, Long.MIN_VALUE + 1, Long.MAX_VALUE}) {
+      var before = System.currentTimeMillis() / 1000;
+      var client = objectMapper.readTree(payloads.confirm(appointmentId)).get("clients").get(0);
+      var after = System.currentTimeMillis() / 1000;
+
+      assertThat(client.get("appointment_id").longValue()).isEqualTo(appointmentId);
+      assertThat(client.get("own_appointment").intValue()).isEqualTo(1);
+      assertThat(client.get("dateUnix").longValue()).isBetween(before, after);
+    }
+  }
+
+  private JsonNode expectedCreate(Slot slot) throws IOException {
+    var appointment = CreateAppointmentRequest.Appointment.builder()
+        .dateUnix(slot.getTime())
+        .dateUtcUnix(DateTimeUtils.convertTimestamp(slot.getTime(), "Europe/Bucharest", "UTC"))
+        .locationId(LOCATION)
+        .serviceId(SERVICE)
+        .staffId(slot.getStaffId())
+        .startTime(LocalTime.ofInstant(Instant.ofEpochSecond(slot.getTime()),
+            ZoneId.of("Europe/Bucharest")).format(DateTimeFormatter.ofPattern("HH:mm")))
+        .originalSlot(0)
+        .build();
+
+    return objectMapper.readTree(objectMapper.writeValueAsBytes(CreateAppointmentRequest.builder()
+        .appointments(List.of(appointment))
+        .groupId(slot.getGroupId())
+        .build()));
+  }
+
+  private static Slot slot(long time, String staffId, String groupId) {
+    return Slot.builder()
+        .isAvailable(1)
+        .staffId(staffId)
+        .groupId(groupId)
+        .time(time)
+        .build();
+  }
+}
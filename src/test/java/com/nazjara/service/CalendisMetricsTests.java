@@ -0,0 +1,126 @@
+package com.nazjara.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+class CalendisMetricsTests {
+
+  private static final String ENDPOINT = CalendisMetrics.ENDPOINT_AVAILABLE_SLOTS;
+
+  private SimpleMeterRegistry registry;
+  private CalendisMetrics metrics;
+
+  @BeforeEach
+  void setUp() {
+    registry = new SimpleMeterRegistry();
+    metrics = new CalendisMetrics(registry);
+  }
+
+  @Test
+  void recordsSuccessfulCallWithItsTags() {
+    var result = metrics.recordUpstream(ENDPOINT, 7, 11, () -> "slots");
+
+    assertThat(result).isEqualTo("slots");
+    assertThat(upstreamCount("success", "7", "11")).isEqualTo(1);
+  }
+
+  @Test
+  void tagsMissingLocationAndServiceAsNone() {
+    metrics.recordUpstream(CalendisMetrics.ENDPOINT_LOGIN, null, null, () -> null);
+
+    assertThat(registry.get("calendis.upstream.requests")
+        .tag("endpoint", CalendisMetrics.ENDPOINT_LOGIN)
+        .tag("location", "none")
+        .tag("service", "none")
+        .timer().count()).isEqualTo(1);
+  }
+
+  @Test
+  void classifiesFailedCallsAndRethrowsThem() {
+    assertOutcome(new HttpClientErrorException(HttpStatus.UNAUTHORIZED), "unauthorized");
+    assertOutcome(new HttpClientErrorException(HttpStatus.TOO_MANY_REQUESTS), "throttled");
+    assertOutcome(new HttpClientErrorException(HttpStatus.BAD_REQUEST), "client_error");
+    assertOutcome(new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE), "server_error");
+    assertOutcome(new ResourceAccessException("reset", new IOException("reset")), "io_error");
+    assertOutcome(new CancellationException(), "cancelled");
+    assertOutcome(new IllegalStateException(), "error");
+  }
+
+  @Test
+  void recordsAsyncCallsWhenTheirFutureCompletes() {
+    var pending = new CompletableFuture<String>();
+
+    var recorded = metrics.recordUpstreamAsync(ENDPOINT, 7, 11, () -> pending);
+
+    assertThat(registry.find("calendis.upstream.requests").timers()).isEmpty();
+    pending.completeExceptionally(new TimeoutException());
+    assertThat(recorded).isCompletedExceptionally();
+    assertThat(upstreamCount("timeout", "7", "11")).isEqualTo(1);
+  }
+
+  @Test
+  void unwrapsCompletionExceptionsOfAsyncCalls() {
+    metrics.recordUpstreamAsync(ENDPOINT, 7, 11,
+        () -> CompletableFuture.supplyAsync(() -> {
+          throw new HttpClientErrorException(HttpStatus.TOO_MANY_REQUESTS);
+        })).exceptionally(e -> null).join();
+    metrics.recordUpstreamAsync(ENDPOINT, 7, 11, () -> {
+      throw new ResourceAccessException("refused");
+    }).exceptionally(e -> null).join();
+
+    assertThat(upstreamCount("throttled", "7", "11")).isEqualTo(1);
+    assertThat(upstreamCount("io_error", "7", "11")).isEqualTo(1);
+  }
+
+  @Test
+  void countsSchedulerEventsPerJob() {
+    metrics.poll("padel", "burst");
+    metrics.poll("padel", "burst");
+    metrics.poll("padel", "regular");
+    metrics.retry("padel");
+    metrics.throttle("padel");
+    metrics.booking("padel", "booked");
+    metrics.booking("tennis", "not_found");
+
+    assertThat(registry.get("calendis.scheduler.polls").tag("job", "padel").tag("phase", "burst")
+        .counter().count()).isEqualTo(2);
+    assertThat(registry.get("calendis.scheduler.polls").tag("phase", "regular")
+        .counter().count()).isEqualTo(1);
+    assertThat(registry.get("calendis.scheduler.retries").tag("job", "padel")
+        .counter().count()).isEqualTo(1);
+    assertThat(registry.get("calendis.scheduler.throttles").tag("job", "padel")
+        .counter().count()).isEqualTo(1);
+    assertThat(registry.get("calendis.scheduler.bookings").tag("job", "padel")
+        .tag("outcome", "booked").counter().count()).isEqualTo(1);
+    assertThat(registry.get("calendis.scheduler.bookings").tag("job", "tennis")
+        .tag("outcome", "not_found").counter().count()).isEqualTo(1);
+  }
+
+  private void assertOutcome(RuntimeException failure, String outcome) {
+    assertThatThrownBy(() -> metrics.recordUpstream(ENDPOINT, 7, 11, () -> {
+      throw failure;
+    })).isSameAs(failure);
+    assertThat(upstreamCount(outcome, "7", "11")).as(outcome).isEqualTo(1);
+  }
+
+  private long upstreamCount(String outcome, String location, String service) {
+    return registry.get("calendis.upstream.requests")
+        .tag("endpoint", ENDPOINT)
+        .tag("location", location)
+        .tag("service", service)
+        .tag("outcome", outcome)
+        .timer().count();
+  }
+}
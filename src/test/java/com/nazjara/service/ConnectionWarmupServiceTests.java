@@ -0,0 +1,95 @@
+package com.nazjara.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.nazjara.stub.CalendisStub;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+/**
+ * Runs {@link ConnectionWarmupService} against a {@link CalendisStub} that counts pings.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+class ConnectionWarmupServiceTests {
+
+  private static final int CONNECTIONS = 3;
+  private static final Duration INTERVAL = Duration.ofMillis(100);
+
+  private static CalendisStub stub;
+  private static Path journalDir;
+
+  @Autowired
+  private ConnectionWarmupService connectionWarmupService;
+
+  @BeforeAll
+  static void startStub() throws IOException {
+    stub = CalendisStub.start(CalendisStub.Behavior.builder()
+        .latency(Duration.ZERO)
+        .latencyJitter(Duration.ZERO)
+        .contentionDelay(Duration.ZERO)
+        .build());
+    journalDir = Files.createTempDirectory("booking-journal");
+  }
+
+  @AfterAll
+  static void stopStub() {
+    if (stub != null) {
+      stub.close();
+    }
+  }
+
+  @DynamicPropertySource
+  static void stubProperties(DynamicPropertyRegistry registry) {
+    registry.add("calendis.api.base-url", () -> stub.baseUrl());
+    registry.add("calendis.journal.path", () -> journalDir.resolve("journal.log").toString());
+    registry.add("calendis.journal.slot-metadata-path",
+        () -> journalDir.resolve("slot-metadata.tsv").toString());
+    registry.add("calendis.scheduler.enabled", () -> false);
+    // Keeps the scheduled preparer from warming up, only the calls below do
+    registry.add("calendis.http.warmup.lead", () -> "PT0S");
+    registry.add("calendis.http.warmup.connections", () -> CONNECTIONS);
+    registry.add("calendis.http.warmup.interval", () -> INTERVAL.toString());
+  }
+
+  @Test
+  void pingsOncePerConfiguredConnection() {
+    var before = stub.pings();
+
+    connectionWarmupService.warmUp();
+
+    assertThat(stub.pings() - before).isEqualTo(CONNECTIONS);
+  }
+
+  @Test
+  void keepsConnectionsWarmUntilDeadline() throws InterruptedException {
+    var before = stub.pings();
+
+    connectionWarmupService.keepWarmUntil(Instant.now().plus(INTERVAL.multipliedBy(3)));
+    Thread.sleep(INTERVAL.multipliedBy(6).toMillis());
+    var warmed = stub.pings() - before;
+    Thread.sleep(INTERVAL.multipliedBy(3).toMillis());
+
+    assertThat(warmed).isGreaterThanOrEqualTo(2 * CONNECTIONS);
+    assertThat(stub.pings() - before).isEqualTo(warmed);
+  }
+
+  @Test
+  void skipsDeadlineAlreadyPassed() throws InterruptedException {
+    var before = stub.pings();
+
+    connectionWarmupService.keepWarmUntil(Instant.now().minusSeconds(1));
+    Thread.sleep(INTERVAL.multipliedBy(3).toMillis());
+
+    assertThat(stub.pings()).isEqualTo(before);
+  }
+}
@@ -0,0 +1,85 @@
+package com.nazjara.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+
+import java.time.Duration;
+import java.time.Instant;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.test.web.client.ExpectedCount;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.test.web.client.response.MockRestResponseCreators;
+import org.springframework.web.client.RestClient;
+
+class ServerClockTests {
+
+  private static final Instant RELEASE = Instant.parse("2030-03-17T08:00:00Z");
+
+  @Test
+  void assumesNoOffsetBeforeSynchronizing() {
+    var serverClock = new ServerClock(RestClient.create("http://127.0.0.1:1"));
+
+    assertThat(serverClock.synchronizedAt()).isEmpty();
+    assertThat(serverClock.toLocal(RELEASE)).isEqualTo(RELEASE);
+  }
+
+  @Test
+  void waitsForReleaseEarlierWhenServerClockIsAhead() {
+    var serverClock = clockOf(Duration.ofSeconds(30));
+
+    var offset = serverClock.synchronize(4);
+
+    assertThat(offset).isBetween(Duration.ofMillis(29_000), Duration.ofMillis(31_000));
+    assertThat(serverClock.synchronizedAt()).isPresent();
+    assertThat(serverClock.toLocal(RELEASE)).isEqualTo(RELEASE.minus(offset));
+  }
+
+  @Test
+  void waitsForReleaseLaterWhenServerClockIsBehind() {
+    var serverClock = clockOf(Duration.ofSeconds(-30));
+
+    var offset = serverClock.synchronize(4);
+
+    assertThat(offset).isBetween(Duration.ofMillis(-31_000), Duration.ofMillis(-29_000));
+    assertThat(serverClock.toLocal(RELEASE)).isAfter(RELEASE);
+  }
+
+  @Test
+  void keepsOffsetWhenServerCannotBeSampled() {
+    var builder = RestClient.builder();
+    var server = MockRestServiceServer.bindTo(builder).build();
+    server.expect(ExpectedCount.times(2), method(HttpMethod.HEAD))
+        .andRespond(request -> dated(Duration.ofSeconds(30)));
+    server.expect(ExpectedCount.times(2), method(HttpMethod.HEAD))
+        .andRespond(MockRestResponseCreators.withServiceUnavailable());
+    var serverClock = new ServerClock(builder.build());
+
+    var offset = serverClock.synchronize(2);
+    var synchronizedAt = serverClock.synchronizedAt();
+
+    assertThat(serverClock.synchronize(2)).isEqualTo(offset);
+    assertThat(serverClock.synchronizedAt()).isEqualTo(synchronizedAt);
+    assertThat(serverClock.toLocal(RELEASE)).isEqualTo(RELEASE.minus(offset));
+    server.verify();
+  }
+
+  /**
+   * A clock whose server answers every ping with a {@code Date} the given offset ahead.
+   */
+  private static ServerClock clockOf(Duration offset) {
+    var builder = RestClient.builder();
+    MockRestServiceServer.bindTo(builder).build()
+        .expect(ExpectedCount.manyTimes(), method(HttpMethod.HEAD))
+        .andRespond(request -> dated(offset));
+    return new ServerClock(builder.build());
+  }
+
+  private static MockClientHttpResponse dated(Duration offset) {
+    var response = new MockClientHttpResponse(new byte[0], HttpStatus.OK);
+    response.getHeaders().setDate(Instant.now().plus(offset).toEpochMilli());
+    return response;
+  }
+}
@@ -0,0 +1,75 @@
+package com.nazjara.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.nazjara.config.SessionConfig;
+import com.nazjara.dto.AuthDto;
+import com.nazjara.exception.AuthenticationException;
+import com.nazjara.model.request.LoginRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SessionRegistryTests {
+
+  private static final String PRIMARY = "primary@example.com";
+  private static final String SECONDARY = "secondary@example.com";
+
+  private SessionConfig sessionConfig;
+  private SessionRegistry registry;
+
+  @BeforeEach
+  void setUp() {
+    sessionConfig = new SessionConfig();
+    registry = new SessionRegistry(sessionConfig);
+  }
+
+  @Test
+  void keepsOneSessionPerAccount() {
+    registry.register(login(PRIMARY), session("a"));
+    registry.register(login(SECONDARY), session("b"));
+
+    assertThat(registry.get(PRIMARY).getClientSession()).isEqualTo("a");
+    assertThat(registry.get(SECONDARY).getClientSession()).isEqualTo("b");
+    assertThat(registry.findCredentials(SECONDARY)).contains(login(SECONDARY));
+  }
+
+  @Test
+  void resolvesMissingEmailToDefaultAccountOnly() {
+    sessionConfig.setDefaultEmail(PRIMARY);
+    registry.register(login(PRIMARY), session("a"));
+    registry.register(login(SECONDARY), session("b"));
+
+    assertThat(registry.get(null).getClientSession()).isEqualTo("a");
+    assertThat(registry.findCredentials(null)).contains(login(PRIMARY));
+  }
+
+  @Test
+  void rejectsMissingEmailWithoutDefaultAccount() {
+    registry.register(login(SECONDARY), session("b"));
+
+    assertThatThrownBy(() -> registry.get(null))
+        .isInstanceOf(AuthenticationException.class)
+        .hasMessageContaining("no default account");
+    assertThatThrownBy(() -> registry.findCredentials(null))
+        .isInstanceOf(AuthenticationException.class);
+  }
+
+  @Test
+  void rejectsDefaultAccountThatHasNotLoggedIn() {
+    sessionConfig.setDefaultEmail(PRIMARY);
+    registry.register(login(SECONDARY), session("b"));
+
+    assertThatThrownBy(() -> registry.get(null))
+        .isInstanceOf(AuthenticationException.class)
+        .hasMessageContaining(PRIMARY);
+  }
+
+  private static LoginRequest login(String email) {
+    return LoginRequest.builder().email(email).password("secret").build();
+  }
+
+  private static AuthDto session(String value) {
+    return AuthDto.builder().clientSession(value).cookieHeader("client_session=" + value).build();
+  }
+}
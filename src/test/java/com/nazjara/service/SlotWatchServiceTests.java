@@ -0,0 +1,76 @@
+package com.nazjara.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.nazjara.model.response.AvailableSlotsResponse;
+import com.nazjara.model.response.AvailableSlotsResponse.Slot;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class SlotWatchServiceTests {
+
+  private static final long EIGHT = 1_900_000_000L;
+  private static final long NINE = EIGHT + 3_600;
+
+  @Test
+  void reportsNothingForUnchangedSlots() {
+    var slots = List.of(slot(1, EIGHT, "7", "11"), slot(0, NINE, "7", "12"));
+
+    assertThat(diff(response(slots), response(List.copyOf(slots)))).isEmpty();
+    assertThat(diff(response(List.of()), null)).isEmpty();
+  }
+
+  @Test
+  void reportsNewAndChangedSlots() {
+    var before = response(List.of(
+        slot(0, EIGHT, "7", "11"),
+        slot(1, NINE, "7", "12"),
+        slot(1, NINE, "8", "13")));
+    var after = response(List.of(
+        slot(1, EIGHT, "7", "11"),
+        slot(1, NINE, "7", "14"),
+        slot(1, NINE, "8", "13"),
+        slot(1, EIGHT, "8", "15")));
+
+    assertThat(diff(before, after)).containsExactlyInAnyOrder(
+        slot(1, EIGHT, "7", "11"),
+        slot(1, NINE, "7", "14"),
+        slot(1, EIGHT, "8", "15"));
+  }
+
+  @Test
+  void reportsGoneSlotsAsUnavailableAfterOtherChanges() {
+    var before = response(List.of(slot(1, EIGHT, "7", "11"), slot(1, NINE, "7", "12")));
+    var after = response(List.of(slot(1, NINE, "7", "12"), slot(1, NINE, "8", "13")));
+
+    assertThat(diff(before, after)).containsExactly(
+        slot(1, NINE, "8", "13"),
+        slot(0, EIGHT, "7", "11"));
+  }
+
+  @Test
+  void reportsAllSlotsGoneWhenResponseIsEmpty() {
+    var before = response(List.of(slot(1, EIGHT, "7", "11"), slot(0, NINE, "7", "12")));
+
+    assertThat(diff(before, response(null))).containsExactlyInAnyOrder(
+        slot(0, EIGHT, "7", "11"),
+        slot(0, NINE, "7", "12"));
+  }
+
+  private static List<Slot> diff(AvailableSlotsResponse before, AvailableSlotsResponse after) {
+    return SlotWatchService.diff(SlotWatchService.index(before), SlotWatchService.index(after));
+  }
+
+  private static AvailableSlotsResponse response(List<Slot> slots) {
+    return AvailableSlotsResponse.builder().success(1).availableSlots(slots).build();
+  }
+
+  private static Slot slot(int isAvailable, long time, String staffId, String groupId) {
+    return Slot.builder()
+        .isAvailable(isAvailable)
+        .staffId(staffId)
+        .time(time)
+        .groupId(groupId)
+        .build();
+  }
+}
@@ -0,0 +1,410 @@
+package com.nazjara.stub;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+import lombok.Builder;
+
+/**
+ * Local stand-in for the Calendis endpoints used by {@code AuthService} and
+ * {@code AppointmentService}, for tests and latency measurements that must not reach
+ * calendis.ro.
+ *
+ * <p>A round opened with {@link #openSlot} offers one slot, or with {@link #openSlots} one slot
+ * per staff (court) at the same time, that becomes available at a release instant. Every request
+ * is delayed by the configured latency and may fail with an injected 503, or be throttled with 429
+ * and {@code Retry-After}. With contention, a competing user takes the slots shortly after their
+ * release unless they were created first. The first confirmation of the round completes
+ * {@link #confirmation()}, and {@link #booked()} tells which appointments were left in place.
+ * Bodies can be gzip encoded like those of calendis.ro.
+ */
+public final class CalendisStub implements AutoCloseable {
+
+  private static final String SESSION_COOKIE = "client_session=";
+  private static final Pattern APPOINTMENT_PATH = Pattern.compile("/api/appointment/(\\d+)");
+  private static final Pattern STAFF_ID = Pattern.compile("\"staff_id\":\"([^\"]*)\"");
+
+  private final HttpServer server;
+  private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+  private final Behavior behavior;
+  private final AtomicLong ids = new AtomicLong(1_000_000);
+  private final ConcurrentHashMap<String, Long> pendingBySession = new ConcurrentHashMap<>();
+  private final AtomicInteger logins = new AtomicInteger();
+  private final AtomicInteger pings = new AtomicInteger();
+  private volatile long revokedBefore;
+  private volatile Round round;
+
+  /**
+   * How the stub responds.
+   *
+   * @param latency            base delay of every response
+   * @param latencyJitter      random extra delay of up to this much
+   * @param errorRate          fraction of API requests failing with 503
+   * @param throttleRate       fraction of API requests throttled with 429
+   * @param contention         probability that a competing user takes the slot
+   * @param contentionDelay    how long after the release the competitor books
+   * @param idInCreateResponse whether the create response carries the appointment ID, otherwise
+   *                           it has to be read from the confirmation page
+   * @param gzip               whether response bodies are gzip encoded for clients accepting it,
+   *                           as calendis.ro does
+   */
+  @Builder
+  public record Behavior(Duration latency, Duration latencyJitter, double errorRate,
+                         double throttleRate, double contention, Duration contentionDelay,
+                         boolean idInCreateResponse, boolean gzip) {
+
+  }
+
+  private CalendisStub(HttpServer server, Behavior behavior) {
+    this.server = server;
+    this.behavior = behavior;
+  }
+
+  /**
+   * Starts a stub on a free port of the loopback interface.
+   *
+   * @param behavior how the stub responds
+   * @return the running stub
+   * @throws IOException if the server cannot be bound
+   */
+  public static CalendisStub start(Behavior behavior) throws IOException {
+    var server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+    var stub = new CalendisStub(server, behavior);
+    server.createContext("/", stub::handle);
+    server.setExecutor(stub.executor);
+    server.start();
+    return stub;
+  }
+
+  public String baseUrl() {
+    return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+  }
+
+  /**
+   * Starts a new round offering a single slot, replacing the previous one.
+   *
+   * @param time      the slot time, in epoch seconds
+   * @param staffId   the staff (court) ID of the slot
+   * @param releaseAt when the slot becomes available
+   */
+  public void openSlot(long time, String staffId, Instant releaseAt) {
+    openSlots(time, List.of(staffId), releaseAt);
+  }
+
+  /**
+   * Starts a new round offering one slot per staff (court) at the same time, replacing the
+   * previous round.
+   *
+   * @param time      the slot time, in epoch seconds
+   * @param staffIds  the staff (court) IDs of the slots
+   * @param releaseAt when the slots become available
+   */
+  public void openSlots(long time, List<String> staffIds, Instant releaseAt) {
+    var competitorAt = ThreadLocalRandom.current().nextDouble() < behavior.contention()
+        ? releaseAt.plus(behavior.contentionDelay()) : null;
+    pendingBySession.clear();
+    round = new Round(time, List.copyOf(staffIds), releaseAt, competitorAt);
+  }
+
+  /**
+   * Fails the confirmation of appointments of the given staff in the current round with 503.
+   *
+   * @param staffId the staff (court) ID whose appointments cannot be confirmed
+   */
+  public void failConfirmationOf(String staffId) {
+    round.unconfirmable.add(staffId);
+  }
+
+  /**
+   * @return the staff (court) IDs of the appointments of the current round that were created and
+   *     not deleted, keyed by appointment ID
+   */
+  public Map<Long, String> booked() {
+    return Map.copyOf(round.appointments);
+  }
+
+  /**
+   * @return the IDs of the appointments of the current round that were confirmed
+   */
+  public Set<Long> confirmed() {
+    return Set.copyOf(round.confirmedIds);
+  }
+
+  /**
+   * Completes with the instant the slot of the current round was confirmed by the client.
+   *
+   * @return the confirmation instant
+   */
+  public CompletableFuture<Instant> confirmation() {
+    return round.confirmed;
+  }
+
+  /**
+   * @return the number of logins answered so far
+   */
+  public int logins() {
+    return logins.get();
+  }
+
+  /**
+   * @return the number of {@code HEAD} requests answered so far, as sent by connection warm-up
+   */
+  public int pings() {
+    return pings.get();
+  }
+
+  /**
+   * Rejects every session issued so far with 401, as Calendis does for sessions it dropped
+   * before their advertised expiry.
+   */
+  public void revokeSessions() {
+    revokedBefore = ids.get() + 1;
+  }
+
+  @Override
+  public void close() {
+    server.stop(0);
+    executor.close();
+  }
+
+  private void handle(HttpExchange exchange) throws IOException {
+    try (exchange) {
+      delay();
+
+      var method = exchange.getRequestMethod();
+      var path = exchange.getRequestURI().getPath();
+
+      if ("HEAD".equals(method)) {
+        pings.incrementAndGet();
+        exchange.sendResponseHeaders(200, -1);
+        return;
+      }
+
+      var random = ThreadLocalRandom.current().nextDouble();
+      if (random < behavior.throttleRate()) {
+        exchange.getResponseHeaders().set("Retry-After", "1");
+        send(exchange, 429, "{\"success\":0,\"message\":\"too_many_requests\"}");
+        return;
+      }
+      if (random < behavior.throttleRate() + behavior.errorRate()) {
+        send(exchange, 503, "{\"success\":0,\"message\":\"unavailable\"}");
+        return;
+      }
+
+      if ("POST".equals(method) && "/api/login".equals(path)) {
+        logins.incrementAndGet();
+        exchange.getResponseHeaders().add("Set-Cookie",
+            SESSION_COOKIE + "stub-" + ids.incrementAndGet() + "; Max-Age=7200; path=/");
+        send(exchange, 200, "{\"success\":1}");
+        return;
+      }
+
+      var session = session(exchange);
+      if (session == null || isRevoked(session)) {
+        send(exchange, 401, "{\"success\":0,\"message\":\"unauthorized\"}");
+        return;
+      }
+
+      var appointment = APPOINTMENT_PATH.matcher(path);
+      if ("GET".equals(method) && "/api/get_available_slots".equals(path)) {
+        send(exchange, 200, availableSlots());
+      } else if ("POST".equals(method) && "/api/appointment/".equals(path)) {
+        create(exchange, session);
+      } else if ("GET".equals(method) && "/finalizeaza-programarea".equals(path)) {
+        confirmationPage(exchange, session);
+      } else if ("PUT".equals(method) && appointment.matches()) {
+        confirm(exchange, Long.parseLong(appointment.group(1)));
+      } else if ("DELETE".equals(method) && appointment.matches()) {
+        delete(Long.parseLong(appointment.group(1)));
+        send(exchange, 200, "{\"success\":1}");
+      } else {
+        send(exchange, 404, "{\"success\":0,\"message\":\"not_found\"}");
+      }
+    }
+  }
+
+  private String availableSlots() {
+    var current = round;
+    var slots = new ArrayList<String>();
+
+    if (current != null) {
+      var now = Instant.now();
+      for (var staffId : current.staffIds) {
+        slots.add(slot(current.time - 3600, staffId, false));
+        slots.add(slot(current.time, staffId, current.isAvailable(staffId, now)));
+        slots.add(slot(current.time + 3600, staffId, false));
+      }
+    }
+
+    return "{\"message\":\"ok\",\"success\":1,\"available_slots\":[" + String.join(",", slots)
+        + "],\"service_details\":{}}";
+  }
+
+  private static String slot(long time, String staffId, boolean available) {
+    return "{\"is_available\":" + (available ? 1 : 0) + ",\"staff_id\":\"" + staffId
+        + "\",\"time\":" + time + ",\"group_id\":\"group-" + time + "\"}";
+  }
+
+  private void create(HttpExchange exchange, String session) throws IOException {
+    var current = round;
+    var staffId = STAFF_ID.matcher(
+        new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+    if (current == null || !staffId.find() || !current.hold(staffId.group(1), Instant.now())) {
+      send(exchange, 400, "{\"success\":0,\"message\":\"slot_unavailable\"}");
+      return;
+    }
+
+    var appointmentId = ids.incrementAndGet();
+    current.appointments.put(appointmentId, staffId.group(1));
+    pendingBySession.put(session, appointmentId);
+
+    send(exchange, 200, behavior.idInCreateResponse()
+        ? "{\"success\":1,\"appointment_group_id\":\"" + appointmentId + "\"}"
+        : "{\"success\":1}");
+  }
+
+  private void confirmationPage(HttpExchange exchange, String session) throws IOException {
+    var appointmentId = pendingBySession.get(session);
+    var input = appointmentId != null
+        ? "<input type=\"hidden\" name=\"appointment_group_id\" id=\"appointment_group_id\""
+        + " value=\"" + appointmentId + "\">"
+        : "";
+
+    exchange.getResponseHeaders().set("Content-Type", "text/html; charset=UTF-8");
+    send(exchange, 200, "<html><head><title>Finalizeaza programarea</title></head><body>"
+        + "<form id=\"finalize\">" + input + "</form></body></html>");
+  }
+
+  private void confirm(HttpExchange exchange, long appointmentId) throws IOException {
+    var current = round;
+    var staffId = current != null ? current.appointments.get(appointmentId) : null;
+    if (staffId == null) {
+      send(exchange, 404, "{\"success\":0,\"message\":\"appointment_not_found\"}");
+      return;
+    }
+    if (current.unconfirmable.contains(staffId)) {
+      send(exchange, 503, "{\"success\":0,\"message\":\"unavailable\"}");
+      return;
+    }
+
+    current.confirmedIds.add(appointmentId);
+    current.confirmed.complete(Instant.now());
+    send(exchange, 200, "{\"success\":1}");
+  }
+
+  private void delete(long appointmentId) {
+    var current = round;
+    if (current != null) {
+      current.appointments.remove(appointmentId);
+      current.confirmedIds.remove(appointmentId);
+    }
+  }
+
+  private void delay() {
+    var millis = behavior.latency().toMillis();
+    var jitter = behavior.latencyJitter().toMillis();
+    if (jitter > 0) {
+      millis += ThreadLocalRandom.current().nextLong(jitter + 1);
+    }
+
+    if (millis > 0) {
+      try {
+        Thread.sleep(millis);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  private static String session(HttpExchange exchange) {
+    List<String> cookies = exchange.getRequestHeaders().getOrDefault("Cookie", List.of());
+    for (var header : cookies) {
+      for (var part : header.split(";")) {
+        var trimmed = part.trim();
+        if (trimmed.startsWith(SESSION_COOKIE)) {
+          return trimmed.substring(SESSION_COOKIE.length());
+        }
+      }
+    }
+    return null;
+  }
+
+  private boolean isRevoked(String session) {
+    try {
+      return Long.parseLong(session.substring(session.indexOf('-') + 1)) < revokedBefore;
+    } catch (NumberFormatException e) {
+      return false;
+    }
+  }
+
+  private void send(HttpExchange exchange, int status, String body) throws IOException {
+    var bytes = body.getBytes(StandardCharsets.UTF_8);
+    if (!exchange.getResponseHeaders().containsKey("Content-Type")) {
+      exchange.getResponseHeaders().set("Content-Type", "application/json");
+    }
+    if (behavior.gzip() && acceptsGzip(exchange)) {
+      var compressed = new ByteArrayOutputStream();
+      try (var gzip = new GZIPOutputStream(compressed)) {
+        gzip.write(bytes);
+      }
+      bytes = compressed.toByteArray();
+      exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+    }
+    exchange.sendResponseHeaders(status, bytes.length);
+    exchange.getResponseBody().write(bytes);
+  }
+
+  private static boolean acceptsGzip(HttpExchange exchange) {
+    return exchange.getRequestHeaders().getOrDefault("Accept-Encoding", List.of()).stream()
+        .anyMatch(value -> value.contains("gzip"));
+  }
+
+  private static final class Round {
+
+    private final long time;
+    private final List<String> staffIds;
+    private final Instant releaseAt;
+    private final Instant competitorAt;
+    private final CompletableFuture<Instant> confirmed = new CompletableFuture<>();
+    private final Map<Long, String> appointments = new ConcurrentHashMap<>();
+    private final Set<Long> confirmedIds = ConcurrentHashMap.newKeySet();
+    private final Set<String> unconfirmable = ConcurrentHashMap.newKeySet();
+    private final Set<String> held = new HashSet<>();
+
+    private Round(long time, List<String> staffIds, Instant releaseAt, Instant competitorAt) {
+      this.time = time;
+      this.staffIds = staffIds;
+      this.releaseAt = releaseAt;
+      this.competitorAt = competitorAt;
+    }
+
+    synchronized boolean isAvailable(String staffId, Instant now) {
+      return staffIds.contains(staffId) && !held.contains(staffId) && !now.isBefore(releaseAt)
+          && (competitorAt == null || now.isBefore(competitorAt));
+    }
+
+    synchronized boolean hold(String staffId, Instant now) {
+      return isAvailable(staffId, now) && held.add(staffId);
+    }
+  }
+}
@@ -0,0 +1,112 @@
+package com.nazjara.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.net.URI;
+import java.util.OptionalLong;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+class AppointmentIdScannerTests {
+
+  @Test
+  void readsIdFromLocationHeader() {
+    var headers = new HttpHeaders();
+    headers.setLocation(URI.create("https://www.calendis.ro/api/appointment/4242/"));
+
+    assertThat(AppointmentIdScanner.fromCreateResponse(headers, null))
+        .isEqualTo(OptionalLong.of(4242));
+  }
+
+  @Test
+  void readsIdFromResponseBody() {
+    assertThat(AppointmentIdScanner.fromCreateResponse(new HttpHeaders(),
+        "{\"success\":1,\"appointment_group_id\": \"4242\"}"))
+        .isEqualTo(OptionalLong.of(4242));
+    assertThat(AppointmentIdScanner.fromCreateResponse(new HttpHeaders(),
+        "{\"appointment_group_id\":4242}"))
+        .isEqualTo(OptionalLong.of(4242));
+  }
+
+  @Test
+  void returnsEmptyWithoutIdInCreateResponse() {
+    var headers = new HttpHeaders();
+    headers.setLocation(URI.create("/api/appointment/"));
+
+    assertThat(AppointmentIdScanner.fromCreateResponse(headers, "{\"success\":1}")).isEmpty();
+    assertThat(AppointmentIdScanner.fromCreateResponse(new HttpHeaders(),
+        "{\"appointment_group_id\":null}")).isEmpty();
+  }
+
+  @Test
+  void readsIdFromConfirmationPage() throws IOException {
+    var html = "<html><body><form>"
+        + "<label for=\"appointment_group_id\">Appointment</label>"
+        + "<input type=\"hidden\" id=\"appointment_group_id\" value=\"4242\">"
+        + "</form><script>never read</script></body></html>";
+    var consumed = new StringBuilder();
+
+    assertThat(AppointmentIdScanner.scanHtml(new StringReader(html), consumed))
+        .isEqualTo(OptionalLong.of(4242));
+    assertThat(html).startsWith(consumed);
+  }
+
+  @Test
+  void readsIdSplitAcrossChunks() throws IOException {
+    var html = "<html><input type='hidden'\n id='appointment_group_id'\n value='4242' /></html>";
+
+    assertThat(AppointmentIdScanner.scanHtml(new ChunkedReader(html, 3), new StringBuilder()))
+        .isEqualTo(OptionalLong.of(4242));
+  }
+
+  @Test
+  void returnsEmptyWhenConfirmationPageHasNoId() throws IOException {
+    var html = "<html><body><p>Your session has expired.</p></body></html>";
+    var consumed = new StringBuilder();
+
+    assertThat(AppointmentIdScanner.scanHtml(new StringReader(html), consumed)).isEmpty();
+    assertThat(consumed).hasToString(html);
+  }
+
+  @Test
+  void returnsEmptyWhenIdInputHasNoValue() throws IOException {
+    assertThat(AppointmentIdScanner.scanHtml(
+        new StringReader("<input id=\"appointment_group_id\" value=\"\">"), new StringBuilder()))
+        .isEmpty();
+  }
+
+  @Test
+  void returnsEmptyWhenIdInputIsTruncated() throws IOException {
+    assertThat(AppointmentIdScanner.scanHtml(
+        new StringReader("<html><input id=\"appointment_group_id\" value=\"42"),
+        new StringBuilder()))
+        .isEmpty();
+  }
+
+  /**
+   * Returns at most {@code chunkSize} characters per read, like a slow network stream.
+   */
+  private static final class ChunkedReader extends Reader {
+
+    private final StringReader delegate;
+    private final int chunkSize;
+
+    private ChunkedReader(String content, int chunkSize) {
+      this.delegate = new StringReader(content);
+      this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public int read(char[] buffer, int offset, int length) throws IOException {
+      return delegate.read(buffer, offset, Math.min(length, chunkSize));
+    }
+
+    @Override
+    public void close() {
+      delegate.close();
+    }
+  }
+}
@@ -0,0 +1,118 @@
+package com.nazjara.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.nazjara.model.response.AvailableSlotsResponse.Slot;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class AvailableSlotsParserTests {
+
+  private static final long TARGET = 1_900_000_800L;
+  private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+  @Test
+  void keepsAvailableSlotsAndTargetSlot() throws IOException {
+    var slots = parse("""
+        {"message":"ok","success":1,
+         "service_details":{"name":"Tennis","staff":[{"id":1},{"id":2}]},
+         "available_slots":[
+           {"is_available":0,"staff_id":"7","time":1900000000,"group_id":"11"},
+           {"is_available":0,"staff_id":"7","time":1900000800,"group_id":"12","extra":[1,2]},
+           {"is_available":1,"staff_id":"8","time":1900001600,"group_id":"13"}
+         ]}
+        """, false);
+
+    assertThat(slots).extracting(Slot::getTime).containsExactly(TARGET, 1_900_001_600L);
+    assertThat(slots.getFirst().getIsAvailable()).isZero();
+    assertThat(slots.getFirst().getGroupId()).isEqualTo("12");
+    assertThat(slots.getLast().getStaffId()).isEqualTo("8");
+  }
+
+  @Test
+  void stopsReadingAtAvailableTargetSlot() throws IOException {
+    var response = """
+        {"available_slots":[
+          {"is_available":1,"staff_id":"7","time":1900000000,"group_id":"11"},
+          {"is_available":1,"staff_id":"7","time":1900000800,"group_id":"12"},
+          {"is_available":1,"staff_id":"7","time":1900001600,"group_id":"13"},
+          not json at all
+        """;
+
+    var slots = parse(response, true);
+
+    assertThat(slots).extracting(Slot::getTime).containsExactly(1_900_000_000L, TARGET);
+    assertThatThrownBy(() -> parse(response, false)).isInstanceOf(IOException.class);
+  }
+
+  @Test
+  void readsWholeResponseWhenTargetIsUnavailable() throws IOException {
+    var slots = parse("""
+        {"available_slots":[
+          {"is_available":0,"staff_id":"7","time":1900000800,"group_id":"12"},
+          {"is_available":1,"staff_id":"7","time":1900001600,"group_id":"13"}
+        ]}
+        """, true);
+
+    assertThat(slots).extracting(Slot::getTime).containsExactly(TARGET, 1_900_001_600L);
+  }
+
+  @Test
+  void handsKeptSlotsToSinkFieldByField() throws IOException {
+    var times = new ArrayList<Long>();
+
+    try (JsonParser parser = JSON_FACTORY.createParser("""
+        {"available_slots":[
+          {"is_available":0,"staff_id":"7","time":1900000000,"group_id":"11"},
+          {"is_available":1,"staff_id":"7","time":1900000800,"group_id":"12"},
+          {"is_available":1,"staff_id":"7","time":1900001600,"group_id":"13"}
+        ]}
+        """)) {
+      var kept = AvailableSlotsParser.parse(parser, TARGET, true,
+          (isAvailable, staffId, time, groupId) -> times.add(time));
+
+      assertThat(kept).isEqualTo(1);
+    }
+    assertThat(times).containsExactly(TARGET);
+  }
+
+  @Test
+  void returnsNoSlotsWithoutSlotsArray() throws IOException {
+    assertThat(parse("{\"message\":\"none\",\"available_slots\":null}", true)).isEmpty();
+    assertThat(parse("{}", true)).isEmpty();
+  }
+
+  @Test
+  void rejectsResponseThatIsNotAnObject() {
+    assertThatThrownBy(() -> parse("[]", false))
+        .isInstanceOf(IOException.class)
+        .hasMessageContaining("Expected a JSON object");
+    assertThatThrownBy(() -> parse("", false)).isInstanceOf(IOException.class);
+  }
+
+  @Test
+  void rejectsMalformedResponse() {
+    assertThatThrownBy(() -> parse("{\"available_slots\":[{\"time\":}]}", false))
+        .isInstanceOf(IOException.class);
+  }
+
+  @Test
+  void rejectsTruncatedResponse() {
+    assertThatThrownBy(() -> parse(
+        "{\"available_slots\":[{\"is_available\":1,\"time\":1900000000", false))
+        .isInstanceOf(IOException.class);
+    assertThatThrownBy(() -> parse("{\"service_details\":{\"staff\":[", false))
+        .isInstanceOf(IOException.class);
+  }
+
+  private static List<Slot> parse(String response, boolean stopAtTarget) throws IOException {
+    try (JsonParser parser = JSON_FACTORY.createParser(response)) {
+      return AvailableSlotsParser.parse(parser, TARGET, stopAtTarget);
+    }
+  }
+}
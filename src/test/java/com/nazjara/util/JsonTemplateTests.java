@@ -0,0 +1,91 @@
+package com.nazjara.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+
+class JsonTemplateTests {
+
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+  private static final String MIN = String.valueOf(Long.MIN_VALUE);
+  private static final String MIN_PLUS_ONE = String.valueOf(Long.MIN_VALUE + 1);
+
+  @Test
+  void rendersValuesInPlaceholderOrder() {
+    var template = JsonTemplate.compile(bytes("{\"a\":\"__a__\",\"b\":[\"__b__\"],\"c\":1}"),
+        "\"__b__\"", "\"__a__\"");
+
+    assertThat(render(template, JsonTemplate.string("B"), JsonTemplate.number(7)))
+        .isEqualTo("{\"a\":7,\"b\":[\"B\"],\"c\":1}");
+  }
+
+  @Test
+  void distinguishesMinValuePlaceholders() {
+    var json = "{\"clients\":[{\"dateUnix\":" + MIN_PLUS_ONE + ",\"appointment_id\":" + MIN
+        + "}],\"own\":" + MIN_PLUS_ONE.substring(1, 5) + "}";
+    var template = JsonTemplate.compile(bytes(json), MIN, MIN_PLUS_ONE);
+
+    assertThat(render(template, JsonTemplate.number(42), JsonTemplate.number(1_900_000_000L)))
+        .isEqualTo("{\"clients\":[{\"dateUnix\":1900000000,\"appointment_id\":42}],\"own\":9223}");
+    assertThat(render(template, JsonTemplate.number(Long.MIN_VALUE),
+        JsonTemplate.number(Long.MIN_VALUE + 1)))
+        .isEqualTo(json);
+  }
+
+  @Test
+  void placesValuesAtDocumentEdges() {
+    var template = JsonTemplate.compile(bytes(MIN + "," + MIN_PLUS_ONE), MIN_PLUS_ONE, MIN);
+
+    assertThat(render(template, JsonTemplate.number(2), JsonTemplate.number(1)))
+        .isEqualTo("1,2");
+  }
+
+  @Test
+  void escapesStringValues() throws IOException {
+    var template = JsonTemplate.compile(bytes("{\"staff_id\":\"__staff__\"}"), "\"__staff__\"");
+    var value = "court \"1\"\\\n\t\u0001 țară";
+
+    var rendered = template.render(JsonTemplate.string(value));
+
+    assertThat(OBJECT_MAPPER.readTree(rendered).get("staff_id").textValue()).isEqualTo(value);
+    assertThat(render(template, JsonTemplate.string(null))).isEqualTo("{\"staff_id\":null}");
+    assertThat(render(template, JsonTemplate.string(""))).isEqualTo("{\"staff_id\":\"\"}");
+  }
+
+  @Test
+  void leavesTemplateUnchangedByRendering() {
+    var template = JsonTemplate.compile(bytes("[\"__id__\"]"), "\"__id__\"");
+
+    assertThat(render(template, JsonTemplate.number(1))).isEqualTo("[1]");
+    assertThat(render(template, JsonTemplate.number(Long.MAX_VALUE)))
+        .isEqualTo("[" + Long.MAX_VALUE + "]");
+  }
+
+  @Test
+  void rejectsMissingPlaceholder() {
+    assertThatThrownBy(() -> JsonTemplate.compile(bytes("{\"id\":1}"), "\"__id__\""))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("__id__");
+  }
+
+  @Test
+  void rejectsWrongNumberOfValues() {
+    var template = JsonTemplate.compile(bytes("[\"__a__\",\"__b__\"]"), "\"__a__\"", "\"__b__\"");
+
+    assertThatThrownBy(() -> template.render(JsonTemplate.number(1)))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("Expected 2 values, got 1");
+  }
+
+  private static byte[] bytes(String json) {
+    return json.getBytes(StandardCharsets.UTF_8);
+  }
+
+  private static String render(JsonTemplate template, byte[]... values) {
+    return new String(template.render(values), StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,59 @@
+package com.nazjara.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+class RetryAfterTests {
+
+  private static final Instant NOW = Instant.parse("2030-03-17T18:00:00Z");
+
+  @Test
+  void readsDelaySeconds() {
+    assertThat(RetryAfter.from(headers("120"), NOW)).contains(Duration.ofSeconds(120));
+    assertThat(RetryAfter.from(headers(" 5 "), NOW)).contains(Duration.ofSeconds(5));
+    assertThat(RetryAfter.from(headers("0"), NOW)).contains(Duration.ZERO);
+  }
+
+  @Test
+  void treatsNegativeDelayAsNoDelay() {
+    assertThat(RetryAfter.from(headers("-3"), NOW)).contains(Duration.ZERO);
+  }
+
+  @Test
+  void readsHttpDate() {
+    var header = DateTimeFormatter.RFC_1123_DATE_TIME
+        .format(NOW.plusSeconds(90).atOffset(ZoneOffset.UTC));
+
+    assertThat(RetryAfter.from(headers(header), NOW)).contains(Duration.ofSeconds(90));
+    assertThat(RetryAfter.from(headers("Sun, 17 Mar 2030 18:00:30 GMT"), NOW))
+        .contains(Duration.ofSeconds(30));
+  }
+
+  @Test
+  void treatsPastHttpDateAsNoDelay() {
+    assertThat(RetryAfter.from(headers("Sun, 17 Mar 2030 17:59:00 GMT"), NOW))
+        .contains(Duration.ZERO);
+  }
+
+  @Test
+  void ignoresMissingOrMalformedHeader() {
+    assertThat(RetryAfter.from(null, NOW)).isEmpty();
+    assertThat(RetryAfter.from(new HttpHeaders(), NOW)).isEmpty();
+    assertThat(RetryAfter.from(headers(" "), NOW)).isEmpty();
+    assertThat(RetryAfter.from(headers("1.5"), NOW)).isEmpty();
+    assertThat(RetryAfter.from(headers("tomorrow"), NOW)).isEmpty();
+    assertThat(RetryAfter.from(headers("2030-03-17T18:00:30Z"), NOW)).isEmpty();
+  }
+
+  private static HttpHeaders headers(String retryAfter) {
+    var headers = new HttpHeaders();
+    headers.set(HttpHeaders.RETRY_AFTER, retryAfter);
+    return headers;
+  }
+}